@@ -0,0 +1,47 @@
+import controller.HeadlessController;
+import simu.framework.AsyncTraceSink;
+import simu.framework.EventRecorder;
+import simu.framework.Trace;
+import simu.model.MyEngine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Runs the airport simulation without the JavaFX user interface.
+ * The engine runs to completion at full speed on the calling thread and only the final statistics are printed.
+ *
+ * Usage: {@code HeadlessMain [simulationTime] [arrivalInterval] [euPercentage] [checkin security passport euGates nonEuGates]}
+ * The trace is quiet unless the {@code trace.level} system property is set, e.g. {@code -Dtrace.level=INFO};
+ * with {@code -Dtrace.file=path} it is written to a file on a background thread instead of the console.
+ * With {@code -Devent.log=path} every event is recorded for {@link simu.model.EventLogReplay}.
+ */
+public class HeadlessMain { // Simulator without Java FX
+	public static void main(String[] args) throws IOException {
+		double simulationTime = args.length > 0 ? Double.parseDouble(args[0]) : 1000;
+		int arrivalInterval = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+		double euPercentage = args.length > 2 ? Double.parseDouble(args[2]) : 30;
+		int[] servers = {5, 3, 5, 5, 3}; // Same defaults as the GUI
+		for (int i = 0; i < servers.length && i + 3 < args.length; i++) {
+			servers[i] = Integer.parseInt(args[i + 3]);
+		}
+
+		Trace.setTraceLevel(Trace.Level.valueOf(System.getProperty("trace.level", "ERR")));
+		String traceFile = System.getProperty("trace.file");
+		String eventLog = System.getProperty("event.log");
+		// Closed even if the run fails, so the rest of the trace and the events are written
+		try (AsyncTraceSink traceSink = traceFile != null ? new AsyncTraceSink(Path.of(traceFile)) : null;
+			 EventRecorder eventRecorder = eventLog != null ? new EventRecorder(Path.of(eventLog)) : null) {
+			Trace.setSink(traceSink);
+			MyEngine engine = new MyEngine(new HeadlessController(System.out), arrivalInterval,
+					servers[0], servers[1], servers[2], servers[3], servers[4]);
+			engine.setSimulationTime(simulationTime);
+			engine.setDelay(0);
+			engine.setEUFlightPercentage(euPercentage / 100);
+			engine.setEventRecorder(eventRecorder);
+			engine.run(); // Run on this thread, no need for a separate engine thread
+		} finally {
+			Trace.setSink(null);
+		}
+	}
+}
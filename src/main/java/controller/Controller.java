@@ -3,10 +3,10 @@ package controller;
 import javafx.application.Platform;
 import javafx.scene.control.ComboBox;
 import simu.framework.IEngine;
+import simu.framework.QueueLengthSnapshot;
 import simu.model.MyEngine;
 import view.ISimulatorGUI;
 import view.SimulatorGUI;
-import view.Visualisation;
 import database.ServicePointConfig;
 import database.AirportDAO;
 import database.ServicePointConfigDAO;
@@ -38,6 +38,16 @@ public class Controller implements IControllerVtoM, IControllerMtoV {   // NEW
         this.ui = ui;
     }
 
+    /**
+     * The controller always renders the simulation in the JavaFX user interface.
+     *
+     * @return Always {@code true}.
+     */
+    @Override
+    public boolean isVisualising() {
+        return true;
+    }
+
     /**
      * Sets the SimulatorGUI instance for this controller.
      * This method binds the arrival interval and EU flight percentage sliders to the engine.
@@ -84,11 +94,22 @@ public class Controller implements IControllerVtoM, IControllerMtoV {   // NEW
     /**
      * Initializes the simulation engine.
      * This method creates a new instance of the MyEngine class and starts the simulation.
+     * If the service point configurations are invalid, e.g. the data file of an EMPIRICAL configuration cannot be
+     * read, the error is shown in the log area, no engine is created and the controls are reset, so the user can
+     * fix the configuration and start again.
      */
     private void initializeEngine() {
         // Use the service point configurations if they are available
         if (servicePointConfigs != null && !servicePointConfigs.isEmpty()) {
-            engine = new MyEngine(this, servicePointConfigs);
+            try {
+                engine = new MyEngine(this, servicePointConfigs);
+            } catch (IllegalArgumentException e) {
+                engine = null;
+                simulatorGUI.logEvent("\nCannot start the simulation: " + e.getMessage());
+                // Runs after the start button handler has disabled the settings
+                Platform.runLater(() -> simulatorGUI.setInitialControlStates());
+                return;
+            }
         } else {
             // Get the current slider value for arrival interval
             int arrivalInterval = (int) simulatorGUI.getArrivalSlider().getValue();
@@ -159,28 +180,15 @@ public class Controller implements IControllerVtoM, IControllerMtoV {   // NEW
     }
 
     /**
-     * Visualizes a new customer in the UI.
-     * This method is called from the engine to update the visualization with a new customer.
-     */
-    @Override
-    public void visualiseCustomer() {
-        Platform.runLater(() -> ui.getVisualisation().newCustomer());
-    }
-
-    /**
-     * Updates the queue lengths in the UI.
-     * This method is called from the engine to update the visualization with the current queue lengths.
+     * Connects the visualization in the UI to the queue lengths of the engine.
+     * This method is called from the engine when the simulation starts; the visualization then
+     * redraws the queues at most once per frame, only when the lengths have changed.
      *
-     * @param queueLengths A list of lists representing the lengths of different queues.
+     * @param queueLengths The snapshot of the queue lengths that the engine keeps up to date.
      */
     @Override
-    public void updateQueueLengths(List<List<Integer>> queueLengths) {
-        Platform.runLater(() -> {
-            if (ui.getVisualisation() instanceof Visualisation) {
-                Visualisation visualisation = (Visualisation) ui.getVisualisation();
-                visualisation.updateQueueLengths(queueLengths);
-            }
-        });
+    public void setQueueLengthSnapshot(QueueLengthSnapshot queueLengths) {
+        Platform.runLater(() -> ui.getVisualisation().setQueueLengthSnapshot(queueLengths));
     }
 
     /**
@@ -332,12 +340,13 @@ public class Controller implements IControllerVtoM, IControllerMtoV {   // NEW
     /**
      * Displays a log message in the UI.
      * This method is called from the engine to update the visualization with a log message.
+     * The message is passed through the log ring of the UI, which shows new messages once per frame.
      *
      * @param log The log message to be displayed.
      */
     @Override
     public void showLogArea(String log) {
-        Platform.runLater(() -> simulatorGUI.logEvent(log));
+        simulatorGUI.logEvent(log);
     }
 
     /**
@@ -346,7 +355,7 @@ public class Controller implements IControllerVtoM, IControllerMtoV {   // NEW
      */
     @Override
     public void clearLogArea() {
-        Platform.runLater(() -> simulatorGUI.clearLogArea());
+        simulatorGUI.clearLogArea(); // Clears on the JavaFX thread, but only the messages logged before this call
     }
 
     /**
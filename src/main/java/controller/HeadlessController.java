@@ -0,0 +1,92 @@
+package controller;
+
+import simu.framework.QueueLengthSnapshot;
+
+import java.io.PrintStream;
+
+/**
+ * Controller implementation for running the simulation without a user interface.
+ * All visualisation callbacks are no-ops, so the engine can run at full speed.
+ * Only the final results are written to the given output stream, if any.
+ */
+public class HeadlessController implements IControllerMtoV {
+    private final PrintStream out;
+
+    /**
+     * Creates a silent headless controller that discards all output.
+     */
+    public HeadlessController() {
+        this(null);
+    }
+
+    /**
+     * Creates a headless controller that prints the final results.
+     *
+     * @param out The stream where the end time and results are printed, or null to discard them.
+     */
+    public HeadlessController(PrintStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Headless controllers do not render anything.
+     *
+     * @return Always {@code false}.
+     */
+    @Override
+    public boolean isVisualising() {
+        return false;
+    }
+
+    /**
+     * Prints the end time of the simulation.
+     *
+     * @param time The end time of the simulation.
+     */
+    @Override
+    public void showEndTime(double time) {
+        if (out != null) {
+            out.println("Simulation ended at " + String.format("%.2f", time) + " (time units)");
+        }
+    }
+
+    /**
+     * Prints the results of the simulation.
+     *
+     * @param results The results of the simulation.
+     */
+    @Override
+    public void showResults(String results) {
+        if (out != null) {
+            out.println(results);
+        }
+    }
+
+    @Override
+    public void setQueueLengthSnapshot(QueueLengthSnapshot queueLengths) {
+    }
+
+    @Override
+    public void checkPaused() {
+    }
+
+    @Override
+    public void showLogArea(String log) {
+    }
+
+    @Override
+    public void clearLogArea() {
+    }
+
+    @Override
+    public void clearVisualisation() {
+    }
+
+    @Override
+    public void updateUIAfterReset() {
+    }
+
+    @Override
+    public void setExternalViewButton() {
+    }
+}
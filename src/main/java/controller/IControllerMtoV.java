@@ -1,6 +1,6 @@
 package controller;
 
-import java.util.List;
+import simu.framework.QueueLengthSnapshot;
 
 /**
  * Interface for the controller to communicate with the view.
@@ -9,23 +9,27 @@ import java.util.List;
 public interface IControllerMtoV {
 
     /**
-     * Shows the end time of the simulation.
+     * Tells whether the controller renders the simulation.
+     * The engine skips per-event visualisation and logging work when this returns false.
      *
-     * @param time the end time
+     * @return true if the simulation is shown in a user interface, false when running headless
      */
-    void showEndTime(double time);
+    boolean isVisualising();
 
     /**
-     * Visualizes a new customer in the simulation.
+     * Shows the end time of the simulation.
+     *
+     * @param time the end time
      */
-    void visualiseCustomer();
+    void showEndTime(double time);
 
     /**
-     * Updates the queue lengths in the visualization.
+     * Connects the visualization to the queue lengths, which the engine keeps up to date in the snapshot.
+     * Called once when the simulation starts; the view reads the latest lengths at its own pace.
      *
-     * @param queueLengths the lengths of the queues
+     * @param queueLengths the snapshot of the lengths of the queues
      */
-    void updateQueueLengths(List<List<Integer>> queueLengths);
+    void setQueueLengthSnapshot(QueueLengthSnapshot queueLengths);
 
     /**
      * Checks if the simulation is paused.
@@ -16,6 +16,7 @@ public class ServicePointConfig {
     private String distributionType;
     private Double param1;
     private Double param2;
+    private String dataFile;
 
     /**
      * Default constructor.
@@ -46,6 +47,26 @@ public class ServicePointConfig {
         this.param2 = param2;
     }
 
+    /**
+     * Constructs a ServicePointConfig object whose service times follow recorded observations.
+     *
+     * @param id The unique identifier of the service point configuration.
+     * @param airportId The identifier of the airport this configuration belongs to.
+     * @param pointType The type of the service point (e.g., "CHECKIN", "SECURITY").
+     * @param numberOfServers The number of servers available at this service point.
+     * @param meanServiceTime The mean service time for this service point.
+     * @param distributionType The type of probability distribution for service times (e.g., "NORMAL", "EMPIRICAL").
+     * @param param1 The first parameter for the distribution (e.g., the number of histogram bins for EMPIRICAL).
+     * @param param2 The second parameter for the distribution (e.g., max for UNIFORM).
+     * @param dataFile The file of recorded service times for EMPIRICAL, one per line.
+     */
+    public ServicePointConfig(ObjectId id, ObjectId airportId, String pointType, int numberOfServers,
+                              double meanServiceTime, String distributionType, Double param1, Double param2,
+                              String dataFile) {
+        this(id, airportId, pointType, numberOfServers, meanServiceTime, distributionType, param1, param2);
+        this.dataFile = dataFile;
+    }
+
     /**
      * Gets the unique identifier of this service point configuration.
      * @return The ObjectId of the configuration.
@@ -133,4 +154,15 @@ public class ServicePointConfig {
      * @param param2 The second distribution parameter to set.
      */
     public void setParam2(Double param2) { this.param2 = param2; }
+
+    /**
+     * Gets the file of recorded service times used by the EMPIRICAL distribution.
+     * @return The path of the data file, or null if there is none.
+     */
+    public String getDataFile() { return dataFile; }
+    /**
+     * Sets the file of recorded service times used by the EMPIRICAL distribution.
+     * @param dataFile The path of the data file to set.
+     */
+    public void setDataFile(String dataFile) { this.dataFile = dataFile; }
 }
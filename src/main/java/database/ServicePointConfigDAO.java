@@ -44,7 +44,8 @@ public class ServicePointConfigDAO {
                         doc.getDouble("meanServiceTime"),
                         doc.getString("distributionType"),
                         doc.get("param1", Double.class),
-                        doc.get("param2", Double.class)
+                        doc.get("param2", Double.class),
+                        doc.getString("dataFile")
                 );
                 configs.add(config);
             }
@@ -0,0 +1,52 @@
+package eduni.distributions;
+
+/** Walker's alias table of a discrete distribution over the indices 0..n-1,
+  * built in O(n) with Vose's method so that an index is drawn in constant time.
+  * Index <i>i</i> is kept with probability <code>prob[i]</code>, otherwise <code>alias[i]</code> is taken.
+  */
+final class AliasTable {
+    final double[] prob;
+    final int[] alias;
+
+    /**
+     * @param weights The relative weight of every index, none negative and not all 0
+     */
+    AliasTable(double[] weights) {
+	int n = weights.length;
+	if (n == 0)
+	    throw new ParameterException("AliasTable: There must be at least one weight.");
+	double total = 0;
+	for (double w : weights) {
+	    if (!(w >= 0) || Double.isInfinite(w))
+		throw new ParameterException("AliasTable: The weights must be finite and not negative.");
+	    total += w;
+	}
+	if (total <= 0)
+	    throw new ParameterException("AliasTable: At least one weight must be greater than 0.");
+	prob = new double[n];
+	alias = new int[n];
+	// scaled so that the average is 1, the indices below and above it are paired up
+	double[] scaled = new double[n];
+	int[] small = new int[n];
+	int[] large = new int[n];
+	int ns = 0, nl = 0;
+	for (int i = 0; i < n; i++) {
+	    scaled[i] = weights[i] * n / total;
+	    if (scaled[i] < 1.0) small[ns++] = i; else large[nl++] = i;
+	}
+	while (ns > 0 && nl > 0) {
+	    int s = small[--ns];
+	    int l = large[--nl];
+	    prob[s] = scaled[s];
+	    alias[s] = l;
+	    scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+	    if (scaled[l] < 1.0) small[ns++] = l; else large[nl++] = l;
+	}
+	// what is left is 1 up to rounding errors
+	while (nl > 0) { int l = large[--nl]; prob[l] = 1.0; alias[l] = l; }
+	while (ns > 0) { int s = small[--ns]; prob[s] = 1.0; alias[s] = s; }
+    }
+
+    /** @return The number of indices */
+    int size() { return prob.length; }
+}
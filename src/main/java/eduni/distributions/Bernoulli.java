@@ -30,6 +30,17 @@ public class Bernoulli extends Generator implements DiscreteGenerator {
 	set(prob);
     }
 
+    /**
+     * The constructor with which the uniform source of the generator is given,
+     * e.g. a stream split from a <code>StreamGenerator</code>
+     * @param prob The probability of success
+     * @param source The uniform random number source
+     */
+    public Bernoulli(double prob, ContinuousGenerator source) {
+	super(source);
+	set(prob);
+    }
+
     private void set(double prob) throws ParameterException {
 	if ((prob < 0.0) || (prob > 1.0))
 	    throw new ParameterException("Bernouilli: The probability of success must be between 0 and 1.");
@@ -42,6 +53,8 @@ public class Bernoulli extends Generator implements DiscreteGenerator {
      */
     public long sample() { return distrib.bernoulli(prob); }
 
+    public void sample(long[] out, int off, int len) { distrib.bernoulli(prob, out, off, len); }
+
     public String toString() { return "Bernoulli("+prob+")"; }
 }
 
@@ -0,0 +1,60 @@
+package eduni.distributions;
+
+/**
+ * Wraps a <code>ContinuousGenerator</code> and draws its numbers in blocks with the bulk
+ * <code>sample(double[], int, int)</code> method, so that the distribution's math runs in a
+ * tight loop and each <code>sample()</code> only reads the next number from the buffer.
+ * <p>
+ * The sequence of numbers is the same as the wrapped generator's, so a buffered generator can
+ * replace an unbuffered one without changing the results, as long as nobody else samples the
+ * wrapped generator. Setting a new seed discards the buffered numbers.
+ */
+public class BufferedGenerator implements ContinuousGenerator {
+    /** The buffer size used when none is given */
+    public static final int DEFAULT_SIZE = 256;
+
+    private final ContinuousGenerator generator;
+    private final double[] buffer;
+    private int next;
+
+    /** @param generator The generator to draw the numbers from */
+    public BufferedGenerator(ContinuousGenerator generator) { this(generator, DEFAULT_SIZE); }
+
+    /**
+     * @param generator The generator to draw the numbers from
+     * @param size The number of numbers drawn at a time
+     */
+    public BufferedGenerator(ContinuousGenerator generator, int size) {
+	if (size <= 0)
+	    throw new ParameterException("BufferedGenerator: The size must be greater than 0.");
+	this.generator = generator;
+	this.buffer = new double[size];
+	this.next = size;
+    }
+
+    // ----- implements ContinuousGenerator { -----
+    public double sample() {
+	if (next == buffer.length) {
+	    generator.sample(buffer, 0, buffer.length);
+	    next = 0;
+	}
+	return buffer[next++];
+    }
+
+    public void sample(double[] out, int off, int len) {
+	int buffered = Math.min(len, buffer.length - next);
+	System.arraycopy(buffer, next, out, off, buffered);
+	next += buffered;
+	if (buffered < len) generator.sample(out, off + buffered, len - buffered);
+    }
+    // ----- } implements ContinuousGenerator -----
+
+    /** @return The wrapped generator */
+    public ContinuousGenerator getGenerator() { return generator; }
+
+    // ----- implements Seedable { -----
+    public void setSeed(long seed) { generator.setSeed(seed); next = buffer.length; }
+    public long getSeed() { return generator.getSeed(); }
+    public void reseed() { generator.reseed(); next = buffer.length; }
+    // ----- } implements Seedable -----
+}
@@ -4,4 +4,15 @@ package eduni.distributions;
  */
 public interface ContinuousGenerator extends Seedable {
     double sample(); 
+
+    /**
+     * Fills part of an array with the next numbers of the sequence, in the same order as
+     * <code>len</code> calls to <code>sample()</code> would return them.
+     * @param out The array to fill
+     * @param off The index of the first number
+     * @param len The number of numbers
+     */
+    default void sample(double[] out, int off, int len) {
+	for (int i = off; i < off + len; i++) out[i] = sample();
+    }
 }
@@ -0,0 +1,62 @@
+package eduni.distributions;
+
+/** A random number generator based on an empirical distribution over a finite set of values,
+  * e.g. observed group sizes. A value is picked with Walker's alias method in constant time
+  * whatever the number of values.
+  */
+
+public class DiscreteEmpirical extends Generator implements DiscreteGenerator {
+    private final long[] values;
+    private final AliasTable table;
+    /**
+     * the seed is aumatically provided by the <code>SeedGenerator</code>
+     * @param values  The possible values
+     * @param weights The relative weight of every value, e.g. the number of times it was observed
+     */
+    public DiscreteEmpirical(long[] values, double[] weights) {
+        super();
+        this.values = check(values, weights);
+        table = new AliasTable(weights);
+    }
+
+    /**
+     * The constructor with which a specific seed is set for the random
+     * number generator
+     * @param values  The possible values
+     * @param weights The relative weight of every value
+     * @param seed The initial seed for the generator, two instances with
+     *             the same seed will generate the same sequence of numbers
+     */
+    public DiscreteEmpirical(long[] values, double[] weights, long seed) {
+        super(seed);
+        this.values = check(values, weights);
+        table = new AliasTable(weights);
+    }
+
+    /**
+     * The constructor with which the uniform source of the generator is given,
+     * e.g. a stream split from a <code>StreamGenerator</code>
+     * @param values  The possible values
+     * @param weights The relative weight of every value
+     * @param source The uniform random number source
+     */
+    public DiscreteEmpirical(long[] values, double[] weights, ContinuousGenerator source) {
+        super(source);
+        this.values = check(values, weights);
+        table = new AliasTable(weights);
+    }
+
+    private static long[] check(long[] values, double[] weights) {
+        if (values.length != weights.length)
+            throw new ParameterException("DiscreteEmpirical: There must be one weight per value.");
+        return values.clone();
+    }
+
+    /**
+     * Generate a new random number.
+     * @return The next random number in the sequence
+     */
+    public long sample() {
+         return distrib.empirical(values, table);
+    }
+}
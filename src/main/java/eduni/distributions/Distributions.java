@@ -8,6 +8,11 @@ public class Distributions {
     /** A reference to the internal random generator.
      */
     ContinuousGenerator source;
+    // Box-Muller gives two independent standard normal variates, the second one is kept here
+    private double spareNormal;
+    private boolean hasSpareNormal = false;
+    // uniforms for the bulk methods that fill long arrays, grows to the largest request
+    private double[] scratch = new double[0];
     
     /** The seed is automatically provided by a well-spaced <code>SeedGenerator</code>
      */
@@ -19,19 +24,95 @@ public class Distributions {
      */
     public Distributions(ContinuousGenerator gen) { source = gen; }
 
+    /** Forgets the kept normal variate; called when the source gets a new seed */
+    void reset() { hasSpareNormal = false; }
+
+    // Below these sizes the simple methods are cheap and keep their sequences; above them
+    // the samplers with constant expected time are used
+    static final int SMALL_COUNT = 16;  // trials of a binomial, successes of a Pascal's
+    static final double SMALL_MEAN = 10; // mean of a poisson, n*min(p,1-p) of a binomial
+    static final int SMALL_SHAPE = 8;    // integer shape of an Erlang's or a gamma
+
+    // log(k!) for small k, the rest uses Stirling's series
+    private static final double[] LOG_FACTORIAL = new double[10];
+    static {
+	for (int k = 1; k < LOG_FACTORIAL.length; k++)
+	    LOG_FACTORIAL[k] = LOG_FACTORIAL[k-1] + Math.log(k);
+    }
+
+    /** @return log(k!) */
+    static double logFactorial(double k) {
+	if (k < LOG_FACTORIAL.length) return LOG_FACTORIAL[(int)k];
+	double k2 = 1.0 / (k * k);
+	return (k + 0.5) * Math.log(k) - k + 0.91893853320467274178
+	    + (1.0/12 - (1.0/360 - (1.0/1260) * k2) * k2) / k;
+    }
+
     // discrete distributions
     /** computes a Bernoulli's distribution
      * @return 1 iif <i>sample</i> &le; prob, 0 otherwise; <i>sample</i> is provided by the PRGN
      */
     public long bernoulli(double prob) { return source.sample()<=prob?1:0; }
 
+    /** computes <code>len</code> Bernoulli's distributions into <code>out</code> from <code>off</code> */
+    public void bernoulli(double prob, long[] out, int off, int len) {
+	if (scratch.length < len) scratch = new double[len];
+	double[] u = scratch;
+	source.sample(u, 0, len);
+	for (int i = 0; i < len; i++) out[off+i] = u[i]<=prob?1:0;
+    }
+
     /** computes a binomial distribution
+     * Up to <code>SMALL_COUNT</code> trials the Bernoulli's are summed; otherwise inversion is used for a
+     * small mean and Hörmann's transformed rejection with squeeze (BTRS, 1993) for a large one,
+     * both with constant expected time.
      * @return &sum;(i=0; i&lt;trials-1; bernoulli(prob))
      */
     public long binomial(double prob, int trials) {
-	long sum = 0l;
-	for (int i=0; i<trials; i++) sum += bernoulli(prob);
-	return sum;
+	if (trials <= SMALL_COUNT || prob >= 1.0) {
+	    long sum = 0l;
+	    for (int i=0; i<trials; i++) sum += bernoulli(prob);
+	    return sum;
+	}
+	if (prob > 0.5) return trials - binomial(1.0 - prob, trials); // symmetric
+	if (trials * prob < SMALL_MEAN) return binomialInversion(prob, trials);
+	return binomialBtrs(prob, trials);
+    }
+
+    /** sequential search over the probabilities, O(trials*prob) */
+    private long binomialInversion(double prob, int trials) {
+	double q = 1.0 - prob, ratio = prob / q;
+	double f = Math.pow(q, trials), u = source.sample();
+	long k = 0;
+	while (u > f && k < trials) {
+	    u -= f;
+	    f *= ratio * (trials - k) / (k + 1);
+	    k++;
+	}
+	return k;
+    }
+
+    /** BTRS; needs trials*prob &ge; 10 and prob &le; 0.5 */
+    private long binomialBtrs(double prob, int n) {
+	double q = 1.0 - prob;
+	double spq = Math.sqrt(n * prob * q);
+	double b = 1.15 + 2.53 * spq;
+	double a = -0.0873 + 0.0248 * b + 0.01 * prob;
+	double c = n * prob + 0.5;
+	double vr = 0.92 - 4.2 / b;
+	double alpha = (2.83 + 5.1 / b) * spq;
+	double lpq = Math.log(prob / q);
+	double m = Math.floor((n + 1) * prob);
+	double h = logFactorial(m) + logFactorial(n - m);
+	for (;;) {
+	    double u = source.sample() - 0.5, v = source.sample();
+	    double us = 0.5 - Math.abs(u);
+	    double k = Math.floor((2 * a / us + b) * u + c);
+	    if (k < 0 || k > n) continue;
+	    if (us >= 0.07 && v <= vr) return (long)k;
+	    v = Math.log(v * alpha / (a / (us * us) + b));
+	    if (v <= h - logFactorial(k) - logFactorial(n - k) + (k - m) * lpq) return (long)k;
+	}
     }
 
     /** computes a geometric distribution
@@ -42,9 +123,13 @@ public class Distributions {
     }
 
     /** computes a Pascal's distribution
+     * Above <code>SMALL_COUNT</code> successes the number of failures is drawn as a poisson whose
+     * mean is gamma distributed with shape successes and scale (1-prob)/prob, in constant expected time.
      * @return &sum;(i=0; i&lt;successes; geometric(prob))
      */
     public long pascal(double prob, int successes) {
+	if (successes > SMALL_COUNT)
+	    return successes + poisson(gamma((1.0 - prob) / prob, successes));
 	long sum = 0L;
 	for (int i=0; i < successes; i++)
 	    sum += geometric(prob);
@@ -52,9 +137,12 @@ public class Distributions {
     }
 
     /** computes a poisson distribution
+     * From a mean of <code>SMALL_MEAN</code> Hörmann's transformed rejection (PTRS, 1993) is used,
+     * which takes constant expected time instead of time proportional to the mean.
      * @return the smallest integer x so as &prod;(i=0; i&lt;x; <i>sample</i>) &le; exp(-mean) 
      */
     public long poisson(double mean) {
+	if (mean >= SMALL_MEAN) return poissonPtrs(mean);
 	long x = -1L;
 	double m = Math.exp(-mean), product=1;
 	do {
@@ -63,6 +151,24 @@ public class Distributions {
 	} while(m < product);
 	return x;
     }
+
+    /** PTRS; needs mean &ge; 10 */
+    private long poissonPtrs(double mean) {
+	double slam = Math.sqrt(mean), loglam = Math.log(mean);
+	double b = 0.931 + 2.53 * slam;
+	double a = -0.059 + 0.02483 * b;
+	double invalpha = 1.1239 + 1.1328 / (b - 3.4);
+	double vr = 0.9277 - 3.6224 / (b - 2);
+	for (;;) {
+	    double u = source.sample() - 0.5, v = source.sample();
+	    double us = 0.5 - Math.abs(u);
+	    double k = Math.floor((2 * a / us + b) * u + mean + 0.43);
+	    if (us >= 0.07 && v <= vr) return (long)k;
+	    if (k < 0 || (us < 0.013 && v > us)) continue;
+	    if (Math.log(v) + Math.log(invalpha) - Math.log(a / (us * us) + b)
+		<= -mean + k * loglam - logFactorial(k)) return (long)k;
+	}
+    }
     
     // continuous distributions
     private double power(double a) {
@@ -136,9 +242,11 @@ public class Distributions {
     }
     
     /** computes an Erlang's distribution
+     * Above a shape of <code>SMALL_SHAPE</code> the gamma method of Marsaglia and Tsang is used.
      * @return -scale * log ( &prod;(i=0; i&lt;shape; <i>sample</i>) ); <i>sample</i> is provided by the PRGN
      */
     public double erlang(double scale, double shape) {
+	if (shape > SMALL_SHAPE) return scale * marsagliaTsang(Math.ceil(shape));
 	double product = 1.0;
 	for (int i=0; i<shape; i++)
 	    product *= source.sample();
@@ -154,9 +262,11 @@ public class Distributions {
     }
 
     /** computes a gamma distribution
+     * Small integer shapes multiply uniforms, other shapes use the method of Marsaglia and Tsang (2000),
+     * which takes constant expected time.
      */
     public double gamma(double scale, double shape) {
-	if (shape == Math.floor(shape)) {
+	if (shape == Math.floor(shape) && shape <= SMALL_SHAPE) {
 	    // The shape is an integer
 	    double product = 1.0;
 	    for (long i=0L; i < shape; i++)
@@ -164,13 +274,25 @@ public class Distributions {
 	    
 	    return -scale*Math.log(product);
 	} 
-	// not an integer
 	if (shape < 1.0)
 	    return scale * beta(shape, 1.0-shape) * negexp(1.0);
-	
-	// shape >= 1.0
-	double floor = Math.floor(shape);
-	return gamma(scale, floor) + gamma(scale, shape-floor);
+	return scale * marsagliaTsang(shape);
+    }
+
+    /** Marsaglia and Tsang's squeeze and rejection for a standard gamma with shape &ge; 1 */
+    private double marsagliaTsang(double shape) {
+	double d = shape - 1.0 / 3, c = 1.0 / Math.sqrt(9 * d);
+	for (;;) {
+	    double x, v;
+	    do {
+		x = zigguratNormal(0.0, 1.0);
+		v = 1.0 + c * x;
+	    } while (v <= 0);
+	    v = v * v * v;
+	    double u = source.sample(), x2 = x * x;
+	    if (u < 1.0 - 0.0331 * x2 * x2) return d * v;
+	    if (Math.log(u) < 0.5 * x2 + d * (1.0 - v + Math.log(v))) return d * v;
+	}
     }
     
     /** computes an invgamma distribution
@@ -209,6 +331,12 @@ public class Distributions {
     public double negexp(double mean) {
 	return -mean * Math.log(source.sample());
     }
+
+    /** computes <code>len</code> negexp distributions into <code>out</code> from <code>off</code> */
+    public void negexp(double mean, double[] out, int off, int len) {
+	source.sample(out, off, len);
+	for (int i = off; i < off + len; i++) out[i] = -mean * Math.log(out[i]);
+    }
     
     /** computes a normal distribution; <i>sample</i> are provided by the same PRGN
      * @return mean + &radic;(variance) * cos (2&Pi; * <i>sample</i>) * &radic;(-2 * log (<i>sample</i>))
@@ -218,12 +346,174 @@ public class Distributions {
     }
 
     /** computes a normal distribution; <i>sample</i> are provided by the same PRGN
+     * Every other call returns the sine variate of the previous Box-Muller pair,
+     * mean + std_dev * sin (2&Pi; * <i>sample</i>) * &radic;(-2 * log (<i>sample</i>)), without sampling.
      * @param std_dev is assumed to be the square root of the variance.
      * @return mean + std_dev * cos (2&Pi; * <i>sample</i>) * &radic;(-2 * log (<i>sample</i>))
      */
     public double normal2(double mean, double std_dev) {
+	if (hasSpareNormal) {
+	    hasSpareNormal = false;
+	    return mean + std_dev * spareNormal;
+	}
 	double u1 = source.sample(), u2 = source.sample();
-	return mean + std_dev * Math.cos(2 * Math.PI * u1) * Math.sqrt(-2 * Math.log(u2));
+	double r = Math.sqrt(-2 * Math.log(u2)), theta = 2 * Math.PI * u1;
+	spareNormal = r * Math.sin(theta);
+	hasSpareNormal = true;
+	return mean + std_dev * (r * Math.cos(theta));
+    }
+
+    /** computes <code>len</code> normal distributions into <code>out</code> from <code>off</code>,
+     * the same numbers as <code>len</code> calls to <code>normal2</code>
+     * @param std_dev is assumed to be the square root of the variance.
+     */
+    public void normal2(double mean, double std_dev, double[] out, int off, int len) {
+	int end = off + len;
+	if (hasSpareNormal && off < end) out[off++] = normal2(mean, std_dev);
+	int pairs = (end - off) / 2;
+	// draw the uniforms of all pairs at once, then transform them in place
+	source.sample(out, off, 2 * pairs);
+	for (int i = off; i < off + 2 * pairs; i += 2) {
+	    double r = Math.sqrt(-2 * Math.log(out[i+1])), theta = 2 * Math.PI * out[i];
+	    out[i] = mean + std_dev * (r * Math.cos(theta));
+	    out[i+1] = mean + std_dev * (r * Math.sin(theta));
+	}
+	if (off + 2 * pairs < end) out[end-1] = normal2(mean, std_dev);
+    }
+
+    // Ziggurat tables (Marsaglia and Tsang, 2000). Layer i covers the x range [0, X[i]] and the
+    // density range [F[i], F[i+1]]; all layers and the tail below layer 0 have the same area V.
+    private static final int ZIG_NORMAL_LAYERS = 128;
+    private static final double ZIG_NORMAL_R = 3.442619855899, ZIG_NORMAL_V = 9.91256303526217e-3;
+    private static final double[] ZIG_NORMAL_X = new double[ZIG_NORMAL_LAYERS + 1];
+    private static final double[] ZIG_NORMAL_F = new double[ZIG_NORMAL_LAYERS + 1];
+    private static final int ZIG_EXP_LAYERS = 256;
+    private static final double ZIG_EXP_R = 7.69711747013104972, ZIG_EXP_V = 3.9496598225815571993e-3;
+    private static final double[] ZIG_EXP_X = new double[ZIG_EXP_LAYERS + 1];
+    private static final double[] ZIG_EXP_F = new double[ZIG_EXP_LAYERS + 1];
+    static {
+	// f(x) = exp(-x*x/2), unnormalised
+	ZIG_NORMAL_X[0] = ZIG_NORMAL_V / Math.exp(-0.5 * ZIG_NORMAL_R * ZIG_NORMAL_R);
+	ZIG_NORMAL_X[1] = ZIG_NORMAL_R;
+	for (int i = 2; i < ZIG_NORMAL_LAYERS; i++) {
+	    double f = Math.exp(-0.5 * ZIG_NORMAL_X[i-1] * ZIG_NORMAL_X[i-1]);
+	    ZIG_NORMAL_X[i] = Math.sqrt(-2 * Math.log(ZIG_NORMAL_V / ZIG_NORMAL_X[i-1] + f));
+	}
+	ZIG_NORMAL_X[ZIG_NORMAL_LAYERS] = 0;
+	for (int i = 0; i <= ZIG_NORMAL_LAYERS; i++)
+	    ZIG_NORMAL_F[i] = Math.exp(-0.5 * ZIG_NORMAL_X[i] * ZIG_NORMAL_X[i]);
+	// f(x) = exp(-x)
+	ZIG_EXP_X[0] = ZIG_EXP_V / Math.exp(-ZIG_EXP_R);
+	ZIG_EXP_X[1] = ZIG_EXP_R;
+	for (int i = 2; i < ZIG_EXP_LAYERS; i++)
+	    ZIG_EXP_X[i] = -Math.log(ZIG_EXP_V / ZIG_EXP_X[i-1] + Math.exp(-ZIG_EXP_X[i-1]));
+	ZIG_EXP_X[ZIG_EXP_LAYERS] = 0;
+	for (int i = 0; i <= ZIG_EXP_LAYERS; i++)
+	    ZIG_EXP_F[i] = Math.exp(-ZIG_EXP_X[i]);
+    }
+
+    /** computes a normal distribution with the Ziggurat method (Marsaglia and Tsang, 2000).
+     * One <i>sample</i> chooses a layer with its 7 highest bits and a position within the layer with
+     * the remaining bits; about 99% of the samples need no further work and no log, sqrt or cos.
+     * @param std_dev is assumed to be the square root of the variance.
+     */
+    public double zigguratNormal(double mean, double std_dev) {
+	for (;;) {
+	    double w = source.sample() * ZIG_NORMAL_LAYERS;
+	    int i = (int)w;
+	    double u = 2 * (w - i) - 1; // in (-1,1), gives the sign as well
+	    double x = u * ZIG_NORMAL_X[i];
+	    if (Math.abs(x) < ZIG_NORMAL_X[i+1]) return mean + std_dev * x; // inside the layer's rectangle
+	    if (i == 0) {
+		// tail beyond R, Marsaglia (1964)
+		double t, y;
+		do {
+		    t = -Math.log(source.sample()) / ZIG_NORMAL_R;
+		    y = -Math.log(source.sample());
+		} while (2 * y < t * t);
+		return mean + std_dev * (u < 0 ? -(ZIG_NORMAL_R + t) : ZIG_NORMAL_R + t);
+	    }
+	    // in the wedge between the rectangle and the curve
+	    if (ZIG_NORMAL_F[i] + source.sample() * (ZIG_NORMAL_F[i+1] - ZIG_NORMAL_F[i]) < Math.exp(-0.5 * x * x))
+		return mean + std_dev * x;
+	}
+    }
+
+    /** computes a negexp distribution with the Ziggurat method (Marsaglia and Tsang, 2000).
+     * One <i>sample</i> chooses a layer with its 8 highest bits and a position within the layer with
+     * the remaining bits; about 99% of the samples need no log.
+     */
+    public double zigguratNegexp(double mean) {
+	double shift = 0; // the tail beyond R is again exponential, so it restarts at R
+	for (;;) {
+	    double w = source.sample() * ZIG_EXP_LAYERS;
+	    int i = (int)w;
+	    double x = (w - i) * ZIG_EXP_X[i];
+	    if (x < ZIG_EXP_X[i+1]) return mean * (shift + x);
+	    if (i == 0) {
+		shift += ZIG_EXP_R;
+		continue;
+	    }
+	    if (ZIG_EXP_F[i] + source.sample() * (ZIG_EXP_F[i+1] - ZIG_EXP_F[i]) < Math.exp(-x))
+		return mean * (shift + x);
+	}
+    }
+
+    /** computes a normal distribution by inversion, with one <i>sample</i> per number; unlike
+     * Box-Muller, 1-<i>sample</i> gives exactly the mirrored number, so antithetic streams work
+     * @return mean + std_dev * &Phi;<sup>-1</sup>(<i>sample</i>)
+     */
+    public double inversionNormal(double mean, double std_dev) {
+	return mean + std_dev * normalQuantile(source.sample());
+    }
+
+    /** computes <code>len</code> normal distributions by inversion into <code>out</code> from <code>off</code> */
+    public void inversionNormal(double mean, double std_dev, double[] out, int off, int len) {
+	source.sample(out, off, len);
+	for (int i = off; i < off + len; i++) out[i] = mean + std_dev * normalQuantile(out[i]);
+    }
+
+    /** The quantile function of the standard normal distribution, Wichura's algorithm AS 241
+     * (PPND16), accurate to about 1e-16 relative
+     * @param p a probability in (0,1)
+     * @return &Phi;<sup>-1</sup>(p)
+     */
+    static double normalQuantile(double p) {
+	double q = p - 0.5, r, x;
+	if (Math.abs(q) <= 0.425) {
+	    r = 0.180625 - q * q;
+	    return q * (((((((2509.0809287301226727 * r + 33430.575583588128105) * r
+		+ 67265.770927008700853) * r + 45921.953931549871457) * r
+		+ 13731.693765509461125) * r + 1971.5909503065514427) * r
+		+ 133.14166789178437745) * r + 3.387132872796366608)
+		/ (((((((5226.495278852854561 * r + 28729.085735721942674) * r
+		+ 39307.89580009271061) * r + 21213.794301586595867) * r
+		+ 5394.1960214247511077) * r + 687.1870074920579083) * r
+		+ 42.313330701600911252) * r + 1.0);
+	}
+	r = Math.sqrt(-Math.log(q < 0 ? p : 1 - p));
+	if (r <= 5) {
+	    r -= 1.6;
+	    x = (((((((7.7454501427834140764e-4 * r + 0.0227238449892691845833) * r
+		+ 0.24178072517745061177) * r + 1.27045825245236838258) * r
+		+ 3.64784832476320460504) * r + 5.7694972214606914055) * r
+		+ 4.6303378461565452959) * r + 1.42343711074968357734)
+		/ (((((((1.05075007164441684324e-9 * r + 5.475938084995344946e-4) * r
+		+ 0.0151986665636164571966) * r + 0.14810397642748007459) * r
+		+ 0.68976733498510000455) * r + 1.6763848301838038494) * r
+		+ 2.05319162663775882187) * r + 1.0);
+	} else {
+	    r -= 5;
+	    x = (((((((2.01033439929228813265e-7 * r + 2.71155556874348757815e-5) * r
+		+ 0.0012426609473880784386) * r + 0.026532189526576123093) * r
+		+ 0.29656057182850489123) * r + 1.7848265399172913358) * r
+		+ 5.4637849111641143699) * r + 6.6579046435011037772)
+		/ (((((((2.04426310338993978564e-15 * r + 1.4215117583164458887e-7) * r
+		+ 1.8463183175100546818e-5) * r + 7.868691311456132591e-4) * r
+		+ 0.0148753612908506148525) * r + 0.13692988092273580531) * r
+		+ 0.59983220655588793769) * r + 1.0);
+	}
+	return q < 0 ? -x : x;
     }
 
     /** computes a pareto distribution; <i>sample</i> is provided by the PRGN
@@ -241,6 +531,31 @@ public class Distributions {
 	return normal2(0.0, 1.0)/Math.sqrt(chisquare(deg_freedom)/deg_freedom);
     }
 
+    /** draws an index from an alias table with one <i>sample</i>: its integer part picks
+     * a column, its fraction decides between the column and its alias
+     */
+    int alias(AliasTable table) {
+	double[] prob = table.prob;
+	double x = source.sample() * prob.length;
+	int i = Math.min((int)x, prob.length - 1);
+	return x - i < prob[i] ? i : table.alias[i];
+    }
+
+    /** computes an empirical distribution given by the bins of a histogram
+     * @return a value drawn uniformly from a bin picked in proportion to its weight
+     */
+    double empirical(double[] edges, AliasTable table) {
+	int i = alias(table);
+	return edges[i] + (edges[i+1] - edges[i]) * source.sample();
+    }
+
+    /** computes an empirical distribution over a finite set of values
+     * @return one of the values picked in proportion to its weight
+     */
+    long empirical(long[] values, AliasTable table) {
+	return values[alias(table)];
+    }
+
     /** computes a uniform distribution; <i>sample</i> is provided by the PRGN
      * @return min + (max-min) * <i>sample</i>
      */
@@ -248,6 +563,12 @@ public class Distributions {
 	return (max-min) * source.sample() + min;
     }
 
+    /** computes <code>len</code> uniform distributions into <code>out</code> from <code>off</code> */
+    public void uniform(double min, double max, double[] out, int off, int len) {
+	source.sample(out, off, len);
+	for (int i = off; i < off + len; i++) out[i] = (max-min) * out[i] + min;
+    }
+
     /** computes a weibull distribution; <i>sample</i> is provided by the PRGN
      * @return scale * (<i>sample</i> ^ (1/shape))
      */
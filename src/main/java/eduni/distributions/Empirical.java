@@ -0,0 +1,67 @@
+package eduni.distributions;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/** A random number generator based on an empirical distribution, given by a <code>Histogram</code>
+  * of observed values such as recorded service times. A bin is picked with Walker's alias method
+  * in constant time whatever the number of bins, and the value is interpolated uniformly within it.
+  */
+
+public class Empirical extends Generator implements ContinuousGenerator {
+    private final double[] edges;
+    private final AliasTable table;
+    /**
+     * the seed is aumatically provided by the <code>SeedGenerator</code>
+     * @param histogram The histogram of the observations
+     */
+    public Empirical(Histogram histogram) {
+        super();
+        edges = histogram.edges();
+        table = new AliasTable(histogram.weights());
+    }
+
+    /**
+     * The constructor with which a specific seed is set for the random
+     * number generator
+     * @param histogram The histogram of the observations
+     * @param seed The initial seed for the generator, two instances with
+     *             the same seed will generate the same sequence of numbers
+     */
+    public Empirical(Histogram histogram, long seed) {
+        super(seed);
+        edges = histogram.edges();
+        table = new AliasTable(histogram.weights());
+    }
+
+    /**
+     * The constructor with which the uniform source of the generator is given,
+     * e.g. a stream split from a <code>StreamGenerator</code>
+     * @param histogram The histogram of the observations
+     * @param source The uniform random number source
+     */
+    public Empirical(Histogram histogram, ContinuousGenerator source) {
+        super(source);
+        edges = histogram.edges();
+        table = new AliasTable(histogram.weights());
+    }
+
+    /**
+     * Reads a sample file, one observation per line, into a generator with
+     * <code>Histogram.DEFAULT_BINS</code> bins
+     * @param file The sample file
+     * @return The generator of the file's distribution
+     * @throws IOException If the file cannot be read
+     */
+    public static Empirical load(Path file) throws IOException {
+        return new Empirical(Histogram.load(file, Histogram.DEFAULT_BINS));
+    }
+
+    /**
+     * Generate a new random number.
+     * @return The next random number in the sequence
+     */
+    public double sample() {
+         return distrib.empirical(edges, table);
+    }
+}
@@ -7,10 +7,12 @@ public abstract class Generator implements Seedable {
     protected Distributions distrib;
     Generator () { distrib = new Distributions(); }
     Generator (long seed) { distrib = new Distributions(seed); }
+    /** Uses the given uniform source, e.g. a <code>StreamGenerator</code>, instead of a <code>RandomGenerator</code> */
+    Generator (ContinuousGenerator source) { distrib = new Distributions(source); }
     
     // ----- implements Seedable { -----
-    public void setSeed(long seed) { distrib.source.setSeed(seed); }
+    public void setSeed(long seed) { distrib.source.setSeed(seed); distrib.reset(); }
     public long getSeed() { return distrib.source.getSeed(); }
-    public void reseed() { distrib.source.reseed(); }
+    public void reseed() { distrib.source.reseed(); distrib.reset(); }
     // ----- } implements Seedable -----
 }
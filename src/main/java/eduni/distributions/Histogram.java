@@ -0,0 +1,214 @@
+package eduni.distributions;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * An immutable histogram of observations, the input of an <code>Empirical</code> generator.
+ * Bin <i>i</i> covers [<code>edges[i]</code>, <code>edges[i+1]</code>) and has a weight,
+ * usually the number of observations that fell into it.
+ * <p>
+ * {@link #load(Path, int)} reads a sample file with one observation per line, e.g. the service
+ * times recorded at a check-in desk. Only the first field of a line is read, fields are separated
+ * by commas, semicolons, tabs or spaces, and lines that do not start with a number, e.g. a header
+ * or a <code>#</code> comment, are skipped. The file is memory-mapped and parsed without creating
+ * a <code>String</code> per line, so files with millions of rows load quickly.
+ */
+public final class Histogram {
+    /** The number of bins used when none is given */
+    public static final int DEFAULT_BINS = 100;
+
+    private final double[] edges;
+    private final double[] weights;
+
+    /**
+     * Creates a histogram from its bins.
+     * @param edges   The <i>n</i>+1 increasing bin edges
+     * @param weights The <i>n</i> bin weights, none negative and not all 0
+     */
+    public Histogram(double[] edges, double[] weights) {
+	if (edges.length != weights.length + 1 || weights.length == 0)
+	    throw new ParameterException("Histogram: There must be one edge more than there are weights.");
+	for (int i = 0; i < weights.length; i++) {
+	    if (!(edges[i] <= edges[i+1]) || Double.isInfinite(edges[i]) || Double.isInfinite(edges[i+1]))
+		throw new ParameterException("Histogram: The edges must be finite and increasing.");
+	}
+	this.edges = edges.clone();
+	this.weights = weights.clone();
+	new AliasTable(this.weights); // checks the weights
+    }
+
+    /**
+     * Bins a sample into equally wide bins between its smallest and largest observation.
+     * @param sample The observations
+     * @param bins   The number of bins
+     * @return The histogram of the sample
+     */
+    public static Histogram of(double[] sample, int bins) {
+	return of(sample, sample.length, bins);
+    }
+
+    private static Histogram of(double[] sample, int n, int bins) {
+	if (bins <= 0)
+	    throw new ParameterException("Histogram: The number of bins must be greater than 0.");
+	if (n == 0)
+	    throw new ParameterException("Histogram: The sample must not be empty.");
+	double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+	for (int i = 0; i < n; i++) {
+	    double x = sample[i];
+	    if (Double.isNaN(x) || Double.isInfinite(x))
+		throw new ParameterException("Histogram: The observations must be finite.");
+	    min = Math.min(min, x);
+	    max = Math.max(max, x);
+	}
+	double width = (max - min) / bins;
+	double[] edges = new double[bins + 1];
+	for (int i = 0; i < bins; i++) edges[i] = min + i * width;
+	edges[bins] = max;
+	double[] weights = new double[bins];
+	for (int i = 0; i < n; i++) {
+	    int bin = width > 0 ? (int)((sample[i] - min) / width) : 0;
+	    weights[Math.min(bin, bins - 1)]++;
+	}
+	return new Histogram(edges, weights);
+    }
+
+    /**
+     * Reads a sample file and bins it into equally wide bins.
+     * @param file The sample file, one observation per line
+     * @param bins The number of bins
+     * @return The histogram of the observations in the file
+     * @throws IOException If the file cannot be read
+     */
+    public static Histogram load(Path file, int bins) throws IOException {
+	SampleParser parser = new SampleParser();
+	try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+	    long size = channel.size();
+	    // a single mapping is limited to 2 GB; the parser keeps its state across mappings
+	    for (long pos = 0; pos < size; pos += Integer.MAX_VALUE) {
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(Integer.MAX_VALUE, size - pos));
+		while (buffer.hasRemaining()) parser.accept(buffer.get());
+	    }
+	}
+	parser.accept((byte)'\n');
+	if (parser.count == 0)
+	    throw new ParameterException("Histogram: " + file + " contains no observations.");
+	return of(parser.values, parser.count, bins);
+    }
+
+    /** @return The number of bins */
+    public int getBins() { return weights.length; }
+
+    /** @return A copy of the <i>n</i>+1 bin edges */
+    public double[] getEdges() { return edges.clone(); }
+
+    /** @return A copy of the <i>n</i> bin weights */
+    public double[] getWeights() { return weights.clone(); }
+
+    /** @return The sum of the bin weights, the number of observations of a binned sample */
+    public double getTotalWeight() {
+	double total = 0;
+	for (double w : weights) total += w;
+	return total;
+    }
+
+    double[] edges() { return edges; }
+    double[] weights() { return weights; }
+
+    /** Reads the first number of every line, one byte at a time */
+    private static final class SampleParser {
+	// powers of ten that are exact doubles, mantissa * 10^e is then correctly rounded
+	private static final double[] POW10 = new double[23];
+	static {
+	    POW10[0] = 1;
+	    for (int i = 1; i < POW10.length; i++) POW10[i] = POW10[i-1] * 10;
+	}
+	private static final long MAX_EXACT = 1L << 53;
+
+	double[] values = new double[1024];
+	int count;
+
+	private final byte[] token = new byte[64];
+	private int length;
+	private boolean skipLine; // the rest of the line is ignored
+
+	void accept(byte b) {
+	    if (b == '\n' || b == '\r') {
+		if (!skipLine) endField();
+		skipLine = false;
+		length = 0;
+	    } else if (skipLine) {
+		return;
+	    } else if (b == ',' || b == ';' || b == '\t' || b == ' ') {
+		if (length > 0) endField(); // leading blanks are allowed
+	    } else if (length < token.length) {
+		token[length++] = b;
+	    } else {
+		skipLine = true;
+	    }
+	}
+
+	private void endField() {
+	    if (length > 0) {
+		double x = parse();
+		if (!Double.isNaN(x)) add(x);
+	    }
+	    skipLine = true;
+	}
+
+	private void add(double x) {
+	    if (count == values.length) values = Arrays.copyOf(values, count * 2);
+	    values[count++] = x;
+	}
+
+	/** @return The token as a number, or NaN if it is not one */
+	private double parse() {
+	    int i = 0;
+	    boolean negative = false;
+	    if (token[0] == '-' || token[0] == '+') { negative = token[0] == '-'; i++; }
+	    long mantissa = 0;
+	    int digits = 0, exponent = 0;
+	    boolean dot = false, exact = true;
+	    for (; i < length; i++) {
+		byte c = token[i];
+		if (c >= '0' && c <= '9') {
+		    if (mantissa < MAX_EXACT / 10) {
+			mantissa = mantissa * 10 + (c - '0');
+			if (dot) exponent--;
+		    } else {
+			exact = false;
+			if (!dot) exponent++;
+		    }
+		    digits++;
+		} else if (c == '.' && !dot) {
+		    dot = true;
+		} else {
+		    break;
+		}
+	    }
+	    if (digits == 0) return Double.NaN;
+	    if (i < length) {
+		if ((token[i] != 'e' && token[i] != 'E') || i + 1 == length) return Double.NaN;
+		int j = i + 1;
+		boolean negativeExp = false;
+		if (token[j] == '-' || token[j] == '+') { negativeExp = token[j] == '-'; j++; }
+		if (j == length) return Double.NaN;
+		int e = 0;
+		for (; j < length; j++) {
+		    if (token[j] < '0' || token[j] > '9') return Double.NaN;
+		    e = Math.min(e * 10 + (token[j] - '0'), 10000);
+		}
+		exponent += negativeExp ? -e : e;
+	    }
+	    if (!exact || exponent < -22 || exponent > 22)
+		return Double.parseDouble(new String(token, 0, length, StandardCharsets.US_ASCII));
+	    double x = exponent < 0 ? mantissa / POW10[-exponent] : mantissa * POW10[exponent];
+	    return negative ? -x : x;
+	}
+    }
+}
@@ -0,0 +1,52 @@
+package eduni.distributions;
+
+/**
+ * A random number generator based on the normal distribution, sampled with the
+ * inversion method instead of the Box-Muller transform used by <code>Normal</code>.
+ * Every number uses one uniform, so with an antithetic source every number is mirrored
+ * around the mean, and generators that share a stream stay synchronised.
+ * @see Distributions#inversionNormal(double, double)
+ */
+public class InversionNormal extends Normal {
+    /**
+     * the seed is automatically provided by the <code>SeedGenerator</code>
+     * @param mean The mean of the distribution
+     * @param variance The variance of the distribution
+     */
+    public InversionNormal(double mean, double variance) {
+	super(mean, variance);
+    }
+
+    /**
+     * The constructor with which a specific seed is set for the random
+     * number generator
+     * @param mean The mean of the distribution
+     * @param variance The variance of the distribution
+     * @param seed The initial seed for the generator, two instances with
+     *             the same seed will generate the same sequence of numbers
+     */
+    public InversionNormal(double mean, double variance, long seed) {
+	super(mean, variance, seed);
+    }
+
+    /**
+     * The constructor with which the uniform source of the generator is given,
+     * e.g. a stream split from a <code>StreamGenerator</code>
+     * @param mean The mean of the distribution
+     * @param variance The variance of the distribution
+     * @param source The uniform random number source
+     */
+    public InversionNormal(double mean, double variance, ContinuousGenerator source) {
+	super(mean, variance, source);
+    }
+
+    /**
+     * Generate a new random number.
+     * @return The next random number in the sequence
+     */
+    public double sample() { return distrib.inversionNormal(mean, std_dev); }
+
+    public void sample(double[] out, int off, int len) {
+	distrib.inversionNormal(mean, std_dev, out, off, len);
+    }
+}
@@ -7,7 +7,7 @@ package eduni.distributions;
   */
 
 public class Negexp extends Generator implements ContinuousGenerator {
-    private double mean;
+    protected double mean;
     /**
      * the seed is aumatically provided by the <code>SeedGenerator</code>
      */
@@ -27,6 +27,16 @@ public class Negexp extends Generator implements ContinuousGenerator {
         set(mean);
     }
 
+    /**
+     * The constructor with which the uniform source of the generator is given,
+     * e.g. a stream split from a <code>StreamGenerator</code>
+     * @param source The uniform random number source
+     */
+    public Negexp(double mean, ContinuousGenerator source) {
+        super(source);
+        set(mean);
+    }
+
     private void set(double mean) {
         if (mean<=0)
             throw new ParameterException("Negexp: The mean must be greater than 0.");
@@ -40,4 +50,8 @@ public class Negexp extends Generator implements ContinuousGenerator {
     public double sample() { 
          return distrib.negexp(mean);
     }
+
+    public void sample(double[] out, int off, int len) {
+         distrib.negexp(mean, out, off, len);
+    }
 }
@@ -32,6 +32,18 @@ public class Normal extends Generator implements ContinuousGenerator {
 	set(mean, variance);
     }
     
+    /**
+     * The constructor with which the uniform source of the generator is given,
+     * e.g. a stream split from a <code>StreamGenerator</code>
+     * @param mean The mean of the distribution
+     * @param variance The variance of the distribution
+     * @param source The uniform random number source
+     */
+    public Normal(double mean, double variance, ContinuousGenerator source) {
+	super(source);
+	set(mean, variance);
+    }
+
     private void set(double mean, double variance) {
 	if (variance <= 0.0)
 	    throw new ParameterException("Normal: The variance must be greater than 0.");
@@ -44,4 +56,6 @@ public class Normal extends Generator implements ContinuousGenerator {
      * @return The next random number in the sequence
      */
     public double sample() { return distrib.normal2(mean, std_dev); }
+
+    public void sample(double[] out, int off, int len) { distrib.normal2(mean, std_dev, out, off, len); }
 }
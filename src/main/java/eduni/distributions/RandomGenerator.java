@@ -17,9 +17,9 @@ package eduni.distributions;
 
 public class RandomGenerator implements ContinuousGenerator {
     // The multiplier
-    private final long a = 742938285;
+    static final long a = 742938285;
     // The modulus
-    private final long m = 2147483647;
+    static final long m = 2147483647;
     // The last computed random number
     private long seed;
     
@@ -30,6 +30,15 @@ public class RandomGenerator implements ContinuousGenerator {
     public double sample() { 
 	return ((double)nextLong()) / m;
     }
+
+    public void sample(double[] out, int off, int len) {
+	long y = seed;
+	for (int i = off; i < off + len; i++) {
+	    y = (a * y) % m;
+	    out[i] = ((double)y) / m;
+	}
+	seed = y;
+    }
     // ----- } implements ContinuousGenerator -----
 
     /**
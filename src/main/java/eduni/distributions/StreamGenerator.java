@@ -0,0 +1,159 @@
+package eduni.distributions;
+
+import java.util.random.RandomGenerator.JumpableGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * A uniform random number source backed by one of the modern generators of
+ * <code>java.util.random</code>. It can replace the 31 bit <code>RandomGenerator</code>
+ * as the source of any <code>Generator</code>, e.g. <code>new Normal(10, 3, stream.split())</code>.
+ * <p>
+ * The default algorithm is <code>L64X128MixRandom</code>, a splittable LXM generator with a
+ * period of 2<sup>64</sup>(2<sup>128</sup>-1). Two generators created from different seeds use
+ * different LCG increments, so they produce statistically independent streams, and
+ * {@link #split()} derives further independent streams, e.g. one per service point.
+ * Jumpable algorithms such as <code>Xoroshiro128PlusPlus</code> and <code>Xoshiro256PlusPlus</code>
+ * support {@link #jump()} instead.
+ * <p>
+ * The samples lie in the open interval (0,1) like those of <code>RandomGenerator</code>,
+ * so the distributions can take their logarithm safely.
+ * <p>
+ * {@link #stream(String)} derives a stream from the seed and a name only, e.g. one per service point,
+ * so a source keeps its numbers when other sources are added or removed. Two configurations run with
+ * the same seed then see the same arrivals (common random numbers). The {@link #antithetic()} copy
+ * of a generator returns 1-<i>u</i> for every <i>u</i> the original returns, for antithetic pairs of runs.
+ */
+public class StreamGenerator implements ContinuousGenerator {
+    /** The algorithm used when none is given */
+    public static final String DEFAULT_ALGORITHM = "L64X128MixRandom";
+
+    private final RandomGeneratorFactory<java.util.random.RandomGenerator> factory;
+    private java.util.random.RandomGenerator generator;
+    private long seed;
+    private final boolean antithetic; // samples are mirrored to 1-u
+
+    /** The seed is automatically provided by the default <code>SeedGenerator</code> */
+    public StreamGenerator() { this(DEFAULT_ALGORITHM); }
+    /** @param seed The seed of the default algorithm */
+    public StreamGenerator(long seed) { this(DEFAULT_ALGORITHM, seed); }
+
+    /**
+     * @param algorithm The name of a <code>java.util.random</code> algorithm,
+     *                  the seed is automatically provided by the default <code>SeedGenerator</code>
+     */
+    public StreamGenerator(String algorithm) {
+	this(algorithm, SeedGenerator.getDefaultSeedGenerator().sample());
+    }
+
+    /**
+     * @param algorithm The name of a <code>java.util.random</code> algorithm
+     * @param seed The initial seed, two instances with the same algorithm and seed
+     *             generate the same sequence of numbers
+     */
+    public StreamGenerator(String algorithm, long seed) {
+	factory = RandomGeneratorFactory.of(algorithm);
+	antithetic = false;
+	setSeed(seed);
+    }
+
+    private StreamGenerator(RandomGeneratorFactory<java.util.random.RandomGenerator> factory,
+			    java.util.random.RandomGenerator generator, long seed, boolean antithetic) {
+	this.factory = factory;
+	this.generator = generator;
+	this.seed = seed;
+	this.antithetic = antithetic;
+    }
+
+    // ----- implements ContinuousGenerator { -----
+    /** @return The next number, uniformly distributed in (0,1) */
+    public double sample() {
+	// 53 random bits shifted by half a step, so neither 0 nor 1 can occur;
+	// complementing the bits gives exactly 1-u
+	return (((generator.nextLong() >>> 11) ^ mirror()) + 0.5) * 0x1.0p-53;
+    }
+
+    public void sample(double[] out, int off, int len) {
+	java.util.random.RandomGenerator g = generator;
+	long mirror = mirror();
+	for (int i = off; i < off + len; i++)
+	    out[i] = (((g.nextLong() >>> 11) ^ mirror) + 0.5) * 0x1.0p-53;
+    }
+
+    private long mirror() { return antithetic ? (1L << 53) - 1 : 0; }
+    // ----- } implements ContinuousGenerator -----
+
+    /**
+     * Creates a new generator with a stream that is independent from this one.
+     * This generator advances, so consecutive calls return different streams.
+     * @return The new generator
+     * @throws UnsupportedOperationException if the algorithm is not splittable
+     */
+    public StreamGenerator split() {
+	if (!(generator instanceof SplittableGenerator))
+	    throw new UnsupportedOperationException(factory.name()+" is not splittable.");
+	return new StreamGenerator(factory, ((SplittableGenerator)generator).split(), seed, antithetic);
+    }
+
+    /**
+     * Returns a generator that continues the current stream, and moves this generator
+     * ahead by the jump distance of the algorithm (e.g. 2<sup>128</sup> for Xoshiro256PlusPlus),
+     * so that the two do not overlap.
+     * @return The new generator
+     * @throws UnsupportedOperationException if the algorithm is not jumpable
+     */
+    public StreamGenerator jump() {
+	if (!(generator instanceof JumpableGenerator))
+	    throw new UnsupportedOperationException(factory.name()+" is not jumpable.");
+	return new StreamGenerator(factory, ((JumpableGenerator)generator).copyAndJump(), seed, antithetic);
+    }
+
+    /**
+     * Creates a generator whose stream depends only on the seed of this generator and the given name,
+     * not on how many numbers or streams were taken from this generator before.
+     * Streams with different names are statistically independent.
+     * @param name The name of the stream, e.g. "arrivals"
+     * @return The new generator, antithetic if this one is
+     */
+    public StreamGenerator stream(String name) {
+	// 64 bit FNV-1a hash of the name, mixed with the seed by the finalizer of SplitMix64
+	long hash = 0xcbf29ce484222325L;
+	for (int i = 0; i < name.length(); i++)
+	    hash = (hash ^ name.charAt(i)) * 0x100000001b3L;
+	long streamSeed = mix64(seed + mix64(hash));
+	return new StreamGenerator(factory, factory.create(streamSeed), streamSeed, antithetic);
+    }
+
+    private static long mix64(long z) {
+	z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+	z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+	return z ^ (z >>> 31);
+    }
+
+    /**
+     * Creates a generator started from the seed of this one that returns 1-<i>u</i> wherever
+     * this one, restarted from its seed, returns <i>u</i>. The streams split from it and named
+     * after it are the antithetic streams of the same streams of this generator.
+     * @return The new generator, not antithetic if this one is
+     */
+    public StreamGenerator antithetic() {
+	return new StreamGenerator(factory, factory.create(seed), seed, !antithetic);
+    }
+
+    /** @return Whether the samples are mirrored to 1-<i>u</i> */
+    public boolean isAntithetic() { return antithetic; }
+
+    /** @return The name of the algorithm */
+    public String getAlgorithm() { return factory.name(); }
+
+    // ----- implements Seedable { -----
+    /** Restarts the generator from the given seed */
+    public void setSeed(long seed) {
+	this.seed = seed;
+	generator = factory.create(seed);
+    }
+    /** @return The seed the stream was started from; split and jumped streams return the seed of their parent */
+    public long getSeed() { return seed; }
+    public void reseed() { setSeed(SeedGenerator.getDefaultSeedGenerator().sample()); }
+    // ----- } implements Seedable -----
+}
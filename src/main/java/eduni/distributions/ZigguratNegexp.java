@@ -0,0 +1,47 @@
+package eduni.distributions;
+
+/**
+ * A random number generator based on the negexp distribution, sampled with the
+ * Ziggurat method instead of the inversion <code>-mean * log(sample)</code> used by <code>Negexp</code>.
+ * Both give the same distribution, but not the same sequence of numbers.
+ * @see Distributions#zigguratNegexp(double)
+ */
+public class ZigguratNegexp extends Negexp {
+    /**
+     * the seed is aumatically provided by the <code>SeedGenerator</code>
+     */
+    public ZigguratNegexp(double mean) {
+        super(mean);
+    }
+
+    /**
+     * The constructor with which a specific seed is set for the random
+     * number generator
+     * @param seed The initial seed for the generator, two instances with
+     *             the same seed will generate the same sequence of numbers
+     */
+    public ZigguratNegexp(double mean, long seed) {
+        super(mean, seed);
+    }
+
+    /**
+     * The constructor with which the uniform source of the generator is given,
+     * e.g. a stream split from a <code>StreamGenerator</code>
+     * @param source The uniform random number source
+     */
+    public ZigguratNegexp(double mean, ContinuousGenerator source) {
+        super(mean, source);
+    }
+
+    /**
+     * Generate a new random number.
+     * @return The next random number in the sequence
+     */
+    public double sample() { 
+         return distrib.zigguratNegexp(mean);
+    }
+
+    public void sample(double[] out, int off, int len) {
+         for (int i = off; i < off + len; i++) out[i] = distrib.zigguratNegexp(mean);
+    }
+}
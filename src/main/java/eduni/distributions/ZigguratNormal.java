@@ -0,0 +1,51 @@
+package eduni.distributions;
+
+/**
+ * A random number generator based on the normal distribution, sampled with the
+ * Ziggurat method instead of the Box-Muller transform used by <code>Normal</code>.
+ * Both give the same distribution, but not the same sequence of numbers.
+ * @see Distributions#zigguratNormal(double, double)
+ */
+public class ZigguratNormal extends Normal {
+    /**
+     * the seed is automatically provided by the <code>SeedGenerator</code>
+     * @param mean The mean of the distribution
+     * @param variance The variance of the distribution
+     */
+    public ZigguratNormal(double mean, double variance) {
+	super(mean, variance);
+    }
+
+    /**
+     * The constructor with which a specific seed is set for the random
+     * number generator
+     * @param mean The mean of the distribution
+     * @param variance The variance of the distribution
+     * @param seed The initial seed for the generator, two instances with
+     *             the same seed will generate the same sequence of numbers
+     */
+    public ZigguratNormal(double mean, double variance, long seed) {
+	super(mean, variance, seed);
+    }
+
+    /**
+     * The constructor with which the uniform source of the generator is given,
+     * e.g. a stream split from a <code>StreamGenerator</code>
+     * @param mean The mean of the distribution
+     * @param variance The variance of the distribution
+     * @param source The uniform random number source
+     */
+    public ZigguratNormal(double mean, double variance, ContinuousGenerator source) {
+	super(mean, variance, source);
+    }
+
+    /**
+     * Generate a new random number.
+     * @return The next random number in the sequence
+     */
+    public double sample() { return distrib.zigguratNormal(mean, std_dev); }
+
+    public void sample(double[] out, int off, int len) {
+	for (int i = off; i < off + len; i++) out[i] = distrib.zigguratNormal(mean, std_dev);
+    }
+}
@@ -0,0 +1,271 @@
+package simu.experiment;
+
+import simu.model.SimulationResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * ParameterSweep evaluates every combination of the given arrival intervals, EU percentages and server counts.
+ * All runs (every scenario times every replication) are split into fork/join tasks and executed on a
+ * work-stealing ForkJoinPool, so long and short runs are balanced over the available cores.
+ * The results can be written as a table with {@link SweepResult#writeCsv(java.nio.file.Path)}.
+ */
+public class ParameterSweep {
+    private int[] arrivalIntervals = {5};
+    private double[] euPercentages = {0.3};
+    private int[] checkinNums = {5};
+    private int[] securityNums = {3};
+    private int[] passportNums = {5};
+    private int[] euGateNums = {5};
+    private int[] nonEuGateNums = {3};
+    private double simulationTime = 1000;
+    private int replications = 1;
+    private long baseSeed = 4851;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private double confidenceLevel = 0.95;
+
+    /**
+     * Returns the values from start to end (inclusive) with the given step, e.g. for the server counts of a sweep.
+     *
+     * @param start The first value.
+     * @param end   The last value.
+     * @param step  The step between values, must be positive.
+     * @return The values.
+     */
+    public static int[] range(int start, int end, int step) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("range: The step must be positive.");
+        }
+        int[] values = new int[Math.max(0, (end - start) / step + 1)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = start + i * step;
+        }
+        return values;
+    }
+
+    /**
+     * Sets the arrival intervals to be evaluated.
+     *
+     * @param values The mean intervals between customer arrivals.
+     * @return This sweep.
+     */
+    public ParameterSweep arrivalIntervals(int... values) {
+        arrivalIntervals = nonEmpty(values);
+        return this;
+    }
+
+    /**
+     * Sets the EU percentages to be evaluated.
+     *
+     * @param values The shares of EU passengers, between 0 and 1.
+     * @return This sweep.
+     */
+    public ParameterSweep euPercentages(double... values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("ParameterSweep: At least one value is needed.");
+        }
+        euPercentages = values.clone();
+        return this;
+    }
+
+    /**
+     * Sets the numbers of check-in points to be evaluated.
+     *
+     * @param values The numbers of check-in points.
+     * @return This sweep.
+     */
+    public ParameterSweep checkinNums(int... values) {
+        checkinNums = nonEmpty(values);
+        return this;
+    }
+
+    /**
+     * Sets the numbers of security check points to be evaluated.
+     *
+     * @param values The numbers of security check points.
+     * @return This sweep.
+     */
+    public ParameterSweep securityNums(int... values) {
+        securityNums = nonEmpty(values);
+        return this;
+    }
+
+    /**
+     * Sets the numbers of passport control points to be evaluated.
+     *
+     * @param values The numbers of passport control points.
+     * @return This sweep.
+     */
+    public ParameterSweep passportNums(int... values) {
+        passportNums = nonEmpty(values);
+        return this;
+    }
+
+    /**
+     * Sets the numbers of EU gates to be evaluated.
+     *
+     * @param values The numbers of EU gates.
+     * @return This sweep.
+     */
+    public ParameterSweep euGateNums(int... values) {
+        euGateNums = nonEmpty(values);
+        return this;
+    }
+
+    /**
+     * Sets the numbers of Non-EU gates to be evaluated.
+     *
+     * @param values The numbers of Non-EU gates.
+     * @return This sweep.
+     */
+    public ParameterSweep nonEuGateNums(int... values) {
+        nonEuGateNums = nonEmpty(values);
+        return this;
+    }
+
+    /**
+     * Sets the simulation time of every run.
+     *
+     * @param simulationTime The time when each simulation is stopped.
+     * @return This sweep.
+     */
+    public ParameterSweep simulationTime(double simulationTime) {
+        this.simulationTime = simulationTime;
+        return this;
+    }
+
+    /**
+     * Sets the number of replications of every scenario.
+     *
+     * @param replications The number of replications, at least 1.
+     * @return This sweep.
+     */
+    public ParameterSweep replications(int replications) {
+        if (replications < 1) {
+            throw new IllegalArgumentException("ParameterSweep: The number of replications must be at least 1.");
+        }
+        this.replications = replications;
+        return this;
+    }
+
+    /**
+     * Sets the base seed. Every scenario uses the same replication seeds derived from it.
+     *
+     * @param baseSeed The base seed, must be positive.
+     * @return This sweep.
+     */
+    public ParameterSweep baseSeed(long baseSeed) {
+        this.baseSeed = baseSeed;
+        return this;
+    }
+
+    /**
+     * Sets the number of worker threads.
+     *
+     * @param parallelism The number of worker threads of the pool.
+     * @return This sweep.
+     */
+    public ParameterSweep parallelism(int parallelism) {
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Sets the confidence level of the intervals in the results.
+     *
+     * @param confidenceLevel The confidence level, e.g. 0.95.
+     * @return This sweep.
+     */
+    public ParameterSweep confidenceLevel(double confidenceLevel) {
+        this.confidenceLevel = confidenceLevel;
+        return this;
+    }
+
+    /**
+     * Returns all scenarios of the grid, i.e. the cartesian product of all parameter values.
+     *
+     * @return The scenarios in a stable order.
+     */
+    public List<Scenario> getScenarios() {
+        List<Scenario> scenarios = new ArrayList<>();
+        for (int arrivalInterval : arrivalIntervals)
+            for (double euPercentage : euPercentages)
+                for (int checkin : checkinNums)
+                    for (int security : securityNums)
+                        for (int passport : passportNums)
+                            for (int euGate : euGateNums)
+                                for (int nonEuGate : nonEuGateNums)
+                                    scenarios.add(new Scenario(arrivalInterval, euPercentage, checkin, security,
+                                            passport, euGate, nonEuGate, simulationTime));
+        return scenarios;
+    }
+
+    /**
+     * Runs all replications of all scenarios and waits until they have finished.
+     *
+     * @return The results, one row per scenario in the order of {@link #getScenarios()}.
+     */
+    public SweepResult run() {
+        List<Scenario> scenarios = getScenarios();
+        long[] seeds = ReplicationRunner.replicationSeeds(replications, baseSeed);
+        SimulationResult[] results = new SimulationResult[scenarios.size() * replications];
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new SweepTask(scenarios, seeds, results, 0, results.length));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<SweepResult.Row> rows = new ArrayList<>();
+        for (int i = 0; i < scenarios.size(); i++) {
+            List<SimulationResult> runs = Arrays.asList(results).subList(i * replications, (i + 1) * replications);
+            rows.add(new SweepResult.Row(scenarios.get(i), new ReplicationSummary(runs, confidenceLevel)));
+        }
+        return new SweepResult(rows);
+    }
+
+    private static int[] nonEmpty(int[] values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("ParameterSweep: At least one value is needed.");
+        }
+        return values.clone();
+    }
+
+    /**
+     * Fork/join task running a range of the runs. Ranges are split in halves until a single run is left,
+     * idle workers steal the other halves.
+     */
+    private static class SweepTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Scenario> scenarios;
+        private final long[] seeds;
+        private final SimulationResult[] results;
+        private final int from, to;
+
+        SweepTask(List<Scenario> scenarios, long[] seeds, SimulationResult[] results, int from, int to) {
+            this.scenarios = scenarios;
+            this.seeds = seeds;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                Scenario scenario = scenarios.get(from / seeds.length);
+                results[from] = ReplicationRunner.runReplication(scenario, seeds[from % seeds.length]);
+            } else if (to > from) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SweepTask(scenarios, seeds, results, from, middle),
+                        new SweepTask(scenarios, seeds, results, middle, to));
+            }
+        }
+    }
+}
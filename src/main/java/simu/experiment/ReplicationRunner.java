@@ -0,0 +1,272 @@
+package simu.experiment;
+
+import controller.HeadlessController;
+import eduni.distributions.SeedGenerator;
+import simu.model.MyEngine;
+import simu.model.SimulationResult;
+import simu.stats.ConfidenceInterval;
+import simu.stats.QuantileSketch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.LongFunction;
+
+/**
+ * ReplicationRunner runs independent replications of a scenario in parallel on a thread pool.
+ * Every replication is a headless MyEngine with its own clock and its own seeded generators,
+ * so the runs do not influence each other and the same base seed always gives the same summary.
+ * <p>
+ * Two variance reduction techniques are available. With antithetic replications every replication is
+ * the average of a run and its antithetic run. {@link #compare(Scenario, int, long)} runs two scenarios
+ * with the same seeds, so both see the same passengers (common random numbers), and summarises the differences.
+ * {@link #runUntil(double, int, long, String...)} adds replications until the confidence intervals are narrow enough.
+ */
+public class ReplicationRunner {
+    // Distance between the seeds of two replications; every seed starts an independent root stream
+    private static final int REPLICATION_SPACING = 10000000;
+    // Replications run before the first confidence intervals are checked by runUntil
+    private static final int MIN_REPLICATIONS = 5;
+
+    private final Scenario scenario;
+    private final int threads;
+    private double confidenceLevel = 0.95;
+    private boolean antithetic = false;
+
+    /**
+     * Constructor for ReplicationRunner using one thread per available processor.
+     *
+     * @param scenario The scenario to be replicated.
+     */
+    public ReplicationRunner(Scenario scenario) {
+        this(scenario, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for ReplicationRunner.
+     *
+     * @param scenario The scenario to be replicated.
+     * @param threads  The number of replications that are run at the same time.
+     */
+    public ReplicationRunner(Scenario scenario, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("ReplicationRunner: The number of threads must be at least 1.");
+        }
+        this.scenario = scenario;
+        this.threads = threads;
+    }
+
+    /**
+     * Sets the confidence level of the intervals in the summary.
+     *
+     * @param confidenceLevel The confidence level, e.g. 0.95.
+     */
+    public void setConfidenceLevel(double confidenceLevel) {
+        this.confidenceLevel = confidenceLevel;
+    }
+
+    /**
+     * Sets whether every replication is the average of a run and its antithetic run.
+     * Each replication then takes two runs, but the averages of negatively correlated runs vary less.
+     *
+     * @param antithetic True to use antithetic pairs of runs.
+     */
+    public void setAntithetic(boolean antithetic) {
+        this.antithetic = antithetic;
+    }
+
+    /**
+     * Runs the replications and waits until all of them have finished.
+     *
+     * @param replications The number of replications.
+     * @param baseSeed     The seed from which the seeds of the replications are derived, must be positive.
+     * @return The summary of the replications.
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     */
+    public ReplicationSummary run(int replications, long baseSeed) throws InterruptedException {
+        return new ReplicationSummary(runAll(replicationSeeds(replications, baseSeed), seed -> observe(scenario, seed)),
+                confidenceLevel);
+    }
+
+    /**
+     * Runs replications until the confidence intervals of the given KPIs are narrow enough.
+     * After a first round of at least {@value #MIN_REPLICATIONS} replications, one more replication per thread
+     * is run at a time until the half-width of every interval relative to its mean is at most the target.
+     * Replication i has the same seed as in {@link #run(int, long)}, so the runs are reproducible.
+     *
+     * @param relativeHalfWidth The target of the half-width relative to the mean, e.g. 0.05 for 5%.
+     * @param maxReplications   The largest number of replications, run even if the target is not reached.
+     * @param baseSeed          The seed from which the seeds of the replications are derived, must be positive.
+     * @param kpis              The KPIs whose intervals must reach the target, see {@link SimulationResult}.
+     * @return The summary of all replications run.
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     */
+    public ReplicationSummary runUntil(double relativeHalfWidth, int maxReplications, long baseSeed, String... kpis)
+            throws InterruptedException {
+        if (kpis.length == 0 || maxReplications < 2) {
+            throw new IllegalArgumentException("ReplicationRunner: At least one KPI and two replications are needed.");
+        }
+        long[] seeds = replicationSeeds(maxReplications, baseSeed);
+        List<SimulationResult> results = new ArrayList<>();
+        while (true) {
+            int next = Math.min(results.size() + (results.isEmpty() ? Math.max(MIN_REPLICATIONS, threads) : threads), maxReplications);
+            results.addAll(runAll(Arrays.copyOfRange(seeds, results.size(), next), seed -> observe(scenario, seed)));
+            ReplicationSummary summary = new ReplicationSummary(results, confidenceLevel);
+            if (results.size() == maxReplications || isPrecise(summary, relativeHalfWidth, kpis)) {
+                return summary;
+            }
+        }
+    }
+
+    /**
+     * Tells whether the confidence intervals of the given KPIs in a summary have reached a target.
+     *
+     * @param summary           The summary of the replications.
+     * @param relativeHalfWidth The target of the half-width relative to the mean.
+     * @param kpis              The KPIs.
+     * @return True if the half-width of every interval is at most the target relative to its mean.
+     */
+    private static boolean isPrecise(ReplicationSummary summary, double relativeHalfWidth, String... kpis) {
+        for (String kpi : kpis) {
+            ConfidenceInterval interval = summary.getConfidenceInterval(kpi);
+            if (!(interval.getHalfWidth() <= relativeHalfWidth * Math.abs(interval.getMean()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares another scenario with the scenario of this runner using common random numbers:
+     * replication i of both scenarios uses the same seed, and the KPIs of the runs are subtracted.
+     * The positive correlation of the paired runs makes the confidence intervals of the differences
+     * much narrower than those of independent runs.
+     *
+     * @param other        The scenario compared with the scenario of this runner.
+     * @param replications The number of pairs of replications.
+     * @param baseSeed     The seed from which the seeds of the replications are derived, must be positive.
+     * @return The summary of the differences, the KPIs of the other scenario minus those of this runner's scenario.
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     */
+    public ReplicationSummary compare(Scenario other, int replications, long baseSeed) throws InterruptedException {
+        return new ReplicationSummary(runAll(replicationSeeds(replications, baseSeed),
+                seed -> combine(observe(other, seed), observe(scenario, seed), (a, b) -> a - b)), confidenceLevel);
+    }
+
+    /**
+     * Computes the observations of all seeds on the thread pool and waits until all of them have finished.
+     *
+     * @param seeds       The seeds, one per replication.
+     * @param observation Computes the observation of one seed.
+     * @return The observations, in the order of the seeds.
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     */
+    private List<SimulationResult> runAll(long[] seeds, LongFunction<SimulationResult> observation) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(seeds.length, 1)));
+        try {
+            List<Future<SimulationResult>> futures = new ArrayList<>();
+            for (long seed : seeds) {
+                futures.add(executor.submit(() -> observation.apply(seed)));
+            }
+            List<SimulationResult> results = new ArrayList<>();
+            for (Future<SimulationResult> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Replication failed: " + e.getCause(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs one replication of a scenario, or an antithetic pair of runs, on the calling thread.
+     *
+     * @param scenario The scenario to be run.
+     * @param seed     The seed of the replication.
+     * @return The result of the run, or the average of the pair.
+     */
+    private SimulationResult observe(Scenario scenario, long seed) {
+        SimulationResult result = runReplication(scenario, seed, false);
+        if (!antithetic) {
+            return result;
+        }
+        SimulationResult mirror = runReplication(scenario, seed, true);
+        SimulationResult average = combine(result, mirror, (a, b) -> (a + b) / 2);
+        // The pair's distributions hold the observations of both runs
+        result.getSketches().forEach((name, sketch) -> {
+            QuantileSketch both = new QuantileSketch(sketch.getRelativeAccuracy());
+            both.merge(sketch);
+            if (mirror.getSketch(name) != null) {
+                both.merge(mirror.getSketch(name));
+            }
+            average.putSketch(name, both);
+        });
+        return average;
+    }
+
+    /**
+     * Runs one replication of a scenario on the calling thread.
+     *
+     * @param scenario The scenario to be run.
+     * @param seed     The seed of the replication.
+     * @return The result of the replication.
+     */
+    static SimulationResult runReplication(Scenario scenario, long seed) {
+        return runReplication(scenario, seed, false);
+    }
+
+    /**
+     * Runs one replication of a scenario on the calling thread.
+     *
+     * @param scenario   The scenario to be run.
+     * @param seed       The seed of the replication.
+     * @param antithetic True to run the antithetic counterpart of the replication.
+     * @return The result of the replication.
+     */
+    static SimulationResult runReplication(Scenario scenario, long seed, boolean antithetic) {
+        MyEngine engine = scenario.createEngine(new HeadlessController(), seed, antithetic);
+        engine.run(); // Not started as a thread, the pool thread runs it
+        return engine.getSimulationResult();
+    }
+
+    /**
+     * Combines the KPIs of two results that have the same name.
+     *
+     * @param a        The first result.
+     * @param b        The second result.
+     * @param operator Combines the value of the first result with that of the second.
+     * @return The combined result, with the KPIs of the first result that the second one has too.
+     */
+    static SimulationResult combine(SimulationResult a, SimulationResult b, DoubleBinaryOperator operator) {
+        SimulationResult combined = new SimulationResult();
+        for (String name : a.getNames()) {
+            if (b.getNames().contains(name)) {
+                combined.put(name, operator.applyAsDouble(a.get(name), b.get(name)));
+            }
+        }
+        return combined;
+    }
+
+    /**
+     * Derives well-spaced seeds for the replications from the base seed.
+     *
+     * @param replications The number of seeds.
+     * @param baseSeed     The base seed.
+     * @return The seeds, one per replication.
+     */
+    static long[] replicationSeeds(int replications, long baseSeed) {
+        SeedGenerator seedGenerator = new SeedGenerator(baseSeed, REPLICATION_SPACING);
+        long[] seeds = new long[replications];
+        for (int i = 0; i < replications; i++) {
+            seeds[i] = seedGenerator.sample();
+        }
+        return seeds;
+    }
+}
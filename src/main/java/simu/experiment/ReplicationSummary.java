@@ -0,0 +1,120 @@
+package simu.experiment;
+
+import simu.model.SimulationResult;
+import simu.stats.ConfidenceInterval;
+import simu.stats.QuantileSketch;
+import simu.stats.Tally;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * ReplicationSummary aggregates the results of independent replications of one scenario.
+ * Every KPI of the runs is collected into a Tally, from which the mean and a confidence interval are computed.
+ * The quantile sketches of the runs are merged, so quantiles over all replications are available as well.
+ */
+public class ReplicationSummary {
+    private final List<SimulationResult> results;
+    private final LinkedHashMap<String, Tally> tallies = new LinkedHashMap<>();
+    private final LinkedHashMap<String, QuantileSketch> sketches = new LinkedHashMap<>();
+    private final double confidenceLevel;
+
+    /**
+     * Constructor for ReplicationSummary.
+     *
+     * @param results         The results of the replications, one per run.
+     * @param confidenceLevel The confidence level of the intervals, e.g. 0.95.
+     */
+    public ReplicationSummary(List<SimulationResult> results, double confidenceLevel) {
+        this.results = new ArrayList<>(results);
+        this.confidenceLevel = confidenceLevel;
+        for (SimulationResult result : results) {
+            for (String name : result.getNames()) {
+                tallies.computeIfAbsent(name, k -> new Tally()).add(result.get(name));
+            }
+            result.getSketches().forEach((name, sketch) ->
+                    sketches.computeIfAbsent(name, k -> new QuantileSketch(sketch.getRelativeAccuracy())).merge(sketch));
+        }
+    }
+
+    /**
+     * Returns the number of replications.
+     *
+     * @return The number of replications.
+     */
+    public int getReplications() {
+        return results.size();
+    }
+
+    /**
+     * Returns the results of the single replications.
+     *
+     * @return A read-only list of the results, in the order of the replications.
+     */
+    public List<SimulationResult> getResults() {
+        return Collections.unmodifiableList(results);
+    }
+
+    /**
+     * Returns the names of all KPIs.
+     *
+     * @return The KPI names.
+     */
+    public Set<String> getKpiNames() {
+        return Collections.unmodifiableSet(tallies.keySet());
+    }
+
+    /**
+     * Returns the statistics of a KPI over the replications.
+     *
+     * @param kpi The name of the KPI, see {@link SimulationResult}.
+     * @return The tally of the KPI, or an empty tally if the KPI is not known.
+     */
+    public Tally getTally(String kpi) {
+        Tally tally = tallies.get(kpi);
+        return tally != null ? tally : new Tally();
+    }
+
+    /**
+     * Returns the distribution of an observed quantity over all replications.
+     *
+     * @param name The name of the quantity, e.g. {@link SimulationResult#WAITING_TIME} followed by a service point type.
+     * @return The merged quantile sketch of the replications, or an empty sketch if the quantity is not known.
+     */
+    public QuantileSketch getSketch(String name) {
+        QuantileSketch sketch = sketches.get(name);
+        return sketch != null ? sketch : new QuantileSketch();
+    }
+
+    /**
+     * Returns the confidence interval for the mean of a KPI over the replications.
+     *
+     * @param kpi The name of the KPI, see {@link SimulationResult}.
+     * @return The confidence interval.
+     */
+    public ConfidenceInterval getConfidenceInterval(String kpi) {
+        return getTally(kpi).getConfidenceInterval(confidenceLevel);
+    }
+
+    /**
+     * Returns the confidence level of the intervals.
+     *
+     * @return The confidence level.
+     */
+    public double getConfidenceLevel() {
+        return confidenceLevel;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Replications: ").append(getReplications()).append("\n");
+        for (String name : tallies.keySet()) {
+            sb.append(name).append(": ").append(getConfidenceInterval(name)).append("\n");
+        }
+        return sb.toString();
+    }
+}
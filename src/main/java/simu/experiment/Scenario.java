@@ -0,0 +1,210 @@
+package simu.experiment;
+
+import controller.IControllerMtoV;
+import simu.model.MyEngine;
+
+/**
+ * Scenario describes one configuration of the airport: the arrival interval, the share of EU passengers,
+ * the number of servers at each service point type and the simulation time.
+ * It creates ready-to-run engines for that configuration.
+ */
+public class Scenario {
+    private final int arrivalInterval;
+    private final double euPercentage;
+    private final int checkinNum;
+    private final int securityNum;
+    private final int passportNum;
+    private final int euGateNum;
+    private final int nonEuGateNum;
+    private final double simulationTime;
+    private double warmUpTime;
+    private boolean detectWarmUp;
+    private double relativeHalfWidth;
+    private String[] stoppingKpis = new String[0];
+
+    /**
+     * Constructor for Scenario.
+     *
+     * @param arrivalInterval The mean interval between customer arrivals.
+     * @param euPercentage    The share of EU passengers, between 0 and 1.
+     * @param checkinNum      The number of check-in points.
+     * @param securityNum     The number of security check points.
+     * @param passportNum     The number of passport control points.
+     * @param euGateNum       The number of EU gates.
+     * @param nonEuGateNum    The number of Non-EU gates.
+     * @param simulationTime  The time when the simulation is stopped.
+     */
+    public Scenario(int arrivalInterval, double euPercentage, int checkinNum, int securityNum, int passportNum,
+                    int euGateNum, int nonEuGateNum, double simulationTime) {
+        if (euPercentage < 0 || euPercentage > 1) {
+            throw new IllegalArgumentException("Scenario: The EU percentage must be between 0 and 1.");
+        }
+        this.arrivalInterval = arrivalInterval;
+        this.euPercentage = euPercentage;
+        this.checkinNum = checkinNum;
+        this.securityNum = securityNum;
+        this.passportNum = passportNum;
+        this.euGateNum = euGateNum;
+        this.nonEuGateNum = nonEuGateNum;
+        this.simulationTime = simulationTime;
+    }
+
+    /**
+     * Creates an engine for this scenario. The engine is not started.
+     *
+     * @param controller The controller the engine reports to.
+     * @param seed       The seed of the engine's random number generators.
+     * @return The new engine.
+     */
+    public MyEngine createEngine(IControllerMtoV controller, long seed) {
+        return createEngine(controller, seed, false);
+    }
+
+    /**
+     * Creates an engine for this scenario, optionally the antithetic counterpart of the engine with the same seed.
+     * The engine is not started.
+     *
+     * @param controller The controller the engine reports to.
+     * @param seed       The seed of the engine's random number generators.
+     * @param antithetic True to mirror all uniform random numbers of the engine.
+     * @return The new engine.
+     */
+    public MyEngine createEngine(IControllerMtoV controller, long seed, boolean antithetic) {
+        MyEngine engine = new MyEngine(controller, arrivalInterval, checkinNum, securityNum, passportNum,
+                euGateNum, nonEuGateNum, seed, antithetic);
+        engine.setSimulationTime(simulationTime);
+        engine.setDelay(0);
+        engine.setEUFlightPercentage(euPercentage);
+        engine.setWarmUpTime(warmUpTime);
+        engine.setWarmUpDetection(detectWarmUp);
+        if (stoppingKpis.length > 0) {
+            engine.setStoppingRule(relativeHalfWidth, 0.95, stoppingKpis);
+        }
+        return engine;
+    }
+
+    /**
+     * Returns a copy of this scenario whose statistics are started anew after a fixed warm-up period.
+     *
+     * @param warmUpTime The length of the warm-up period, 0 for none.
+     * @return The new scenario.
+     */
+    public Scenario withWarmUpTime(double warmUpTime) {
+        if (warmUpTime < 0 || warmUpTime >= simulationTime) {
+            throw new IllegalArgumentException("Scenario: The warm-up time must be between 0 and the simulation time.");
+        }
+        Scenario scenario = copy();
+        scenario.warmUpTime = warmUpTime;
+        return scenario;
+    }
+
+    /**
+     * Returns a copy of this scenario whose engines detect the end of the warm-up period automatically.
+     *
+     * @return The new scenario.
+     */
+    public Scenario withWarmUpDetection() {
+        Scenario scenario = copy();
+        scenario.detectWarmUp = true;
+        return scenario;
+    }
+
+    /**
+     * Returns a copy of this scenario whose engines stop before the simulation time as soon as the 95% batch means
+     * confidence intervals of the given KPIs are narrower than the target, see {@link MyEngine#setStoppingRule}.
+     *
+     * @param relativeHalfWidth The target of the half-width relative to the estimate, e.g. 0.05 for 5%.
+     * @param kpis              The KPIs whose intervals must reach the target.
+     * @return The new scenario.
+     */
+    public Scenario withStoppingRule(double relativeHalfWidth, String... kpis) {
+        Scenario scenario = copy();
+        scenario.relativeHalfWidth = relativeHalfWidth;
+        scenario.stoppingKpis = kpis.clone();
+        return scenario;
+    }
+
+    /**
+     * Returns a copy of this scenario.
+     *
+     * @return The copy.
+     */
+    private Scenario copy() {
+        Scenario scenario = new Scenario(arrivalInterval, euPercentage, checkinNum, securityNum, passportNum,
+                euGateNum, nonEuGateNum, simulationTime);
+        scenario.warmUpTime = warmUpTime;
+        scenario.detectWarmUp = detectWarmUp;
+        scenario.relativeHalfWidth = relativeHalfWidth;
+        scenario.stoppingKpis = stoppingKpis;
+        return scenario;
+    }
+
+    /**
+     * Gets the mean interval between customer arrivals.
+     * @return The mean interval between customer arrivals.
+     */
+    public int getArrivalInterval() { return arrivalInterval; }
+
+    /**
+     * Gets the share of EU passengers, between 0 and 1.
+     * @return The share of EU passengers, between 0 and 1.
+     */
+    public double getEuPercentage() { return euPercentage; }
+
+    /**
+     * Gets the number of check-in points.
+     * @return The number of check-in points.
+     */
+    public int getCheckinNum() { return checkinNum; }
+
+    /**
+     * Gets the number of security check points.
+     * @return The number of security check points.
+     */
+    public int getSecurityNum() { return securityNum; }
+
+    /**
+     * Gets the number of passport control points.
+     * @return The number of passport control points.
+     */
+    public int getPassportNum() { return passportNum; }
+
+    /**
+     * Gets the number of EU gates.
+     * @return The number of EU gates.
+     */
+    public int getEuGateNum() { return euGateNum; }
+
+    /**
+     * Gets the number of Non-EU gates.
+     * @return The number of Non-EU gates.
+     */
+    public int getNonEuGateNum() { return nonEuGateNum; }
+
+    /**
+     * Gets the time when the simulation is stopped.
+     * @return The time when the simulation is stopped.
+     */
+    public double getSimulationTime() { return simulationTime; }
+
+    /**
+     * Gets the length of the fixed warm-up period.
+     * @return The length of the fixed warm-up period, 0 for none.
+     */
+    public double getWarmUpTime() { return warmUpTime; }
+
+    /**
+     * Tells whether the end of the warm-up period is detected automatically.
+     * @return True if the warm-up period is detected.
+     */
+    public boolean isWarmUpDetected() { return detectWarmUp; }
+
+    @Override
+    public String toString() {
+        return "Scenario[arrivalInterval=" + arrivalInterval + ", euPercentage=" + euPercentage
+                + ", servers=" + checkinNum + "/" + securityNum + "/" + passportNum + "/" + euGateNum + "/" + nonEuGateNum
+                + ", simulationTime=" + simulationTime
+                + (warmUpTime > 0 ? ", warmUpTime=" + warmUpTime : detectWarmUp ? ", warmUp=detected" : "")
+                + (stoppingKpis.length > 0 ? ", relativeHalfWidth=" + relativeHalfWidth : "") + "]";
+    }
+}
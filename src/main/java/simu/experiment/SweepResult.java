@@ -0,0 +1,131 @@
+package simu.experiment;
+
+import simu.stats.ConfidenceInterval;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * SweepResult is the results table of a parameter sweep: one row per scenario with the
+ * replication summary of that scenario.
+ * The table can be written as CSV, with one column per parameter and a mean and half-width column per KPI.
+ */
+public class SweepResult {
+
+    /**
+     * One row of the results table.
+     */
+    public static class Row {
+        private final Scenario scenario;
+        private final ReplicationSummary summary;
+
+        /**
+         * Constructor for Row.
+         *
+         * @param scenario The evaluated scenario.
+         * @param summary  The summary of the replications of the scenario.
+         */
+        public Row(Scenario scenario, ReplicationSummary summary) {
+            this.scenario = scenario;
+            this.summary = summary;
+        }
+
+        /**
+         * Gets the evaluated scenario.
+         * @return The scenario.
+         */
+        public Scenario getScenario() { return scenario; }
+
+        /**
+         * Gets the summary of the replications of the scenario.
+         * @return The replication summary.
+         */
+        public ReplicationSummary getSummary() { return summary; }
+    }
+
+    private final List<Row> rows;
+
+    /**
+     * Constructor for SweepResult.
+     *
+     * @param rows The rows of the table.
+     */
+    public SweepResult(List<Row> rows) {
+        this.rows = new ArrayList<>(rows);
+    }
+
+    /**
+     * Returns the rows of the table.
+     *
+     * @return A read-only list of the rows, in the order of the scenarios.
+     */
+    public List<Row> getRows() {
+        return Collections.unmodifiableList(rows);
+    }
+
+    /**
+     * Returns the names of all KPIs that appear in the table.
+     *
+     * @return The KPI names.
+     */
+    public Set<String> getKpiNames() {
+        Set<String> names = new LinkedHashSet<>();
+        for (Row row : rows) {
+            names.addAll(row.summary.getKpiNames());
+        }
+        return names;
+    }
+
+    /**
+     * Writes the table as a CSV file.
+     *
+     * @param file The file to be written.
+     * @throws IOException If the file cannot be written.
+     */
+    public void writeCsv(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writeCsv(writer);
+        }
+    }
+
+    /**
+     * Writes the table as CSV.
+     *
+     * @param writer The writer the table is written to.
+     * @throws IOException If writing fails.
+     */
+    public void writeCsv(Writer writer) throws IOException {
+        Set<String> kpis = getKpiNames();
+        StringBuilder line = new StringBuilder("arrivalInterval,euPercentage,checkin,security,passport,euGates,nonEuGates,simulationTime,replications");
+        for (String kpi : kpis) {
+            line.append(',').append(kpi).append(',').append(kpi).append(".halfWidth");
+        }
+        writer.write(line.append('\n').toString());
+
+        for (Row row : rows) {
+            Scenario s = row.scenario;
+            line.setLength(0);
+            line.append(s.getArrivalInterval()).append(',').append(s.getEuPercentage()).append(',')
+                    .append(s.getCheckinNum()).append(',').append(s.getSecurityNum()).append(',')
+                    .append(s.getPassportNum()).append(',').append(s.getEuGateNum()).append(',')
+                    .append(s.getNonEuGateNum()).append(',').append(s.getSimulationTime()).append(',')
+                    .append(row.summary.getReplications());
+            for (String kpi : kpis) {
+                ConfidenceInterval ci = row.summary.getConfidenceInterval(kpi);
+                line.append(',').append(ci.getMean()).append(',');
+                if (!Double.isInfinite(ci.getHalfWidth())) {
+                    line.append(ci.getHalfWidth()); // Left empty with a single replication
+                }
+            }
+            writer.write(line.append('\n').toString());
+        }
+    }
+}
@@ -8,8 +8,10 @@ import eduni.distributions.*;
  */
 public class ArrivalProcess {
     private ContinuousGenerator generator;
-	private EventList eventList;
+	private IEventList eventList;
 	private EventType type;
+	private Clock clock;
+	private EventPool eventPool; // Source of reused events, null to allocate new ones
 
     /**
      * Constructor for ArrivalProcess.
@@ -18,10 +20,23 @@ public class ArrivalProcess {
      * @param tl    The EventList where the generated events will be added.
      * @param type  The type of event to be generated.
      */
-	public ArrivalProcess(ContinuousGenerator g, EventList tl, EventType type) {
+	public ArrivalProcess(ContinuousGenerator g, IEventList tl, EventType type) {
+		this(g, tl, type, Clock.getInstance());
+	}
+
+    /**
+     * Constructor for ArrivalProcess using the clock of a specific engine.
+     *
+     * @param g     The ContinuousGenerator used to sample the time until the next event.
+     * @param tl    The EventList where the generated events will be added.
+     * @param type  The type of event to be generated.
+     * @param clock The clock the arrival times are relative to.
+     */
+	public ArrivalProcess(ContinuousGenerator g, IEventList tl, EventType type, Clock clock) {
 		this.generator = g;
 		this.eventList = tl;
 		this.type = type;
+		this.clock = clock;
 	}
 
     /**
@@ -29,10 +44,20 @@ public class ArrivalProcess {
      * The generated event is added to the event list.
      */
 	public void generateNext() {
-		Event t = new Event(type, Clock.getInstance().getTime() + generator.sample(), null);
+		double time = clock.getTime() + generator.sample();
+		Event t = eventPool != null ? eventPool.obtain(type, time, null) : new Event(type, time, null);
 		eventList.add(t);
 	}
 
+    /**
+     * Sets the pool the generated events are taken from.
+     *
+     * @param eventPool The event pool of the engine, or null to allocate a new event every time.
+     */
+    public void setEventPool(EventPool eventPool) {
+        this.eventPool = eventPool;
+    }
+
     /**
      * Sets a new generator for the ArrivalProcess.
      *
@@ -0,0 +1,195 @@
+package simu.framework;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * AsyncTraceSink writes trace messages to a file on a background thread, so the simulation does not wait for the disk.
+ * The messages are handed over through a bounded queue; the writer thread takes them in batches and flushes
+ * the file whenever the queue runs empty. If the queue is full, the simulation waits until there is room,
+ * so no messages are lost while the writer thread runs. Only if the writer thread has stopped, e.g. because it was
+ * interrupted, or the waiting thread is interrupted, are messages dropped and counted instead.
+ * <p>
+ * Usage: {@code Trace.setSink(new AsyncTraceSink(path))}, and {@link #close()} at the end to write the rest.
+ */
+public class AsyncTraceSink implements Consumer<String>, AutoCloseable {
+    /** The number of messages the queue holds. */
+    public static final int QUEUE_CAPACITY = 65536;
+    private static final int BATCH_SIZE = 1024;
+    private static final String END = new String("end of trace"); // Compared by identity, never equal to a message
+    private static final long OFFER_WAIT_MILLIS = 100; // How often a full queue checks that the writer still runs
+
+    private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final BufferedWriter writer;
+    private final Thread thread;
+    private volatile IOException error;
+    private volatile boolean closed;
+    private final ReadWriteLock closing = new ReentrantReadWriteLock(); // Every accepted message is queued before END
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Constructor for AsyncTraceSink. The file is created, or emptied if it exists.
+     *
+     * @param file The file the messages are written to, one per line.
+     * @throws IOException If the file cannot be opened.
+     */
+    public AsyncTraceSink(Path file) throws IOException {
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        thread = new Thread(this::writeMessages, "trace-writer");
+        thread.setDaemon(true); // Does not keep the application running
+        thread.start();
+    }
+
+    /**
+     * Hands a message to the writer thread. Waits while the queue is full, but never for a writer thread that
+     * has stopped; such messages are dropped.
+     *
+     * @param message The message.
+     */
+    @Override
+    public void accept(String message) {
+        closing.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("AsyncTraceSink: The sink has been closed.");
+            }
+            while (!queue.offer(message, OFFER_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (!thread.isAlive()) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            dropped.incrementAndGet();
+            Thread.currentThread().interrupt(); // The message is lost, but the caller can stop
+        } finally {
+            closing.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the queued messages in batches until the sink is closed.
+     */
+    private void writeMessages() {
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                for (String message : batch) {
+                    if (message == END) {
+                        flush();
+                        return;
+                    }
+                    write(message);
+                }
+                batch.clear();
+                if (queue.isEmpty()) {
+                    flush();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes a message as a line. After the first error the messages are discarded,
+     * so the simulation never waits for a file that cannot be written.
+     *
+     * @param message The message.
+     */
+    private void write(String message) {
+        if (error != null) {
+            return;
+        }
+        try {
+            writer.write(message);
+            writer.newLine();
+        } catch (IOException e) {
+            error = e;
+        }
+    }
+
+    /**
+     * Flushes the written lines to the file, unless writing has failed.
+     */
+    private void flush() {
+        if (error != null) {
+            return;
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            error = e;
+        }
+    }
+
+    /**
+     * Writes all messages handed over so far, then closes the file.
+     *
+     * @throws IOException If a message or the file could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        closing.writeLock().lock(); // Waits for messages that are being accepted
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            closing.writeLock().unlock();
+        }
+        try {
+            while (thread.isAlive() && !queue.offer(END, OFFER_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                // The writer thread makes room, unless it has stopped
+            }
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (String message : queue) { // Left behind by a writer thread that stopped early
+                if (message != END) {
+                    dropped.incrementAndGet();
+                }
+            }
+            queue.clear();
+            writer.close();
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Returns the first error writing the file.
+     *
+     * @return The error, or null if all messages have been written so far.
+     */
+    public IOException getError() {
+        return error;
+    }
+
+    /**
+     * Returns the number of messages that were dropped because the writer thread had stopped
+     * or the thread handing them over was interrupted.
+     *
+     * @return The number of dropped messages.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,302 @@
+package simu.framework;
+
+import java.util.NoSuchElementException;
+
+/**
+ * CalendarEventList is a calendar queue (R. Brown, 1988) implementation of the pending event set.
+ *
+ * The time axis is divided into "days" of equal width that are mapped round-robin onto an array
+ * of buckets, like the days of a year onto a desk calendar. Each bucket holds a sorted linked list
+ * of its events. Adding an event only has to sort it into one short list, and the next event is
+ * normally found in the bucket of the current day, so both operations take amortized O(1) time
+ * when the bucket width matches the spacing of the events. The number of buckets doubles or halves
+ * with the number of events and the width is re-estimated from the earliest events every time.
+ * Because the spacing of the events can change while their number stays the same, the width is
+ * also re-estimated when the lists get long or the search passes too many empty buckets on average
+ * (the dynamic calendar queue of Oh and Ahn, 1997).
+ *
+ * The buckets are linked through the events themselves, so adding and removing events does not
+ * allocate. Events are ordered like in {@link EventList}, by time, priority and insertion order.
+ */
+public class CalendarEventList implements IEventList {
+	private static final int MIN_BUCKETS = 2;
+	private static final int WIDTH_SAMPLE = 25; // Number of events used to estimate the bucket width
+	private static final int MAX_AVERAGE_COST = 4; // Average steps per operation before the width is re-estimated
+
+	private Event[] buckets = new Event[MIN_BUCKETS];
+	private int mask = MIN_BUCKETS - 1; // The number of buckets is a power of two
+	private double width = 1.0; // Length of the time interval covered by one bucket
+	private long day = 0; // Index of the interval that contains the earliest event
+	private int size = 0;
+	private long cost = 0; // Steps taken in the lists and buckets since the last check
+	private int operations = 0; // Operations since the last check
+	private long sequence = 0; // Number of events added, gives every event its place among equal times
+
+    /**
+     * Constructor for the CalendarEventList class.
+     * Creates an empty calendar with two buckets.
+     */
+	public CalendarEventList() {
+	}
+
+    /**
+     * Adds a new event to the calendar.
+     * The event is sorted into the bucket of its day, after any events with the same time.
+     *
+     * @param event The event to be added.
+     */
+	@Override
+	public void add(Event event) {
+		event.sequence = sequence++;
+		insert(event);
+		size++;
+		if (size > 2 * buckets.length) {
+			resize(buckets.length * 2);
+		} else {
+			checkCost();
+		}
+	}
+
+    /**
+     * Removes the event with the smallest time from the calendar.
+     *
+     * @return The removed event.
+     * @throws NoSuchElementException if the calendar is empty.
+     */
+	@Override
+	public Event remove() {
+		Event first = first();
+		int bucket = (int) (day & mask);
+		buckets[bucket] = first.next;
+		first.next = null;
+		size--;
+		if (size < buckets.length / 2 && buckets.length > MIN_BUCKETS) {
+			resize(buckets.length / 2);
+		} else {
+			checkCost();
+		}
+		return first;
+	}
+
+    /**
+     * Returns the time of the next event without removing it.
+     *
+     * @return The time of the event with the smallest time.
+     * @throws NoSuchElementException if the calendar is empty.
+     */
+	@Override
+	public double getNextTime() {
+		return first().getTime();
+	}
+
+    /**
+     * Returns the number of events in the calendar.
+     *
+     * @return The number of pending events.
+     */
+	@Override
+	public int size() {
+		return size;
+	}
+
+    /**
+     * Removes all events from the calendar and returns it to its initial size.
+     */
+	@Override
+	public void clear() {
+		for (Event head : buckets) {
+			while (head != null) {
+				Event next = head.next;
+				head.next = null;
+				head = next;
+			}
+		}
+		buckets = new Event[MIN_BUCKETS];
+		mask = MIN_BUCKETS - 1;
+		width = 1.0;
+		day = 0;
+		size = 0;
+		cost = 0;
+		operations = 0;
+		sequence = 0;
+	}
+
+    /**
+     * Returns the number of buckets currently in use.
+     *
+     * @return The number of buckets.
+     */
+	int getBucketCount() {
+		return buckets.length;
+	}
+
+    /**
+     * Finds the earliest event and moves the current day to its interval.
+     * The buckets are searched one day at a time for one full round of the calendar. If no event
+     * falls into that year, the earliest event is found by comparing the heads of all buckets.
+     *
+     * @return The earliest event, which is the head of the bucket of the current day.
+     */
+	private Event first() {
+		if (size == 0) {
+			throw new NoSuchElementException("The event list is empty.");
+		}
+		for (int i = 0; i < buckets.length; i++, day++) {
+			Event head = buckets[(int) (day & mask)];
+			if (head != null && dayOf(head.getTime()) == day) {
+				cost += i;
+				return head;
+			}
+		}
+		cost += 2L * buckets.length;
+		Event earliest = null;
+		for (Event head : buckets) {
+			if (head != null && (earliest == null || head.getTime() < earliest.getTime())) {
+				earliest = head;
+			}
+		}
+		day = dayOf(earliest.getTime());
+		return earliest;
+	}
+
+    /**
+     * Sorts an event into the bucket of its day without updating the size.
+     * The event keeps its sequence number, so its place among events with equal times does not change.
+     *
+     * @param event The event to be inserted.
+     */
+	private void insert(Event event) {
+		long eventDay = dayOf(event.getTime());
+		if (eventDay < day || size == 0) {
+			day = eventDay; // The new event is the earliest one
+		}
+		int bucket = (int) (eventDay & mask);
+		Event head = buckets[bucket];
+		if (head == null || head.compareTo(event) > 0) {
+			event.next = head;
+			buckets[bucket] = event;
+			return;
+		}
+		Event previous = head;
+		while (previous.next != null && previous.next.compareTo(event) < 0) {
+			previous = previous.next;
+			cost++;
+		}
+		event.next = previous.next;
+		previous.next = event;
+	}
+
+    /**
+     * Returns the index of the interval that contains the given time.
+     *
+     * @param time The time of an event.
+     * @return The day of the event.
+     */
+	private long dayOf(double time) {
+		return (long) Math.floor(time / width);
+	}
+
+    /**
+     * Re-estimates the bucket width when the operations since the last check have taken too many
+     * steps on average. The check is made once per as many operations as there are buckets,
+     * so its amortized cost is O(1).
+     */
+	private void checkCost() {
+		if (++operations < Math.max(buckets.length, WIDTH_SAMPLE)) {
+			return;
+		}
+		if (cost > (long) MAX_AVERAGE_COST * operations) {
+			resize(buckets.length);
+		}
+		cost = 0;
+		operations = 0;
+	}
+
+    /**
+     * Changes the number of buckets and re-estimates the bucket width.
+     * All events are unlinked into a single chain through their own links and inserted again,
+     * so only the new bucket array is allocated.
+     *
+     * @param bucketCount The new number of buckets, a power of two.
+     */
+	private void resize(int bucketCount) {
+		double newWidth = estimateWidth();
+		Event chain = null;
+		Event tail = null;
+		for (Event head : buckets) {
+			if (head == null) {
+				continue;
+			}
+			if (tail == null) {
+				chain = head;
+			} else {
+				tail.next = head;
+			}
+			tail = head;
+			while (tail.next != null) {
+				tail = tail.next;
+			}
+		}
+		buckets = new Event[bucketCount];
+		mask = bucketCount - 1;
+		width = newWidth;
+		int count = size;
+		size = 0;
+		while (chain != null) {
+			Event next = chain.next;
+			insert(chain);
+			size++;
+			chain = next;
+		}
+		size = count;
+		cost = 0;
+		operations = 0;
+	}
+
+    /**
+     * Estimates a bucket width from the spacing of the earliest events, following Brown:
+     * the average gap between the first events is computed, gaps larger than twice the average
+     * are left out as outliers, and the width is three times the average of the remaining gaps.
+     * The sampled events are removed and added back, so the calendar is unchanged afterwards.
+     *
+     * @return The new bucket width, or the current width if the events are not spread out.
+     */
+	private double estimateWidth() {
+		int samples = Math.min(size, WIDTH_SAMPLE);
+		if (samples < 2) {
+			return width;
+		}
+		// Take the earliest events off the calendar, keeping them in a chain from the latest to the earliest
+		Event chain = null;
+		double earliest = 0;
+		for (int i = 0; i < samples; i++) {
+			Event first = first();
+			buckets[(int) (day & mask)] = first.next;
+			first.next = chain;
+			chain = first;
+			size--;
+			if (i == 0) {
+				earliest = first.getTime();
+			}
+		}
+		double average = (chain.getTime() - earliest) / (samples - 1);
+		double sum = 0;
+		int count = 0;
+		for (Event e = chain; e.next != null; e = e.next) {
+			double gap = e.getTime() - e.next.getTime();
+			if (gap <= 2 * average) {
+				sum += gap;
+				count++;
+			}
+		}
+		// Put the sampled events back
+		while (chain != null) {
+			Event next = chain.next;
+			insert(chain);
+			size++;
+			chain = next;
+		}
+		double estimate = count > 0 ? 3 * sum / count : 0;
+		return estimate > 0 && Double.isFinite(estimate) ? estimate : width;
+	}
+}
@@ -1,7 +1,9 @@
 package simu.framework;
 
 /**
- * The Clock class is a singleton that keeps track of the simulation time.
+ * The Clock class keeps track of the simulation time.
+ * Each engine owns its own clock, so several engines can run in the same JVM without sharing time.
+ * A shared default instance is still available for components that are used without an engine.
  * It provides methods to set and get the current time.
  */
 public class Clock {
@@ -9,20 +11,21 @@ public class Clock {
 	private static Clock instance;
 
     /**
-     * Private constructor to prevent instantiation from outside the class.
+     * Creates a new clock, independent of all other clocks.
      * Initializes the time to 0.
      */
-	private Clock(){
+	public Clock(){
 		time = 0;
 	}
 
     /**
-     * Returns the singleton instance of the Clock class.
+     * Returns the shared default instance of the Clock class.
      * If the instance is null, it creates a new instance.
+     * Engines do not use this instance, they create their own clock.
      *
-     * @return The singleton instance of the Clock class.
+     * @return The shared default instance of the Clock class.
      */
-	public static Clock getInstance(){
+	public static synchronized Clock getInstance(){
 		if (instance == null){
 			instance = new Clock();
 		}
@@ -5,6 +5,7 @@ import controller.IControllerMtoV;
 import simu.model.ServicePoint;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 
 /**
  * The Engine class is responsible for managing the simulation process.
@@ -15,10 +16,16 @@ import java.util.ArrayList;
 public abstract class Engine extends Thread implements IEngine {  // NEW DEFINITIONS
 	protected double simulationTime = 0;	// time when the simulation will be stopped
 	private long delay = 0;
-	private Clock clock; // to simplify the code (clock.getClock() instead Clock.getInstance().getClock())
-	protected EventList eventList;
+	protected Clock clock; // owned by this engine, so that several engines can run side by side
+	protected IEventList eventList;
 	protected ArrayList<ServicePoint> servicePoints;
+	protected final EventPool eventPool = new EventPool(); // processed events are reused for new ones
+	private final BitSet readyPoints = new BitSet(); // indices of the service points that are idle with a queue
 	protected IControllerMtoV controller; // NEW
+	private EventRecorder eventRecorder; // writes every processed event, or null
+	private int eventCustomer; // the customer of the event being run, told by recordCustomer
+	private ServicePoint eventDestination; // the service point that customer joined
+	private long processedEvents; // number of B events run
 
     /**
      * Indicates whether the simulation is running.
@@ -29,14 +36,44 @@ public abstract class Engine extends Thread implements IEngine {  // NEW DEFINIT
     /**
      * Constructor for the Engine class.
      * Initializes the clock and event list.
+     * Every engine gets its own clock, it is not shared with other engines.
+     * The event list implementation is chosen with the {@value IEventList#IMPLEMENTATION_PROPERTY} system property.
      */
     public Engine(IControllerMtoV controller) {
 		this.controller = controller;
-		clock = Clock.getInstance();
-		eventList = new EventList();
+		clock = new Clock();
+		eventList = IEventList.create();
 		/* Service Points are created in simu.model-package's class who is inheriting the Engine class */
 	}
 
+    /**
+     * Returns the clock of this engine.
+     *
+     * @return The clock that keeps the simulation time of this engine.
+     */
+	public Clock getClock() {
+		return clock;
+	}
+
+    /**
+     * Sets the recorder every processed event is written to, so that the run can be replayed later.
+     * The recorder is flushed at the end of the simulation; closing it is left to the caller.
+     *
+     * @param eventRecorder The recorder, or null to record nothing.
+     */
+	public void setEventRecorder(EventRecorder eventRecorder) {
+		this.eventRecorder = eventRecorder;
+	}
+
+    /**
+     * Returns the number of B events this engine has run, e.g. to measure the cost per event.
+     *
+     * @return The number of processed events.
+     */
+	public long getProcessedEvents() {
+		return processedEvents;
+	}
+
     /**
      * Sets the simulation time.
      *
@@ -74,35 +111,70 @@ public abstract class Engine extends Thread implements IEngine {  // NEW DEFINIT
      */
 	@Override
 	public void run() {
-        System.out.println("Simulation started.");
+        Trace.out(Trace.Level.INFO, "Simulation started.");
+        connectServicePoints();
         initialization(); // creating, e.g., the first event
 
-        while (isRunning && clock.getTime() < simulationTime && !Thread.currentThread().isInterrupted()) {
+        while (isRunning && clock.getTime() < simulationTime && !isPrecise() && !Thread.currentThread().isInterrupted()) {
             delay(); // NEW
             clock.setTime(currentTime());
             runBEvents();
             tryCEvents();
         }
 
+		if (eventRecorder != null) {
+			eventRecorder.flush();
+		}
 		results();
     }
 
     /**
      * Runs the B events in the event list.
      * This method checks if the next event in the list is of type B and processes it.
+     * All events scheduled up to the current time are run, including those scheduled during this phase,
+     * in the order defined by {@link Event#compareTo}.
+     * Every processed event is given back to the event pool, so runEvent must not keep a reference to it.
+     * If there is an event recorder, every event is recorded after it has been run.
      */
     private void runBEvents() {
-        while (eventList.getNextTime() == clock.getTime() && isRunning && !Thread.currentThread().isInterrupted()) {
-            runEvent(eventList.remove());
+        while (!eventList.isEmpty() && eventList.getNextTime() <= clock.getTime()
+                && isRunning && !Thread.currentThread().isInterrupted()) {
+            Event event = eventList.remove();
+            if (eventRecorder == null) {
+                runEvent(event);
+            } else {
+                eventCustomer = -1;
+                eventDestination = null;
+                runEvent(event);
+                eventRecorder.record(event.getTime(), event.getType().ordinal(),
+                        eventDestination == null ? -1 : eventDestination.getIndex(), eventCustomer);
+            }
+            eventPool.release(event);
+            processedEvents++;
         }
     }
 
+    /**
+     * Connects every service point to the ready set and the event pool of this engine.
+     * A service point marks itself ready when it becomes idle with customers waiting.
+     */
+	private void connectServicePoints() {
+		readyPoints.clear();
+		for (int i = 0; i < servicePoints.size(); i++) {
+			servicePoints.get(i).setReadySet(readyPoints, i);
+			servicePoints.get(i).setEventPool(eventPool);
+		}
+	}
+
     /**
      * Attempts to process C events for service points.
-     * This method checks if any service points are available and processes them.
+     * Only the service points that have marked themselves ready since the last C-phase are visited,
+     * in the same order as in the list of service points.
      */
 	private void tryCEvents() {
-		for (ServicePoint p: servicePoints){
+		for (int i = readyPoints.nextSetBit(0); i >= 0; i = readyPoints.nextSetBit(i + 1)) {
+			readyPoints.clear(i);
+			ServicePoint p = servicePoints.get(i);
 			if (!p.isReserved() && p.isOnQueue()){
 				p.beginService();
 			}
@@ -123,7 +195,7 @@ public abstract class Engine extends Thread implements IEngine {  // NEW DEFINIT
      * This method checks if the simulation is running and if the current time is less than the simulation time.
      */
     private boolean simulate() {
-        Trace.out(Trace.Level.INFO, "Time is: " + clock.getTime());
+        Trace.out(Trace.Level.INFO, () -> "Time is: " + clock.getTime());
         return isRunning && clock.getTime() < simulationTime && !Thread.currentThread().isInterrupted();
     }
 
@@ -133,6 +205,9 @@ public abstract class Engine extends Thread implements IEngine {  // NEW DEFINIT
      */
 	private void delay() {
 		// Trace.out(Trace.Level.INFO, "Delay " + delay);
+		if (delay <= 0) {
+			return; // Run at full speed, e.g. in headless mode
+		}
 		try {
 			sleep(delay);
 		} catch (InterruptedException e) {
@@ -149,6 +224,30 @@ public abstract class Engine extends Thread implements IEngine {  // NEW DEFINIT
     protected void reset() {
     }
 
+    /**
+     * Tells whether the results are already precise enough for the simulation to stop before the simulation time.
+     * It is asked after every step of the simulation, so it should be cheap.
+     * It can be overridden by subclasses to provide a sequential stopping rule; by default the simulation
+     * always runs until the simulation time.
+     *
+     * @return True to stop the simulation now.
+     */
+    protected boolean isPrecise() {
+        return false;
+    }
+
+    /**
+     * Tells the event recorder which customer the event being run moved and where.
+     * Called by runEvent; does nothing if no recorder is set.
+     *
+     * @param customerId The id of the customer.
+     * @param joined     The service point the customer joined, or null if the customer left.
+     */
+    protected void recordCustomer(int customerId, ServicePoint joined) {
+        eventCustomer = customerId;
+        eventDestination = joined;
+    }
+
     /**
      * Initializes the simulation.
      * This method is called to set up the initial state of the simulation.
@@ -159,6 +258,7 @@ public abstract class Engine extends Thread implements IEngine {  // NEW DEFINIT
     /**
      * This method is used to run a specific event.
      * It can be overridden by subclasses to provide specific event handling functionality.
+     * The event is reused after this method returns, so it must not be stored.
      */
     protected abstract void runEvent(Event t);	// Defined in simu.model-package's class who is inheriting the Engine class
 
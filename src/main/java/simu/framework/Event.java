@@ -15,6 +15,8 @@ public class Event implements Comparable<Event> {
 	private IEventType type;
 	private double time;
 	private ServicePoint servicePoint;// The associated ServicePoint for this event.
+	long sequence; // Order in which the event was added to the event list, breaks ties between equal times
+	Event next; // Link to the next event in a CalendarEventList bucket, so that the buckets need no node objects
 
     /**
      * Constructor for the Event class.
@@ -71,8 +73,18 @@ public class Event implements Comparable<Event> {
 		return servicePoint;
 	}
 
+    /**
+     * Sets the associated ServicePoint for this event. Used when the event is reused.
+     * @param sp The ServicePoint to be set, or null.
+     */
+	void setServicePoint(ServicePoint sp) {
+		servicePoint = sp;
+	}
+
     /**
      * Compares this event with another event based on their time.
+     * Events with equal times are ordered by the priority of their type and then by the order in
+     * which they were added to the event list, so the order of simultaneous events is always the same.
      *
      * @param arg The event to compare with.
      * @return A negative integer, zero, or a positive integer as this event is less than, equal to, or greater than the specified event.
@@ -81,7 +93,9 @@ public class Event implements Comparable<Event> {
 	public int compareTo(Event arg) {
 		if (this.time < arg.time) return -1;
 		else if (this.time > arg.time) return 1;
-		return 0;
+		int priority = Integer.compare(type.getPriority(), arg.type.getPriority());
+		if (priority != 0) return priority;
+		return Long.compare(sequence, arg.sequence);
 	}
 
 }
@@ -7,9 +7,10 @@ import java.util.PriorityQueue;
  * It uses a priority queue to store events based on their time.
  * The class provides methods to add, remove, and retrieve the next event.
  */
-public class EventList {
+public class EventList implements IEventList {
 
 	private PriorityQueue<Event> array = new PriorityQueue<Event>();
+	private long sequence = 0; // Number of events added, gives every event its place among equal times
 
     /**
      * Constructor for the EventList class.
@@ -24,6 +25,7 @@ public class EventList {
      *
      * @return The next event in the priority queue.
      */
+	@Override
 	public Event remove(){
 		return array.remove();
 	}
@@ -34,7 +36,9 @@ public class EventList {
      *
      * @param t The event to be added to the priority queue.
      */
+	@Override
 	public void add(Event t){
+		t.sequence = sequence++;
 		array.add(t);
 	}
 
@@ -44,14 +48,28 @@ public class EventList {
      *
      * @return The next event in the priority queue.
      */
+	@Override
 	public double getNextTime(){
 		return array.peek().getTime();
 	}
 
+    /**
+     * Returns the number of events in the priority queue.
+     *
+     * @return The number of pending events.
+     */
+    @Override
+    public int size() {
+        return array.size();
+    }
+
     /**
      * Clears the event list.
      * This method is used to remove all events from the priority queue.
      */
+    @Override
     public void clear() {
+        array.clear();
+        sequence = 0;
     }
 }
@@ -0,0 +1,158 @@
+package simu.framework;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * EventLog reads a file written by an {@link EventRecorder}. The file is memory-mapped, so any event can be read
+ * in constant time without reading the events before it, and {@link #indexOf(double)} finds the events of a
+ * point in time by binary search. Files larger than a single mapping are mapped in segments.
+ * An incomplete record at the end, e.g. of a run that was killed, is ignored.
+ */
+public class EventLog implements AutoCloseable {
+    private static final int SEGMENT_SHIFT = 26; // 2^26 records, 1.5 GB, per mapping
+    private static final long SEGMENT_RECORDS = 1L << SEGMENT_SHIFT;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long size;
+
+    /**
+     * Opens an event log.
+     *
+     * @param file The file written by an EventRecorder.
+     * @throws IOException If the file cannot be read or is not an event log.
+     */
+    public EventLog(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long length = channel.size();
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(length, EventRecorder.HEADER_SIZE));
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (length < EventRecorder.HEADER_SIZE || header.getLong(0) != EventRecorder.MAGIC
+                    || header.getInt(8) != EventRecorder.RECORD_SIZE) {
+                throw new IOException("EventLog: " + file + " is not an event log.");
+            }
+            size = (length - EventRecorder.HEADER_SIZE) / EventRecorder.RECORD_SIZE;
+            segments = new MappedByteBuffer[(int) ((size + SEGMENT_RECORDS - 1) >>> SEGMENT_SHIFT)];
+            for (int s = 0; s < segments.length; s++) {
+                long first = (long) s << SEGMENT_SHIFT;
+                long records = Math.min(SEGMENT_RECORDS, size - first);
+                segments[s] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        EventRecorder.HEADER_SIZE + first * EventRecorder.RECORD_SIZE, records * EventRecorder.RECORD_SIZE);
+                segments[s].order(ByteOrder.LITTLE_ENDIAN);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of events.
+     *
+     * @return The number of events in the log.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the time of an event.
+     *
+     * @param index The number of the event, from 0.
+     * @return The time.
+     */
+    public double getTime(long index) {
+        return segment(index).getDouble(offset(index));
+    }
+
+    /**
+     * Returns the number of the type of an event.
+     *
+     * @param index The number of the event, from 0.
+     * @return The number of the type, see {@link IEventType#ordinal()}.
+     */
+    public int getType(long index) {
+        return segment(index).getInt(offset(index) + 8);
+    }
+
+    /**
+     * Returns the service point the customer of an event joined.
+     *
+     * @param index The number of the event, from 0.
+     * @return The index of the service point, or -1 if the customer left or there was none.
+     */
+    public int getServicePoint(long index) {
+        return segment(index).getInt(offset(index) + 12);
+    }
+
+    /**
+     * Returns the customer of an event.
+     *
+     * @param index The number of the event, from 0.
+     * @return The id of the customer, or -1 if there was none.
+     */
+    public long getCustomer(long index) {
+        return segment(index).getLong(offset(index) + 16);
+    }
+
+    /**
+     * Finds the first event at or after a time by binary search over the times of the events.
+     * The engine processes the events in the order of their times and never schedules an event in the past,
+     * so the times in a log never decrease.
+     *
+     * @param time The time.
+     * @return The number of the first event whose time is at least the given time, or the size if there is none.
+     */
+    public long indexOf(double time) {
+        long low = 0;
+        long high = size;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (getTime(middle) < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the mapping that holds an event.
+     *
+     * @param index The number of the event.
+     * @return The mapped segment.
+     */
+    private MappedByteBuffer segment(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("EventLog: No event " + index + " in a log of " + size + " events.");
+        }
+        return segments[(int) (index >>> SEGMENT_SHIFT)];
+    }
+
+    /**
+     * Returns the position of an event in its segment.
+     *
+     * @param index The number of the event.
+     * @return The byte offset in the segment.
+     */
+    private static int offset(long index) {
+        return (int) (index & (SEGMENT_RECORDS - 1)) * EventRecorder.RECORD_SIZE;
+    }
+
+    /**
+     * Closes the file. The events must not be read afterwards.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
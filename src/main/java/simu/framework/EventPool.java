@@ -0,0 +1,71 @@
+package simu.framework;
+
+import simu.model.ServicePoint;
+
+/**
+ * EventPool keeps processed events so that they can be reused for new events.
+ *
+ * The engine releases every event to the pool after it has been processed, and the arrival process
+ * and the service points obtain their new events from the pool. In a steady state the number of
+ * pending events stays about the same, so after a short warm-up no new events are allocated at all.
+ *
+ * The contract for the users of the pool is that an event must not be referenced anymore once it
+ * has been released, because it will be handed out again with new values.
+ * The pool is not thread-safe; every engine has its own pool.
+ */
+public class EventPool {
+	private Event[] free = new Event[64];
+	private int size = 0;
+
+    /**
+     * Constructor for the EventPool class.
+     * Creates an empty pool.
+     */
+	public EventPool() {
+	}
+
+    /**
+     * Returns an event with the given values, reusing a released event if one is available.
+     *
+     * @param type The type of the event.
+     * @param time The time at which the event occurs.
+     * @param sp   The ServicePoint associated with the event, or null.
+     * @return The event.
+     */
+	public Event obtain(IEventType type, double time, ServicePoint sp) {
+		if (size == 0) {
+			return new Event(type, time, sp);
+		}
+		Event event = free[--size];
+		free[size] = null;
+		event.setType(type);
+		event.setTime(time);
+		event.setServicePoint(sp);
+		return event;
+	}
+
+    /**
+     * Gives a processed event back to the pool. The event must not be used after this.
+     *
+     * @param event The event to be reused.
+     */
+	public void release(Event event) {
+		event.setServicePoint(null); // Do not keep the service point reachable from the pool
+		event.next = null;
+		if (size == free.length) {
+			Event[] larger = new Event[free.length * 2];
+			System.arraycopy(free, 0, larger, 0, size);
+			free = larger;
+		}
+		free[size++] = event;
+	}
+
+    /**
+     * Returns the number of events waiting to be reused.
+     *
+     * @return The number of pooled events.
+     */
+	public int size() {
+		return size;
+	}
+}
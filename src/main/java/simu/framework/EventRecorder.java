@@ -0,0 +1,111 @@
+package simu.framework;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * EventRecorder writes every processed event to a compact binary file, so that the run can be analysed again
+ * later without running the model, see {@link EventLog}.
+ * <p>
+ * The file starts with a header of {@value #HEADER_SIZE} bytes: a magic number and the record size.
+ * Every event is a record of {@value #RECORD_SIZE} little-endian bytes: the time of the event (double),
+ * the number of its type (int), the index of the service point the customer of the event joined, or -1
+ * if the customer left or there was none (int), and the id of the customer, or -1 (long).
+ * The records are collected in a direct buffer and appended to the file with one write per buffer.
+ */
+public class EventRecorder implements AutoCloseable {
+    /** The number of bytes of one event. */
+    public static final int RECORD_SIZE = 24;
+    /** The number of bytes before the first event. */
+    public static final int HEADER_SIZE = 16;
+    static final long MAGIC = 0x314C564554524941L; // "AIRTEVL1" in little-endian order
+    private static final int BUFFERED_RECORDS = 4096;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_SIZE * BUFFERED_RECORDS).order(ByteOrder.LITTLE_ENDIAN);
+    private long records;
+    private IOException error;
+
+    /**
+     * Constructor for EventRecorder. The file is created, or emptied if it exists.
+     *
+     * @param file The file the events are written to.
+     * @throws IOException If the file cannot be opened.
+     */
+    public EventRecorder(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.putLong(MAGIC).putInt(RECORD_SIZE).putInt(0);
+    }
+
+    /**
+     * Adds an event. If the file cannot be written, the events are dropped and {@link #close()} throws the error.
+     *
+     * @param time         The time of the event.
+     * @param type         The number of the type of the event.
+     * @param servicePoint The index of the service point the customer joined, or -1.
+     * @param customer     The id of the customer, or -1.
+     */
+    public void record(double time, int type, int servicePoint, long customer) {
+        if (buffer.remaining() < RECORD_SIZE) {
+            flush();
+        }
+        buffer.putDouble(time).putInt(type).putInt(servicePoint).putLong(customer);
+        records++;
+    }
+
+    /**
+     * Writes the buffered events to the file.
+     */
+    public void flush() {
+        buffer.flip();
+        try {
+            while (error == null && buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            error = e;
+            Trace.out(Trace.Level.ERR, "Cannot write the event log (" + e.getMessage() + "), events are dropped");
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes the remaining events and closes the file.
+     *
+     * @throws IOException If an event or the file could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        flush();
+        channel.close();
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Returns the number of events recorded.
+     *
+     * @return The number of events.
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Returns the first error writing the file.
+     *
+     * @return The error, or null if all events have been written so far.
+     */
+    public IOException getError() {
+        return error;
+    }
+}
@@ -0,0 +1,74 @@
+package simu.framework;
+
+/**
+ * Interface for the pending event set of the simulation.
+ * The engine always processes the event with the smallest time next, so an implementation
+ * only has to support adding events and removing the earliest one. Events with equal times are
+ * removed by the priority of their type and then in the order they were added, see {@link Event#compareTo}.
+ *
+ * Two implementations are available: {@link EventList}, a binary heap, and
+ * {@link CalendarEventList}, a calendar queue with amortized O(1) operations.
+ */
+public interface IEventList {
+
+    /**
+     * Name of the system property that selects the implementation used by the engine.
+     * The value {@code calendar} selects {@link CalendarEventList}, anything else {@link EventList}.
+     */
+    String IMPLEMENTATION_PROPERTY = "simu.eventList";
+
+    /**
+     * Adds a new event to the list.
+     *
+     * @param event The event to be added.
+     */
+    void add(Event event);
+
+    /**
+     * Removes the event with the smallest time from the list.
+     *
+     * @return The removed event.
+     * @throws java.util.NoSuchElementException if the list is empty.
+     */
+    Event remove();
+
+    /**
+     * Returns the time of the next event without removing it.
+     *
+     * @return The time of the event with the smallest time.
+     */
+    double getNextTime();
+
+    /**
+     * Returns the number of events in the list.
+     *
+     * @return The number of pending events.
+     */
+    int size();
+
+    /**
+     * Checks whether the list contains any events.
+     *
+     * @return true if the list is empty.
+     */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Removes all events from the list.
+     */
+    void clear();
+
+    /**
+     * Creates the event list implementation selected with the {@value #IMPLEMENTATION_PROPERTY} system property.
+     *
+     * @return A new, empty event list.
+     */
+    static IEventList create() {
+        if ("calendar".equalsIgnoreCase(System.getProperty(IMPLEMENTATION_PROPERTY))) {
+            return new CalendarEventList();
+        }
+        return new EventList();
+    }
+}
@@ -4,4 +4,26 @@ package simu.framework;
  * Interface representing an event type in the simulation framework.
  * This interface can be implemented by different event types to categorize events.
  */
-public interface IEventType {}
+public interface IEventType {
+
+    /**
+     * Returns the priority of events of this type among events that occur at the same time.
+     * Events with a smaller value are processed first; events with equal time and priority are
+     * processed in the order they were scheduled.
+     *
+     * @return The priority, 0 by default.
+     */
+    default int getPriority() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of this type, which identifies the type in an event log.
+     * Enums implementing this interface number their types by their ordinal.
+     *
+     * @return The number of the type, from 0, or -1 if the type has no number.
+     */
+    default int ordinal() {
+        return -1;
+    }
+}
@@ -0,0 +1,121 @@
+package simu.framework;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * LogRing passes log lines from the simulation to the user interface through a bounded ring buffer.
+ * Writers never block or wait: every line takes the next position of the ring, and when the reader falls behind
+ * by more than the capacity, the oldest lines are overwritten and counted as dropped. The reader drains the lines
+ * in batches, e.g. once per frame, instead of being handed every line separately.
+ * <p>
+ * Any number of threads may write, but only one thread may read. Every slot carries the position of the line
+ * it holds, so the reader recognises lines that have not been written completely yet or have been overwritten.
+ */
+public class LogRing {
+    private final AtomicReferenceArray<String> lines;
+    private final AtomicLongArray positions; // Position + 1 of the line in every slot, 0 while it is written
+    private final int mask;
+    private final AtomicLong writePosition = new AtomicLong();
+    private long readPosition; // Only used by the reader
+    private long dropped;
+
+    /**
+     * Constructor for LogRing.
+     *
+     * @param capacity The number of lines the ring holds, a power of two.
+     */
+    public LogRing(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("LogRing: The capacity must be a power of two.");
+        }
+        lines = new AtomicReferenceArray<>(capacity);
+        positions = new AtomicLongArray(capacity);
+        mask = capacity - 1;
+    }
+
+    /**
+     * Adds a line. Never blocks; if the reader is a whole ring behind, the oldest line is overwritten.
+     *
+     * @param line The line.
+     */
+    public void add(String line) {
+        long position = writePosition.getAndIncrement();
+        int slot = (int) position & mask;
+        positions.set(slot, 0); // Readers skip the slot until the line is complete
+        lines.set(slot, line);
+        positions.set(slot, position + 1);
+    }
+
+    /**
+     * Hands the lines written since the last drain to a consumer, oldest first. Only one thread may drain.
+     * Stops at the first line that is still being written, which is delivered by the next drain.
+     *
+     * @param consumer Receives the lines.
+     * @param max      The largest number of lines delivered.
+     * @return The number of lines delivered.
+     */
+    public int drain(Consumer<String> consumer, int max) {
+        long end = writePosition.get();
+        int capacity = mask + 1;
+        if (end - readPosition > capacity) {
+            dropped += end - capacity - readPosition; // Overwritten before they were read
+            readPosition = end - capacity;
+        }
+        int delivered = 0;
+        while (readPosition < end && delivered < max) {
+            int slot = (int) readPosition & mask;
+            long before = positions.get(slot);
+            String line = lines.get(slot);
+            if (before == readPosition + 1 && positions.get(slot) == before) {
+                consumer.accept(line);
+                delivered++;
+            } else if (before == 0 || before < readPosition + 1) {
+                break; // Still being written
+            } else {
+                dropped++; // Overwritten by a line one ring later
+            }
+            readPosition++;
+        }
+        return delivered;
+    }
+
+    /**
+     * Returns the position the next line will be written to. Lines written before it can be skipped with
+     * {@link #skipTo(long)}, e.g. when the log is cleared.
+     *
+     * @return The number of lines added so far.
+     */
+    public long getWritePosition() {
+        return writePosition.get();
+    }
+
+    /**
+     * Skips the lines before a position without delivering them. Only the reader thread may skip.
+     *
+     * @param position The position from {@link #getWritePosition()}.
+     */
+    public void skipTo(long position) {
+        readPosition = Math.max(readPosition, position);
+    }
+
+    /**
+     * Returns the number of lines that were overwritten before they could be read.
+     *
+     * @return The number of dropped lines.
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Returns the number of lines the ring holds.
+     *
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+}
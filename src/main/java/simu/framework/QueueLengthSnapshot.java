@@ -0,0 +1,125 @@
+package simu.framework;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * QueueLengthSnapshot holds the latest queue lengths of all service points, so that a user interface can show them
+ * without being told about every event. The engine thread overwrites the lengths in a pre-allocated array after
+ * every event, and the user interface copies them at most once per frame; intermediate states are simply
+ * overwritten, so a fast simulation never floods the user interface with updates.
+ * <p>
+ * The service points are grouped by type, e.g. all check-in points, and numbered consecutively.
+ * There is one writer and any number of readers. A version counter works as a sequence lock: it is odd while
+ * the writer updates the lengths, and a reader that sees it change while copying copies again. Neither side
+ * blocks or allocates.
+ */
+public class QueueLengthSnapshot {
+    private final int[] groupStarts; // Index of the first service point of every group, and the total at the end
+    private final int[] lengths;
+    private volatile long version;
+
+    /**
+     * Constructor for QueueLengthSnapshot. All queues are empty at first.
+     *
+     * @param groupSizes The number of service points in every group.
+     */
+    public QueueLengthSnapshot(int... groupSizes) {
+        groupStarts = new int[groupSizes.length + 1];
+        for (int g = 0; g < groupSizes.length; g++) {
+            groupStarts[g + 1] = groupStarts[g] + groupSizes[g];
+        }
+        lengths = new int[groupStarts[groupSizes.length]];
+    }
+
+    /**
+     * Starts an update of the lengths. Only the engine thread may update the snapshot.
+     */
+    public void beginUpdate() {
+        version = version + 1; // Odd: readers wait for the update to end
+        VarHandle.storeStoreFence(); // The lengths are not written before the version
+    }
+
+    /**
+     * Sets the queue length of a service point during an update.
+     *
+     * @param index The number of the service point, see {@link #getGroupStart(int)}.
+     * @param length The number of customers in its queue.
+     */
+    public void set(int index, int length) {
+        lengths[index] = length;
+    }
+
+    /**
+     * Ends an update and makes the new lengths visible to the readers.
+     */
+    public void endUpdate() {
+        version = version + 1;
+    }
+
+    /**
+     * Copies the latest complete lengths. Returns immediately unless the writer is in the middle of an update.
+     *
+     * @param target The array the lengths are copied to, at least {@link #size()} long.
+     * @return The version of the copied lengths, which changes with every update.
+     */
+    public long read(int[] target) {
+        while (true) {
+            long before = version;
+            if ((before & 1) == 0) {
+                System.arraycopy(lengths, 0, target, 0, lengths.length);
+                VarHandle.loadLoadFence(); // The lengths are read before the version is checked again
+                if (version == before) {
+                    return before;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Returns the version of the lengths. A reader only has to copy the lengths when it has changed.
+     *
+     * @return The number of updates begun and ended so far.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the number of groups.
+     *
+     * @return The number of groups.
+     */
+    public int getGroupCount() {
+        return groupStarts.length - 1;
+    }
+
+    /**
+     * Returns the number of the first service point of a group.
+     *
+     * @param group The group.
+     * @return The index of the first service point of the group.
+     */
+    public int getGroupStart(int group) {
+        return groupStarts[group];
+    }
+
+    /**
+     * Returns the number of service points in a group.
+     *
+     * @param group The group.
+     * @return The number of service points.
+     */
+    public int getGroupSize(int group) {
+        return groupStarts[group + 1] - groupStarts[group];
+    }
+
+    /**
+     * Returns the number of service points.
+     *
+     * @return The number of service points in all groups.
+     */
+    public int size() {
+        return lengths.length;
+    }
+}
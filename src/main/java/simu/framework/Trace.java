@@ -1,8 +1,14 @@
 package simu.framework;
 
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
 /**
- * Interface representing an event type in the simulation framework.
- * This interface can be implemented by different event types to categorize events.
+ * Trace prints messages of the simulation whose level is at least the current trace level.
+ * Messages that are filtered out should cost as little as possible: build expensive messages with a
+ * {@link Supplier} or a format and arguments, which are only evaluated when the message is printed,
+ * or check {@link #isEnabled(Level)} first on hot paths.
+ * The messages go to the console unless another sink is set, e.g. an {@link AsyncTraceSink} writing to a file.
  */
 public class Trace {
 
@@ -20,8 +26,14 @@ public class Trace {
     /**
      * Private static variable to hold the current trace level.
      * The trace level determines the verbosity of the output.
+     * Defaults to ERR, so engines that are used without a GUI stay quiet unless asked otherwise.
      */
-	private static Level traceLevel;
+	private static volatile Level traceLevel = Level.ERR;
+
+    /**
+     * Receives the printed messages, or null to print them to the console.
+     */
+	private static volatile Consumer<String> sink;
 
     /**
      * Sets the trace level for the simulation.
@@ -33,6 +45,25 @@ public class Trace {
 		traceLevel = lvl;
 	}
 
+    /**
+     * Tells whether messages of a level are printed. Hot paths can check this before building a message.
+     *
+     * @param lvl The level of the message.
+     * @return True if the level is greater than or equal to the current trace level.
+     */
+	public static boolean isEnabled(Level lvl){
+		return lvl.ordinal() >= traceLevel.ordinal();
+	}
+
+    /**
+     * Sets where the printed messages go.
+     *
+     * @param messageSink Receives every printed message, or null to print to the console.
+     */
+	public static void setSink(Consumer<String> messageSink){
+		sink = messageSink;
+	}
+
     /**
      * Prints a message to the console if the specified level is greater than or equal to the current trace level.
      *
@@ -40,8 +71,49 @@ public class Trace {
      * @param txt The message to be printed.
      */
 	public static void out(Level lvl, String txt){
-		if (lvl.ordinal() >= traceLevel.ordinal()){
+		if (isEnabled(lvl)){
+			write(txt);
+		}
+	}
+
+    /**
+     * Prints a message if the specified level is greater than or equal to the current trace level.
+     * The message is only built when it is printed.
+     *
+     * @param lvl The level of the message to be printed.
+     * @param txt Builds the message to be printed.
+     */
+	public static void out(Level lvl, Supplier<String> txt){
+		if (isEnabled(lvl)){
+			write(txt.get());
+		}
+	}
+
+    /**
+     * Prints a formatted message if the specified level is greater than or equal to the current trace level.
+     * The message is only formatted when it is printed.
+     *
+     * @param lvl    The level of the message to be printed.
+     * @param format The format of the message, see {@link String#format(String, Object...)}.
+     * @param args   The arguments of the format.
+     */
+	public static void out(Level lvl, String format, Object... args){
+		if (isEnabled(lvl)){
+			write(String.format(format, args));
+		}
+	}
+
+    /**
+     * Writes a message to the sink, or to the console if there is none.
+     *
+     * @param txt The message.
+     */
+	private static void write(String txt){
+		Consumer<String> messageSink = sink;
+		if (messageSink != null){
+			messageSink.accept(txt);
+		} else {
 			System.out.println(txt);
 		}
 	}
-}
\ No newline at end of file
+}
@@ -1,6 +1,6 @@
 package simu.model;
 
-import controller.Controller;
+import controller.IControllerMtoV;
 
 import simu.framework.Clock;
 import simu.framework.Trace;
@@ -8,17 +8,17 @@ import simu.framework.Trace;
 /**
  * The Customer class represents a customer in the simulation.
  * It contains information about the customer's arrival time, removal time, ID, and flight type (EU or non-EU).
- * The class also provides methods to report results and manage customer IDs.
+ * The class also provides methods to report results. The IDs are given by the {@link CustomerCounter} of the engine.
  */
 public class Customer {
     private double arrivalTime;
     private double removalTime;
     private int id;
-    private static int i = 1; // Static counter for Customer IDs
-    private static long sum = 0;
+    private final CustomerCounter counter; // Numbers the customers of the engine and keeps their mean time in system
     private boolean isEUFlight;
     private double totalWaitingTime = 0;
     private double startWaitingTime = 0;
+    private final Clock clock;
 
     /**
      * Initializes a Customer instance and determines whether the customer is on an EU flight.
@@ -27,16 +27,41 @@ public class Customer {
      * @param isEUFlight A numeric value indicating if the flight is an EU flight (1 for true, otherwise false).
      * @param controller The controller instance can be null in test environments.
      */
-    public Customer(long isEUFlight, Controller controller) {
-        id = i++;
+    public Customer(long isEUFlight, IControllerMtoV controller) {
+        this(isEUFlight, controller, Clock.getInstance());
+    }
+
+    /**
+     * Initializes a Customer instance whose times are read from the clock of a specific engine.
+     *
+     * @param isEUFlight A numeric value indicating if the flight is an EU flight (1 for true, otherwise false).
+     * @param controller The controller instance can be null in test environments.
+     * @param clock      The clock of the engine the customer belongs to.
+     */
+    public Customer(long isEUFlight, IControllerMtoV controller, Clock clock) {
+        this(isEUFlight, controller, clock, CustomerCounter.getInstance());
+    }
+
+    /**
+     * Initializes a Customer instance of a specific engine, with the engine's clock and customer counter.
+     *
+     * @param isEUFlight A numeric value indicating if the flight is an EU flight (1 for true, otherwise false).
+     * @param controller The controller instance can be null in test environments.
+     * @param clock      The clock of the engine the customer belongs to.
+     * @param counter    The customer counter of the engine, gives the ID.
+     */
+    public Customer(long isEUFlight, IControllerMtoV controller, Clock clock, CustomerCounter counter) {
+        this.counter = counter;
+        id = counter.nextId();
 
         this.isEUFlight = (isEUFlight == 1);
+        this.clock = clock;
 
-        arrivalTime = Clock.getInstance().getTime();
-        Trace.out(Trace.Level.INFO, "New customer #" + id + " arrived at  " + arrivalTime);
+        arrivalTime = clock.getTime();
+        Trace.out(Trace.Level.INFO, () -> "New customer #" + id + " arrived at  " + arrivalTime);
         // Show the line in the log area only if the controller is not null
         if (controller != null) {
-            controller.showLogArea("\nNew customer #" + id + " arrived at  " + String.format("%.2f", arrivalTime) + " (time units)");
+            controller.showLogArea("\nNew customer #" + id + " arrived at  " + twoDecimals(arrivalTime) + " (time units)");
         }
     }
 
@@ -101,38 +126,42 @@ public class Customer {
      *
      * @param controller The controller instance can be null in test environments.
      */
-    public void reportResults(Controller controller) {
-        // Log to Trace
-        Trace.out(Trace.Level.INFO, "\nCustomer #" + id + " ready! ");
-        Trace.out(Trace.Level.INFO, "Customer #" + id + " arrived: " + String.format("%.2f", arrivalTime) + " (time units)");
-        Trace.out(Trace.Level.INFO, "Customer #" + id + " removed: " + String.format("%.2f", removalTime) + " (time units)");
-        Trace.out(Trace.Level.INFO, "Customer #" + id + " stayed: " + String.format("%.2f",(removalTime - arrivalTime))+ " (time units)");
-        Trace.out(Trace.Level.INFO, "Customer #" + id + " flight type: " + (isEUFlight ? "EU flight" : "Non-EU flight"));
-
-        // Log to GUI only if the controller is not null
-        if (controller != null) {
-            controller.showLogArea("\nCustomer #" + id + " ready! ");
-            controller.showLogArea("Customer #" + id + " arrived: " +  String.format("%.2f", arrivalTime) + " (time units)");
-            controller.showLogArea("Customer #" + id + " removed: " + String.format("%.2f", removalTime) + " (time units)");
-            controller.showLogArea("Customer #" + id + " stayed: " + String.format("%.2f",(removalTime - arrivalTime))+ " (time units)");
-            controller.showLogArea("Customer #" + id + " flight type: " + (isEUFlight ? "EU flight" : "Non-EU flight"));
+    public void reportResults(IControllerMtoV controller) {
+        // Log to Trace, formatting the lines only if they are printed
+        if (Trace.isEnabled(Trace.Level.INFO)) {
+            Trace.out(Trace.Level.INFO, "\nCustomer #" + id + " ready! ");
+            Trace.out(Trace.Level.INFO, "Customer #%d arrived: %.2f (time units)", id, arrivalTime);
+            Trace.out(Trace.Level.INFO, "Customer #%d removed: %.2f (time units)", id, removalTime);
+            Trace.out(Trace.Level.INFO, "Customer #%d stayed: %.2f (time units)", id, removalTime - arrivalTime);
+            Trace.out(Trace.Level.INFO, "Customer #" + id + " flight type: " + (isEUFlight ? "EU flight" : "Non-EU flight"));
         }
 
-        sum += (long) (removalTime - arrivalTime);
-        double mean = (double) sum / id;
-        // Log mean to GUI only if the controller is not null
+        double mean = counter.addTimeInSystem(removalTime - arrivalTime);
+        // Log to GUI only if the controller is not null, all lines as one message
         if (controller != null) {
-            controller.showLogArea("Current mean of the customer service times: " + String.format("%.2f", mean) + " (time units)");
+            controller.showLogArea("\nCustomer #" + id + " ready! "
+                    + "\nCustomer #" + id + " arrived: " + twoDecimals(arrivalTime) + " (time units)"
+                    + "\nCustomer #" + id + " removed: " + twoDecimals(removalTime) + " (time units)"
+                    + "\nCustomer #" + id + " stayed: " + twoDecimals(removalTime - arrivalTime) + " (time units)"
+                    + "\nCustomer #" + id + " flight type: " + (isEUFlight ? "EU flight" : "Non-EU flight")
+                    + "\nCurrent mean of the customer service times: " + twoDecimals(mean) + " (time units)");
         }
     }
 
     /**
-     * Resets the static ID counter for the Customer class.
-     * This method should be called at the beginning of each new simulation.
+     * Formats a number with two decimals like {@code String.format("%.2f", x)}, but without parsing a format
+     * for every log line.
+     *
+     * @param x The number.
+     * @return The number rounded to two decimals.
      */
-    public static void resetIdCounter() {
-        i = 1;
-        sum = 0; // Also reset a sum when resetting ID
+    static String twoDecimals(double x) {
+        if (!(Math.abs(x) < 1e15)) {
+            return String.format("%.2f", x); // Infinite, NaN or too large for a long of hundredths
+        }
+        long hundredths = Math.round(Math.abs(x) * 100);
+        long fraction = hundredths % 100;
+        return (x < 0 && hundredths > 0 ? "-" : "") + hundredths / 100 + (fraction < 10 ? ".0" : ".") + fraction;
     }
 
     /**
@@ -140,7 +169,7 @@ public class Customer {
      * This method should be called when the customer starts waiting for service.
      */
     public void startWaiting() {
-        startWaitingTime = Clock.getInstance().getTime();
+        startWaitingTime = clock.getTime();
     }
 
     /**
@@ -149,11 +178,20 @@ public class Customer {
      */
     public void stopWaiting() {
         if (startWaitingTime > 0) { // Ensure startWaiting was called
-            totalWaitingTime += (Clock.getInstance().getTime() - startWaitingTime);
+            totalWaitingTime += (clock.getTime() - startWaitingTime);
             startWaitingTime = 0; // Reset for the next potential wait
         }
     }
 
+    /**
+     * Returns the time when the customer joined its current queue.
+     *
+     * @return The start of the current wait, or 0 if the customer is not waiting.
+     */
+    public double getStartWaitingTime() {
+        return startWaitingTime;
+    }
+
     /**
      * Returns the total waiting time for the customer.
      *
@@ -0,0 +1,59 @@
+package simu.model;
+
+/**
+ * CustomerCounter numbers the customers of one engine and keeps the running mean of their times in the system.
+ * Each engine owns its own counter, so the customer ids of a run do not depend on other engines running in the
+ * same JVM and resetting one engine does not renumber the customers of another.
+ * A shared default instance is still available for customers that are created without an engine.
+ * A counter is used by the thread of its engine only.
+ */
+public class CustomerCounter {
+    private static CustomerCounter instance;
+
+    private int nextId = 1;
+    private long reported;
+    private double sum;
+
+    /**
+     * Returns the shared default instance, used by customers that are created without an engine.
+     * Engines do not use this instance, they create their own counter.
+     *
+     * @return The shared default counter.
+     */
+    public static synchronized CustomerCounter getInstance() {
+        if (instance == null) {
+            instance = new CustomerCounter();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the id of a new customer.
+     *
+     * @return The next id, starting from 1.
+     */
+    public int nextId() {
+        return nextId++;
+    }
+
+    /**
+     * Adds the time in the system of a customer who has left.
+     *
+     * @param timeInSystem The time the customer spent in the system.
+     * @return The mean time in the system of all customers added so far.
+     */
+    public double addTimeInSystem(double timeInSystem) {
+        reported++;
+        sum += timeInSystem;
+        return sum / reported;
+    }
+
+    /**
+     * Starts the numbering at 1 again and forgets the times in the system, e.g. when the engine is reset.
+     */
+    public void reset() {
+        nextId = 1;
+        reported = 0;
+        sum = 0;
+    }
+}
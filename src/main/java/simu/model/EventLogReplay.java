@@ -0,0 +1,368 @@
+package simu.model;
+
+import simu.framework.EventLog;
+import simu.stats.Tally;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * EventLogReplay rebuilds the queue lengths and the main KPIs of a run from its event log, without running the model
+ * again. The log is read once from the start; every event tells which customer joined which service point or left
+ * the airport, so the number of customers at every service point is known after every event.
+ * <p>
+ * The queue length of a service point counts the customers in its queue including the one in service, like the
+ * queue lengths shown by the user interface. The statistics are restarted at a {@link EventType#WARM_UP} event,
+ * like in {@link MyEngine}; a warm-up period found by detection is not in the log and is not applied.
+ * <p>
+ * Usage: {@code EventLogReplay file [untilTime]} prints the KPIs and the queue lengths of a log.
+ */
+public class EventLogReplay {
+    private static final int ARRIVAL = EventType.ARR1.ordinal();
+    private static final int EU_EXIT = EventType.DEP3.ordinal();
+    private static final int WARM_UP = EventType.WARM_UP.ordinal();
+
+    private final Tally timeInSystem = new Tally();
+    private final Tally euTimeInSystem = new Tally();
+    private final Tally nonEuTimeInSystem = new Tally();
+    private long arrivals;
+    private double statisticsStart;
+    private double endTime;
+    private long events;
+
+    // The customers, by id minus the first id in the log
+    private long firstCustomer = -1;
+    private int[] location = new int[1024]; // Index + 1 of the service point the customer is at, 0 if none
+    private double[] arrivalTime = new double[1024];
+
+    // The queue length timelines, by service point index
+    private int[] lengths = new int[0];
+    private double[][] changeTimes = new double[0][];
+    private int[][] changeLengths = new int[0][];
+    private int[] changes = new int[0];
+    private double[] area = new double[0]; // Integral of the queue length over time since the statistics start
+    private double[] lastChange = new double[0];
+    private int[] maxLength = new int[0];
+
+    /**
+     * Replays a whole event log.
+     *
+     * @param log The event log.
+     * @return The replay.
+     */
+    public static EventLogReplay replay(EventLog log) {
+        return replay(log, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Replays the events of a log before a time, e.g. to see the state of the airport at that time.
+     *
+     * @param log   The event log.
+     * @param until The time up to which the events are replayed; events at this time or later are not.
+     * @return The replay.
+     */
+    public static EventLogReplay replay(EventLog log, double until) {
+        EventLogReplay replay = new EventLogReplay();
+        long end = log.indexOf(until);
+        for (long i = 0; i < end; i++) {
+            replay.apply(log.getTime(i), log.getType(i), log.getServicePoint(i), log.getCustomer(i));
+        }
+        return replay;
+    }
+
+    /**
+     * Applies one event.
+     *
+     * @param time         The time of the event.
+     * @param type         The number of the type of the event.
+     * @param servicePoint The service point the customer joined, or -1.
+     * @param customer     The id of the customer, or -1.
+     */
+    private void apply(double time, int type, int servicePoint, long customer) {
+        events++;
+        endTime = time;
+        if (type == WARM_UP) {
+            restartStatistics(time);
+        }
+        if (customer < 0) {
+            return;
+        }
+        if (firstCustomer < 0) {
+            firstCustomer = customer;
+        }
+        int c = customerSlot(customer);
+        if (type == ARRIVAL) {
+            arrivals++;
+            arrivalTime[c] = time;
+        }
+        if (location[c] > 0) {
+            changeLength(location[c] - 1, -1, time);
+        }
+        location[c] = servicePoint + 1;
+        if (servicePoint >= 0) {
+            changeLength(servicePoint, 1, time);
+        } else {
+            double spent = time - arrivalTime[c];
+            timeInSystem.add(spent);
+            (type == EU_EXIT ? euTimeInSystem : nonEuTimeInSystem).add(spent);
+        }
+    }
+
+    /**
+     * Returns the position of a customer in the customer arrays, growing them when needed.
+     *
+     * @param customer The id of the customer.
+     * @return The position.
+     */
+    private int customerSlot(long customer) {
+        long slot = customer - firstCustomer;
+        if (slot < 0 || slot >= Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("EventLogReplay: Customer " + customer + " is out of range.");
+        }
+        if (slot >= location.length) {
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(slot + 1, 2L * location.length));
+            location = Arrays.copyOf(location, capacity);
+            arrivalTime = Arrays.copyOf(arrivalTime, capacity);
+        }
+        return (int) slot;
+    }
+
+    /**
+     * Changes the queue length of a service point and adds the change to its timeline.
+     *
+     * @param servicePoint The index of the service point.
+     * @param delta        The change of the queue length.
+     * @param time         The time of the change.
+     */
+    private void changeLength(int servicePoint, int delta, double time) {
+        if (servicePoint >= lengths.length) {
+            growServicePoints(servicePoint + 1);
+        }
+        area[servicePoint] += lengths[servicePoint] * (time - lastChange[servicePoint]);
+        lastChange[servicePoint] = time;
+        lengths[servicePoint] += delta;
+        maxLength[servicePoint] = Math.max(maxLength[servicePoint], lengths[servicePoint]);
+        int n = changes[servicePoint];
+        if (n > 0 && changeTimes[servicePoint][n - 1] == time) {
+            changeLengths[servicePoint][n - 1] = lengths[servicePoint]; // Several changes at once, keep the last
+            return;
+        }
+        if (n == changeTimes[servicePoint].length) {
+            changeTimes[servicePoint] = Arrays.copyOf(changeTimes[servicePoint], 2 * n);
+            changeLengths[servicePoint] = Arrays.copyOf(changeLengths[servicePoint], 2 * n);
+        }
+        changeTimes[servicePoint][n] = time;
+        changeLengths[servicePoint][n] = lengths[servicePoint];
+        changes[servicePoint] = n + 1;
+    }
+
+    /**
+     * Makes room for more service points.
+     *
+     * @param count The number of service points.
+     */
+    private void growServicePoints(int count) {
+        int old = lengths.length;
+        lengths = Arrays.copyOf(lengths, count);
+        changeTimes = Arrays.copyOf(changeTimes, count);
+        changeLengths = Arrays.copyOf(changeLengths, count);
+        changes = Arrays.copyOf(changes, count);
+        area = Arrays.copyOf(area, count);
+        lastChange = Arrays.copyOf(lastChange, count);
+        maxLength = Arrays.copyOf(maxLength, count);
+        for (int i = old; i < count; i++) {
+            changeTimes[i] = new double[64];
+            changeLengths[i] = new int[64];
+            lastChange[i] = statisticsStart;
+        }
+    }
+
+    /**
+     * Starts the statistics anew at the end of the warm-up period. The customers in the airport are kept.
+     *
+     * @param time The end of the warm-up period.
+     */
+    private void restartStatistics(double time) {
+        statisticsStart = time;
+        timeInSystem.reset();
+        euTimeInSystem.reset();
+        nonEuTimeInSystem.reset();
+        arrivals = 0;
+        for (int i = 0; i < lengths.length; i++) {
+            area[i] = 0;
+            lastChange[i] = time;
+            maxLength[i] = lengths[i];
+        }
+    }
+
+    /**
+     * Returns the number of service points that appear in the log.
+     *
+     * @return The number of service points.
+     */
+    public int getServicePointCount() {
+        return lengths.length;
+    }
+
+    /**
+     * Returns the queue length of a service point at a time, from its timeline.
+     *
+     * @param servicePoint The index of the service point.
+     * @param time         The time.
+     * @return The number of customers at the service point after all events up to the time.
+     */
+    public int getQueueLength(int servicePoint, double time) {
+        if (servicePoint >= lengths.length) {
+            return 0;
+        }
+        int i = Arrays.binarySearch(changeTimes[servicePoint], 0, changes[servicePoint], time);
+        if (i < 0) {
+            i = -i - 2; // The last change before the time
+        }
+        return i < 0 ? 0 : changeLengths[servicePoint][i];
+    }
+
+    /**
+     * Returns the queue length of a service point after the last replayed event.
+     *
+     * @param servicePoint The index of the service point.
+     * @return The number of customers at the service point.
+     */
+    public int getQueueLength(int servicePoint) {
+        return servicePoint < lengths.length ? lengths[servicePoint] : 0;
+    }
+
+    /**
+     * Returns the time-weighted average queue length of a service point since the statistics start.
+     *
+     * @param servicePoint The index of the service point.
+     * @return The average queue length, 0 if no time has passed.
+     */
+    public double getAverageQueueLength(int servicePoint) {
+        if (servicePoint >= lengths.length || endTime <= statisticsStart) {
+            return 0;
+        }
+        double total = area[servicePoint] + lengths[servicePoint] * (endTime - lastChange[servicePoint]);
+        return total / (endTime - statisticsStart);
+    }
+
+    /**
+     * Returns the longest queue of a service point since the statistics start.
+     *
+     * @param servicePoint The index of the service point.
+     * @return The largest number of customers at the service point.
+     */
+    public int getMaxQueueLength(int servicePoint) {
+        return servicePoint < lengths.length ? maxLength[servicePoint] : 0;
+    }
+
+    /**
+     * Returns the number of customers who arrived since the statistics start.
+     *
+     * @return The number of arrivals.
+     */
+    public long getArrivals() {
+        return arrivals;
+    }
+
+    /**
+     * Returns the number of customers who left the airport since the statistics start.
+     *
+     * @return The number of serviced customers.
+     */
+    public long getServicedCustomers() {
+        return timeInSystem.getCount();
+    }
+
+    /**
+     * Returns the time in system of the customers who left the airport since the statistics start.
+     *
+     * @return The statistics of the time in system.
+     */
+    public Tally getTimeInSystem() {
+        return timeInSystem;
+    }
+
+    /**
+     * Returns the time in system of the customers who left through an EU gate.
+     *
+     * @return The statistics of the time in system at the EU gates.
+     */
+    public Tally getEuTimeInSystem() {
+        return euTimeInSystem;
+    }
+
+    /**
+     * Returns the time in system of the customers who left through a Non-EU gate.
+     *
+     * @return The statistics of the time in system at the Non-EU gates.
+     */
+    public Tally getNonEuTimeInSystem() {
+        return nonEuTimeInSystem;
+    }
+
+    /**
+     * Returns the number of customers who left the airport per time unit, between the statistics start and
+     * the last replayed event. The log does not know the simulation time, so this is slightly higher than the
+     * throughput of the run if the run went on after its last event.
+     *
+     * @return The throughput.
+     */
+    public double getThroughput() {
+        return endTime > statisticsStart ? getServicedCustomers() / (endTime - statisticsStart) : 0;
+    }
+
+    /**
+     * Returns the time of the last replayed event.
+     *
+     * @return The end time.
+     */
+    public double getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * Returns the start of the statistics, the end of the warm-up period if the log has one.
+     *
+     * @return The statistics start.
+     */
+    public double getStatisticsStart() {
+        return statisticsStart;
+    }
+
+    /**
+     * Returns the number of replayed events.
+     *
+     * @return The number of events.
+     */
+    public long getEvents() {
+        return events;
+    }
+
+    /**
+     * Prints the KPIs and the queue lengths of an event log.
+     *
+     * @param args The event log file and optionally the time up to which it is replayed.
+     * @throws IOException If the log cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: EventLogReplay file [untilTime]");
+            return;
+        }
+        double until = args.length > 1 ? Double.parseDouble(args[1]) : Double.POSITIVE_INFINITY;
+        try (EventLog log = new EventLog(Path.of(args[0]))) {
+            EventLogReplay replay = replay(log, until);
+            System.out.printf("Events: %d, from %.2f to %.2f%n", replay.getEvents(), replay.getStatisticsStart(), replay.getEndTime());
+            System.out.printf("Arrivals: %d, serviced customers: %d, throughput: %.5f%n",
+                    replay.getArrivals(), replay.getServicedCustomers(), replay.getThroughput());
+            System.out.printf("Average time in system: %.2f (EU %.2f, Non-EU %.2f)%n", replay.getTimeInSystem().getMean(),
+                    replay.getEuTimeInSystem().getMean(), replay.getNonEuTimeInSystem().getMean());
+            for (int i = 0; i < replay.getServicePointCount(); i++) {
+                System.out.printf("Service point %d: queue %d, average %.2f, max %d%n", i, replay.getQueueLength(i),
+                        replay.getAverageQueueLength(i), replay.getMaxQueueLength(i));
+            }
+        }
+    }
+}
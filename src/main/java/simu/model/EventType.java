@@ -9,5 +9,6 @@ import simu.framework.IEventType;
  */
 // Event types are defined by the requirements of the simulation model
 public enum EventType implements IEventType {
-	ARR1, DEP1, DEP2, DEP3, DEP4, DEP5;
+	ARR1, DEP1, DEP2, DEP3, DEP4, DEP5,
+	WARM_UP; // End of the warm-up period, the statistics are started anew
 }
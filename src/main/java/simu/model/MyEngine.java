@@ -1,18 +1,30 @@
 package simu.model;
 
-import controller.Controller;
 import controller.IControllerMtoV;
 import eduni.distributions.Bernoulli;
+import eduni.distributions.BufferedGenerator;
 import eduni.distributions.DiscreteGenerator;
+import eduni.distributions.Empirical;
+import eduni.distributions.Histogram;
+import eduni.distributions.InversionNormal;
 import eduni.distributions.Negexp;
 import eduni.distributions.Normal;
+import eduni.distributions.ParameterException;
+import eduni.distributions.StreamGenerator;
 import simu.framework.*;
+import simu.stats.BatchMeans;
+import simu.stats.ConfidenceInterval;
+import simu.stats.QuantileSketch;
+import simu.stats.Reservoir;
+import simu.stats.Tally;
+import simu.stats.WarmUpDetector;
 import database.ServicePointConfig;
 import eduni.distributions.Uniform;
 import eduni.distributions.ContinuousGenerator;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * MyEngine is the main simulation engine for the airport simulation.
@@ -25,7 +37,14 @@ public class MyEngine extends Engine implements IEngine {
     private ArrayList<ServicePoint> passportControlPoints;
     private ArrayList<ServicePoint> EUGates;
     private ArrayList<ServicePoint> NonEUGates;
+    // Shortest-queue routing structures, one per service point type
+    private ServicePointGroup checkinGroup;
+    private ServicePointGroup securityCheckGroup;
+    private ServicePointGroup passportControlGroup;
+    private ServicePointGroup EUGateGroup;
+    private ServicePointGroup NonEUGateGroup;
     private ArrivalProcess arrivalProcess;
+    private final CustomerCounter customerCounter = new CustomerCounter(); // Numbers the customers of this engine only
     private DiscreteGenerator euFlightGenerator;
     private int arrivalInterval;
     private HashMap<String, HashMap<String, Double>> graphData;
@@ -46,11 +65,42 @@ public class MyEngine extends Engine implements IEngine {
     private double averageEUGateServiceTime;
     private double averageNonEUGateServiceTime;
     private String selectedAirport;
+    private StreamGenerator streams; // Root of the named random number streams of all generators, null to use the default seeds
+    private SimulationResult simulationResult;
 
+    private final boolean visualising; // False when running headless without a user interface
+    private QueueLengthSnapshot queueLengths; // Latest queue lengths for the user interface, null when headless
     private boolean isRunning = true; // Flag to control running state
     private boolean isResetting = false; // Flag to control resetting state;
 
-    private List<Customer> servicedCustomers;
+    // Online statistics of the customers who have left, by exit gate type; the customers themselves are not kept
+    private static final int TIME_IN_SYSTEM_SAMPLE_SIZE = 1000;
+    private final Tally euTimeInSystem = new Tally();
+    private final Tally nonEuTimeInSystem = new Tally();
+    private final Tally euWaitingTime = new Tally();
+    private final Tally nonEuWaitingTime = new Tally();
+    private final QuantileSketch euTimeInSystemQuantiles = new QuantileSketch();
+    private final QuantileSketch nonEuTimeInSystemQuantiles = new QuantileSketch();
+    private HashMap<String, Double> waitingTimePercentiles;
+
+    // Warm-up: the statistics are reset at a fixed time, or when MSER-5 finds the time in system stationary
+    private static final int WARM_UP_CHECK_BATCHES = 20; // The detector is asked every 20 batches
+    private static final int WARM_UP_MIN_BATCHES = 40;
+    private double warmUpTime = 0;
+    private boolean detectWarmUp = false;
+    private WarmUpDetector warmUpDetector;
+    private int warmUpCheckedBatches;
+    private double statisticsStart = 0; // Time when the statistics were last started
+    private final Reservoir timeInSystemSample = new Reservoir(TIME_IN_SYSTEM_SAMPLE_SIZE, 1);
+
+    // Sequential stopping: the run ends before the simulation time once the batch means confidence intervals
+    // of the chosen KPIs are narrow enough
+    private static final int STOPPING_CHECK_INTERVAL = 1000; // Steps of the simulation between two checks
+    private final LinkedHashMap<String, BatchMeans> stoppingKpis = new LinkedHashMap<>();
+    private double targetRelativeHalfWidth;
+    private double stoppingConfidenceLevel = 0.95;
+    private int stepsSinceStoppingCheck;
+    private boolean stoppedEarly;
 
     /**
      * Constructor for MyEngine.
@@ -65,7 +115,53 @@ public class MyEngine extends Engine implements IEngine {
      * @param NonEUNum       The number of Non-EU gates.
      */
     public MyEngine(IControllerMtoV controller, int arrivalInterval, int checkinNum, int securityNum, int passportNum, int EUNum, int NonEUNum) { // NEW
+        this(controller, arrivalInterval, checkinNum, securityNum, passportNum, EUNum, NonEUNum, null);
+    }
+
+    /**
+     * Constructor for MyEngine with a seed for all random number generators.
+     * Two engines created with the same parameters and seed produce the same results,
+     * engines with different seeds can be used as independent replications.
+     * Every random source has its own stream named after it, e.g. the arrivals or the third check-in point,
+     * so engines with the same seed but different numbers of servers still see the same passengers.
+     *
+     * @param controller      The controller for managing the simulation.
+     * @param arrivalInterval  The interval between customer arrivals.
+     * @param checkinNum      The number of check-in points.
+     * @param securityNum     The number of security check points.
+     * @param passportNum     The number of passport control points.
+     * @param EUNum          The number of EU gates.
+     * @param NonEUNum       The number of Non-EU gates.
+     * @param seed           The seed of the root stream from which the streams of all generators of this engine are split.
+     */
+    public MyEngine(IControllerMtoV controller, int arrivalInterval, int checkinNum, int securityNum, int passportNum, int EUNum, int NonEUNum, long seed) {
+        this(controller, arrivalInterval, checkinNum, securityNum, passportNum, EUNum, NonEUNum, seed, false);
+    }
+
+    /**
+     * Constructor for MyEngine with a seed for all random number generators, optionally antithetic.
+     * The antithetic engine uses 1-u wherever the engine with the same seed uses the uniform number u,
+     * so the two runs are negatively correlated and their average varies less than that of two independent runs.
+     *
+     * @param controller      The controller for managing the simulation.
+     * @param arrivalInterval  The interval between customer arrivals.
+     * @param checkinNum      The number of check-in points.
+     * @param securityNum     The number of security check points.
+     * @param passportNum     The number of passport control points.
+     * @param EUNum          The number of EU gates.
+     * @param NonEUNum       The number of Non-EU gates.
+     * @param seed           The seed of the root stream from which the streams of all generators of this engine are named.
+     * @param antithetic     True to mirror all uniform numbers of the streams.
+     */
+    public MyEngine(IControllerMtoV controller, int arrivalInterval, int checkinNum, int securityNum, int passportNum, int EUNum, int NonEUNum, long seed, boolean antithetic) {
+        this(controller, arrivalInterval, checkinNum, securityNum, passportNum, EUNum, NonEUNum,
+                antithetic ? new StreamGenerator(seed).antithetic() : new StreamGenerator(seed));
+    }
+
+    private MyEngine(IControllerMtoV controller, int arrivalInterval, int checkinNum, int securityNum, int passportNum, int EUNum, int NonEUNum, StreamGenerator streams) {
         super(controller);
+        this.streams = streams;
+        this.visualising = controller.isVisualising();
         this.arrivalInterval = arrivalInterval; // Set the arrival interval
         // Initialize the main list for all service points
         servicePoints = new ArrayList<>();
@@ -76,7 +172,6 @@ public class MyEngine extends Engine implements IEngine {
         EUGates = new ArrayList<>();
         NonEUGates = new ArrayList<>();
         selectedAirport = ""; // Initialize a selected airport
-        servicedCustomers = new ArrayList<>(); // Add this line
 
         // Initialize each category with the specified number of service points
         initializeServicePoints(checkinPoints, checkinNum, 10, 10, EventType.DEP1);
@@ -91,7 +186,8 @@ public class MyEngine extends Engine implements IEngine {
         servicePoints.addAll(passportControlPoints);
         servicePoints.addAll(EUGates);
         servicePoints.addAll(NonEUGates);
-        arrivalProcess = new ArrivalProcess(new Negexp(arrivalInterval, 1), eventList, EventType.ARR1);
+        initializeGroups();
+        arrivalProcess = newArrivalProcess();
     }
 
     /**
@@ -100,9 +196,11 @@ public class MyEngine extends Engine implements IEngine {
      *
      * @param controller The controller for managing the simulation.
      * @param configs    The list of service point configurations.
+     * @throws IllegalArgumentException If the data file of an EMPIRICAL configuration is missing or cannot be read.
      */
     public MyEngine(IControllerMtoV controller, List<ServicePointConfig> configs) {
         super(controller);
+        this.visualising = controller.isVisualising();
         // Initialize the main list for all service points
         servicePoints = new ArrayList<>();
         checkinPoints = new ArrayList<>();
@@ -111,28 +209,11 @@ public class MyEngine extends Engine implements IEngine {
         EUGates = new ArrayList<>();
         NonEUGates = new ArrayList<>();
         arrivalInterval = 5; // Default can be overridden by config or UI
-        servicedCustomers = new ArrayList<>(); // Add this line
 
         // Map configs to service points
+        Map<String, Histogram> histograms = new HashMap<>(); // Data files shared by several configs are read once
         for (ServicePointConfig config : configs) {
             int count = config.getNumberOfServers();
-            ContinuousGenerator generator = null;
-            String dist = config.getDistributionType();
-            if ("NORMAL".equalsIgnoreCase(dist)) {
-                double mean = config.getMeanServiceTime();
-                double stddev = config.getParam1() != null ? config.getParam1() : 1.0;
-                generator = new Normal(mean, stddev * stddev); // Normal expects variance
-            } else if ("UNIFORM".equalsIgnoreCase(dist)) {
-                double min = config.getParam1() != null ? config.getParam1() : 1.0;
-                double max = config.getParam2() != null ? config.getParam2() : 2.0;
-                generator = new Uniform(min, max);
-            } else if ("NEGEXP".equalsIgnoreCase(dist) || "EXPONENTIAL".equalsIgnoreCase(dist)) {
-                double mean = config.getMeanServiceTime();
-                generator = new Negexp(mean);
-            } else {
-                // Default to Normal if unknown
-                generator = new Normal(config.getMeanServiceTime(), 1.0);
-            }
             EventType eventType;
             List<ServicePoint> targetList;
             switch (config.getPointType().toUpperCase()) {
@@ -160,17 +241,21 @@ public class MyEngine extends Engine implements IEngine {
                     continue; // Skip unknown types
             }
             for (int i = 0; i < count; i++) {
-                ServicePoint sp = new ServicePoint(generator, eventList, eventType);
+                // Every point samples its own generator, so its buffered service times continue that sequence
+                ContinuousGenerator generator = newServiceGenerator(config, config.getPointType() + "." + i, histograms);
+                ServicePoint sp = new ServicePoint(new BufferedGenerator(generator), eventList, eventType, clock);
                 targetList.add(sp);
                 servicePoints.add(sp);
             }
         }
+        initializeGroups();
         // Default to 5 if not set by configs
-        arrivalProcess = new ArrivalProcess(new Negexp(arrivalInterval, 1), eventList, EventType.ARR1);
+        arrivalProcess = newArrivalProcess();
     }
 
     /**
      * Method to initialize a specific category of service points.
+     * The service times of every point are sampled in blocks by a BufferedGenerator.
      *
      * @param pointList The list to store the service points.
      * @param count     The number of service points to initialize.
@@ -180,8 +265,138 @@ public class MyEngine extends Engine implements IEngine {
      */
     private void initializeServicePoints(List<ServicePoint> pointList, int count, double mean, double variance, EventType eventType) {
         for (int i = 0; i < count; i++) {
-            pointList.add(new ServicePoint(new Normal(mean, variance), eventList, eventType));
+            pointList.add(new ServicePoint(new BufferedGenerator(newNormal(mean, variance, eventType + "." + i)), eventList, eventType, clock));
+        }
+    }
+
+    /**
+     * Builds the shortest-queue routing groups from the lists of service points.
+     */
+    private void initializeGroups() {
+        checkinGroup = groupOf(checkinPoints);
+        securityCheckGroup = groupOf(securityCheckPoints);
+        passportControlGroup = groupOf(passportControlPoints);
+        EUGateGroup = groupOf(EUGates);
+        NonEUGateGroup = groupOf(NonEUGates);
+    }
+
+    /**
+     * Creates a routing group containing the given service points.
+     *
+     * @param points The service points of one type.
+     * @return The group.
+     */
+    private static ServicePointGroup groupOf(List<ServicePoint> points) {
+        ServicePointGroup group = new ServicePointGroup();
+        for (ServicePoint point : points) {
+            group.add(point);
+        }
+        return group;
+    }
+
+    /**
+     * Creates the arrival process. Its events are taken from the event pool of the engine.
+     *
+     * @return The arrival process.
+     */
+    private ArrivalProcess newArrivalProcess() {
+        ArrivalProcess process = new ArrivalProcess(newArrivalGenerator(), eventList, EventType.ARR1, clock);
+        process.setEventPool(eventPool);
+        return process;
+    }
+
+    /**
+     * Creates the service time generator of one service point of a configuration.
+     * Unknown distributions default to Normal.
+     *
+     * @param config     The service point configuration.
+     * @param name       The name of the service point, names its random number stream.
+     * @param histograms The histograms read so far by data file, shared by the points of EMPIRICAL configurations.
+     * @return The new generator.
+     * @throws IllegalArgumentException If the data file of an EMPIRICAL configuration is missing or cannot be read.
+     */
+    private ContinuousGenerator newServiceGenerator(ServicePointConfig config, String name, Map<String, Histogram> histograms) {
+        String dist = config.getDistributionType();
+        if ("NORMAL".equalsIgnoreCase(dist)) {
+            double mean = config.getMeanServiceTime();
+            double stddev = config.getParam1() != null ? config.getParam1() : 1.0;
+            return newNormal(mean, stddev * stddev, name); // Normal expects variance
+        } else if ("UNIFORM".equalsIgnoreCase(dist)) {
+            double min = config.getParam1() != null ? config.getParam1() : 1.0;
+            double max = config.getParam2() != null ? config.getParam2() : 2.0;
+            return streams != null ? new Uniform(min, max, serviceStream(name)) : new Uniform(min, max);
+        } else if ("NEGEXP".equalsIgnoreCase(dist) || "EXPONENTIAL".equalsIgnoreCase(dist)) {
+            double mean = config.getMeanServiceTime();
+            return streams != null ? new Negexp(mean, serviceStream(name)) : new Negexp(mean);
+        } else if ("EMPIRICAL".equalsIgnoreCase(dist)) {
+            Histogram histogram = loadHistogram(config, histograms);
+            return streams != null ? new Empirical(histogram, serviceStream(name)) : new Empirical(histogram);
+        }
+        // Default to Normal if unknown
+        return newNormal(config.getMeanServiceTime(), 1.0, name);
+    }
+
+    /**
+     * Reads the recorded service times of an EMPIRICAL configuration into a histogram.
+     * The number of bins is given by param1 and defaults to {@link Histogram#DEFAULT_BINS}.
+     *
+     * @param config     The service point configuration.
+     * @param histograms The histograms read so far by data file, the new one is added.
+     * @return The histogram.
+     * @throws IllegalArgumentException If the configuration has no data file or it cannot be read.
+     */
+    private Histogram loadHistogram(ServicePointConfig config, Map<String, Histogram> histograms) {
+        String file = config.getDataFile();
+        if (file == null) {
+            throw new IllegalArgumentException("MyEngine: EMPIRICAL " + config.getPointType() + " has no data file.");
+        }
+        int bins = config.getParam1() != null ? config.getParam1().intValue() : Histogram.DEFAULT_BINS;
+        String key = file + "#" + bins;
+        Histogram histogram = histograms.get(key);
+        if (histogram == null) {
+            try {
+                histogram = Histogram.load(Path.of(file), bins);
+            } catch (IOException | ParameterException e) {
+                throw new IllegalArgumentException("MyEngine: Cannot read the data file " + file + " of EMPIRICAL "
+                        + config.getPointType() + " (" + e.getMessage() + ").", e);
+            }
+            histograms.put(key, histogram);
         }
+        return histogram;
+    }
+
+    /**
+     * Creates a Normal distributed service time generator.
+     * With a root stream it gets its own named stream and samples by inversion,
+     * which uses one uniform number per service time and mirrors it in antithetic runs.
+     *
+     * @param mean     The mean of the distribution.
+     * @param variance The variance of the distribution.
+     * @param name     The name of the service point or of its type.
+     * @return The new generator.
+     */
+    private ContinuousGenerator newNormal(double mean, double variance, String name) {
+        return streams != null ? new InversionNormal(mean, variance, serviceStream(name)) : new Normal(mean, variance);
+    }
+
+    /**
+     * Returns the stream of the service times of a service point, derived from the root stream and the name.
+     *
+     * @param name The name of the service point or of its type.
+     * @return The new stream.
+     */
+    private StreamGenerator serviceStream(String name) {
+        return streams.stream("service." + name);
+    }
+
+    /**
+     * Creates the generator for the time between customer arrivals.
+     * Like the service times, the arrival times are sampled in blocks.
+     *
+     * @return The new generator.
+     */
+    private ContinuousGenerator newArrivalGenerator() {
+        return new BufferedGenerator(streams != null ? new Negexp(arrivalInterval, streams.stream("arrivals")) : new Negexp(arrivalInterval, 1));
     }
 
     /**
@@ -191,6 +406,153 @@ public class MyEngine extends Engine implements IEngine {
     @Override
     protected void initialization() {
         arrivalProcess.generateNext();
+        if (visualising) {
+            queueLengths = new QueueLengthSnapshot(checkinPoints.size(), securityCheckPoints.size(),
+                    passportControlPoints.size(), EUGates.size(), NonEUGates.size());
+            controller.setQueueLengthSnapshot(queueLengths);
+        }
+        statisticsStart = 0;
+        warmUpDetector = null;
+        warmUpCheckedBatches = 0;
+        stoppingKpis.values().forEach(BatchMeans::reset);
+        stepsSinceStoppingCheck = 0;
+        stoppedEarly = false;
+        if (warmUpTime > 0) {
+            eventList.add(new Event(EventType.WARM_UP, warmUpTime, null));
+        } else if (detectWarmUp) {
+            warmUpDetector = new WarmUpDetector();
+        }
+    }
+
+    /**
+     * Sets a fixed warm-up period. When it ends, all statistics are started anew while the simulation continues,
+     * so the results are not biased by the empty airport at the start.
+     *
+     * @param warmUpTime The length of the warm-up period, 0 for none.
+     */
+    public void setWarmUpTime(double warmUpTime) {
+        this.warmUpTime = warmUpTime;
+    }
+
+    /**
+     * Sets whether the end of the warm-up period is detected automatically, unless a fixed warm-up time is set.
+     * The times in system of the departing customers are batched in fives; once the MSER-5 truncation point lies
+     * inside the first half of them, all statistics are started anew while the simulation continues.
+     *
+     * @param detectWarmUp True to detect the warm-up period.
+     */
+    public void setWarmUpDetection(boolean detectWarmUp) {
+        this.detectWarmUp = detectWarmUp;
+    }
+
+    /**
+     * Sets a sequential stopping rule: the simulation stops as soon as the confidence interval of every given KPI,
+     * computed with batch means from the observations of this run, is narrower than the target relative to its
+     * estimate. The simulation time remains the longest time the simulation runs. The intervals are computed
+     * from the statistics after the warm-up period.
+     * <p>
+     * The supported KPIs are {@link SimulationResult#AVERAGE_TIME_IN_SYSTEM}, {@link SimulationResult#AVERAGE_WAITING_TIME}
+     * and the 95th percentile of the waiting time at a service point type, {@link SimulationResult#WAITING_TIME_P95}
+     * followed by "Check-in", "Security", "Passport", "EU Gate" or "Non-EU Gate".
+     *
+     * @param relativeHalfWidth The target of the half-width relative to the estimate, e.g. 0.05 for 5%.
+     * @param confidenceLevel   The confidence level of the intervals, e.g. 0.95.
+     * @param kpis              The KPIs whose intervals must reach the target, none to run until the simulation time.
+     */
+    public void setStoppingRule(double relativeHalfWidth, double confidenceLevel, String... kpis) {
+        if (!(relativeHalfWidth > 0) || !(confidenceLevel > 0 && confidenceLevel < 1)) {
+            throw new IllegalArgumentException("MyEngine: The relative half-width must be positive and the confidence level between 0 and 1.");
+        }
+        for (String kpi : stoppingKpis.keySet()) {
+            if (kpi.startsWith(SimulationResult.WAITING_TIME_P95)) {
+                servicePointsOf(kpi.substring(SimulationResult.WAITING_TIME_P95.length())).forEach(sp -> sp.setWaitingTimeListener(null));
+            }
+        }
+        stoppingKpis.clear();
+        for (String kpi : kpis) {
+            if (kpi.equals(SimulationResult.AVERAGE_TIME_IN_SYSTEM) || kpi.equals(SimulationResult.AVERAGE_WAITING_TIME)) {
+                stoppingKpis.put(kpi, new BatchMeans());
+            } else if (kpi.startsWith(SimulationResult.WAITING_TIME_P95)) {
+                BatchMeans waitingTimes = new BatchMeans(BatchMeans.DEFAULT_BATCHES, 0.95);
+                servicePointsOf(kpi.substring(SimulationResult.WAITING_TIME_P95.length())).forEach(sp -> sp.setWaitingTimeListener(waitingTimes::add));
+                stoppingKpis.put(kpi, waitingTimes);
+            } else {
+                throw new IllegalArgumentException("MyEngine: The stopping rule does not support the KPI " + kpi + ".");
+            }
+        }
+        targetRelativeHalfWidth = relativeHalfWidth;
+        stoppingConfidenceLevel = confidenceLevel;
+    }
+
+    /**
+     * Returns the service points of a type.
+     *
+     * @param key The name of the type used in the simulation result, e.g. "Security".
+     * @return The service points of the type.
+     */
+    private List<ServicePoint> servicePointsOf(String key) {
+        switch (key) {
+            case "Check-in": return checkinPoints;
+            case "Security": return securityCheckPoints;
+            case "Passport": return passportControlPoints;
+            case "EU Gate": return EUGates;
+            case "Non-EU Gate": return NonEUGates;
+            default: throw new IllegalArgumentException("MyEngine: Unknown service point type " + key + ".");
+        }
+    }
+
+    /**
+     * Tells whether the confidence intervals of the KPIs of the stopping rule have reached the target.
+     * The intervals are only computed every {@value #STOPPING_CHECK_INTERVAL} steps and never during the warm-up period.
+     *
+     * @return True to stop the simulation now.
+     */
+    @Override
+    protected boolean isPrecise() {
+        if (stoppingKpis.isEmpty() || ++stepsSinceStoppingCheck < STOPPING_CHECK_INTERVAL) {
+            return false;
+        }
+        stepsSinceStoppingCheck = 0;
+        if (warmUpDetector != null || clock.getTime() < warmUpTime) {
+            return false;
+        }
+        for (BatchMeans batchMeans : stoppingKpis.values()) {
+            if (!batchMeans.isPrecise(targetRelativeHalfWidth, stoppingConfidenceLevel)) {
+                return false;
+            }
+        }
+        stoppedEarly = true;
+        return true;
+    }
+
+    /**
+     * Returns the time when the statistics of the results were started, the end of the warm-up period.
+     *
+     * @return The start of the statistics, 0 if there was no warm-up period.
+     */
+    public double getStatisticsStart() {
+        return statisticsStart;
+    }
+
+    /**
+     * Starts all statistics anew at the current time. The customers in the airport and the events are kept.
+     */
+    private void resetStatistics() {
+        statisticsStart = clock.getTime();
+        totalEUServicedCustomer = 0;
+        totalNonEUServicedCustomer = 0;
+        euTimeInSystem.reset();
+        nonEuTimeInSystem.reset();
+        euWaitingTime.reset();
+        nonEuWaitingTime.reset();
+        euTimeInSystemQuantiles.reset();
+        nonEuTimeInSystemQuantiles.reset();
+        timeInSystemSample.reset();
+        stoppingKpis.values().forEach(BatchMeans::reset);
+        for (ServicePoint sp : servicePoints) {
+            sp.resetStatistics();
+        }
+        Trace.out(Trace.Level.INFO, "Warm-up ended at " + statisticsStart + ", statistics restarted.");
     }
 
     /**
@@ -208,24 +570,30 @@ public class MyEngine extends Engine implements IEngine {
         Customer a; // Temporary variable to hold the customer being processed.
 
         switch ((EventType) t.getType()) {
+            case WARM_UP: // End of the fixed warm-up period.
+                resetStatistics();
+                break;
+
             case ARR1: // Customer arrival event.
                 // Find the check-in point with the shortest queue.
-                ServicePoint checkinPoint = Collections.min(checkinPoints);
+                ServicePoint checkinPoint = checkinGroup.shortest();
                 // Add a new customer to the chosen check-in point queue.
                 // Generates a value of either 1 or 0 using the Bernoulli distribution and passes it as a parameter to create a new Customer object
-                checkinPoint.addQueue(new Customer(euFlightGenerator.sample(), (Controller) controller));
+                a = new Customer(euFlightGenerator.sample(), customerLogController(), clock, customerCounter);
+                checkinPoint.addQueue(a);
+                recordCustomer(a.getId(), checkinPoint);
                 arrivalProcess.generateNext();
-                controller.visualiseCustomer(); // Visualize the customer arrival
-                updateQueueLengths(); // Update queue lengths after arrival
+                updateQueueLengths(); // Update queue lengths after arrival, the view shows the arrival from them
                 break;
 
             case DEP1: // Check-in completion event.
                 // Remove the customer from the current check-in queue.
                 a = t.getServicePoint().removeQueue();
                 // Find the security check point with the shortest queue
-                ServicePoint securityCheckPoint = Collections.min(securityCheckPoints);
+                ServicePoint securityCheckPoint = securityCheckGroup.shortest();
                 // Move the customer to the security check queue.
                 securityCheckPoint.addQueue(a);
+                recordCustomer(a.getId(), securityCheckPoint);
                 updateQueueLengths(); // Update queue lengths after departure and arrival
                 break;
 
@@ -235,12 +603,14 @@ public class MyEngine extends Engine implements IEngine {
                 // Determine the next service point based on the customer's flight type.
                 if (a.getIsEUFlight()) {
                     // Find the EU gate with the shortest queue and move the customer there.
-                    ServicePoint EUGate = Collections.min(EUGates);
+                    ServicePoint EUGate = EUGateGroup.shortest();
                     EUGate.addQueue(a);
+                    recordCustomer(a.getId(), EUGate);
                 } else {
                     // Find the passport control point with the shortest queue for Non-EU flights.
-                    ServicePoint passportControlPoint = Collections.min(passportControlPoints);
+                    ServicePoint passportControlPoint = passportControlGroup.shortest();
                     passportControlPoint.addQueue(a);
+                    recordCustomer(a.getId(), passportControlPoint);
                 }
                 updateQueueLengths(); // Update queue lengths
                 break;
@@ -248,10 +618,11 @@ public class MyEngine extends Engine implements IEngine {
             case DEP3:// EU gate processing event.
                 // Remove the customer from the EU gate queue.
                 a = t.getServicePoint().removeQueue();
-                a.setRemovalTime(Clock.getInstance().getTime());
+                a.setRemovalTime(clock.getTime());
+                recordCustomer(a.getId(), null);
                 totalEUServicedCustomer += 1;
-                servicedCustomers.add(a); // Add to the tracked customers
-                a.reportResults((Controller) controller);
+                recordExit(a, euTimeInSystem, euTimeInSystemQuantiles, euWaitingTime);
+                a.reportResults(customerLogController());
                 updateQueueLengths(); // Update queue lengths
                 break;
 
@@ -259,38 +630,103 @@ public class MyEngine extends Engine implements IEngine {
                 // Remove the customer from the passport control queue.
                 a = t.getServicePoint().removeQueue();
                 // Find the Non-EU gate with the shortest queue and move the customer there.
-                ServicePoint NonEUGate = Collections.min(NonEUGates);
+                ServicePoint NonEUGate = NonEUGateGroup.shortest();
                 NonEUGate.addQueue(a);
+                recordCustomer(a.getId(), NonEUGate);
                 updateQueueLengths(); // Update queue lengths
                 break;
 
             case DEP5:// Non-EU gate processing event.
                 // Remove the customer from the Non-EU gate queue.
                 a = t.getServicePoint().removeQueue();
-                a.setRemovalTime(Clock.getInstance().getTime());
+                a.setRemovalTime(clock.getTime());
+                recordCustomer(a.getId(), null);
                 totalNonEUServicedCustomer += 1;
-                servicedCustomers.add(a); // Add to the tracked customers
-                a.reportResults((Controller) controller);
+                recordExit(a, nonEuTimeInSystem, nonEuTimeInSystemQuantiles, nonEuWaitingTime);
+                a.reportResults(customerLogController());
                 updateQueueLengths(); // Update queue lengths
                 break;
         }
     }
 
+    /**
+     * Adds the times of a customer who has left the airport to the statistics of its exit gate type.
+     *
+     * @param customer              The customer, with its removal time set.
+     * @param timeInSystem          The statistics of the time in system at the exit gate type.
+     * @param timeInSystemQuantiles The distribution of the time in system at the exit gate type.
+     * @param waitingTime           The statistics of the waiting time at the exit gate type.
+     */
+    private void recordExit(Customer customer, Tally timeInSystem, QuantileSketch timeInSystemQuantiles, Tally waitingTime) {
+        double time = customer.getTotalTimeInSystem();
+        timeInSystem.add(time);
+        timeInSystemQuantiles.add(time);
+        waitingTime.add(customer.getTotalWaitingTime());
+        timeInSystemSample.add(time);
+        if (!stoppingKpis.isEmpty()) {
+            BatchMeans batchMeans = stoppingKpis.get(SimulationResult.AVERAGE_TIME_IN_SYSTEM);
+            if (batchMeans != null) {
+                batchMeans.add(time);
+            }
+            batchMeans = stoppingKpis.get(SimulationResult.AVERAGE_WAITING_TIME);
+            if (batchMeans != null) {
+                batchMeans.add(customer.getTotalWaitingTime());
+            }
+        }
+        if (warmUpDetector != null) {
+            warmUpDetector.add(time);
+            int batches = warmUpDetector.getBatches();
+            if (batches != warmUpCheckedBatches && batches % WARM_UP_CHECK_BATCHES == 0) {
+                warmUpCheckedBatches = batches;
+                if (warmUpDetector.isWarmedUp(WARM_UP_MIN_BATCHES)) {
+                    warmUpDetector = null;
+                    resetStatistics();
+                }
+            }
+        }
+    }
+
     /**
      * Updates the queue lengths for various service points in the airport simulation.
-     * This method gathers the queue lengths from different service points and passes
-     * them to the controller for updating the view.
+     * The lengths are written into the snapshot the view reads once per frame,
+     * so nothing is allocated or sent to the view per event.
      */
     private void updateQueueLengths() {
-        List<List<Integer>> queueLengths = new ArrayList<>();
-        // Collect queue lengths from different service points
-        queueLengths.add(checkinPoints.stream().map(ServicePoint::getQueueLength).collect(Collectors.toList()));
-        queueLengths.add(securityCheckPoints.stream().map(ServicePoint::getQueueLength).collect(Collectors.toList()));
-        queueLengths.add(passportControlPoints.stream().map(ServicePoint::getQueueLength).collect(Collectors.toList()));
-        queueLengths.add(EUGates.stream().map(ServicePoint::getQueueLength).collect(Collectors.toList()));
-        queueLengths.add(NonEUGates.stream().map(ServicePoint::getQueueLength).collect(Collectors.toList()));
+        if (queueLengths == null) {
+            return; // Nobody is watching the queues in headless mode
+        }
+        queueLengths.beginUpdate();
+        int index = 0;
+        index = writeQueueLengths(checkinPoints, index);
+        index = writeQueueLengths(securityCheckPoints, index);
+        index = writeQueueLengths(passportControlPoints, index);
+        index = writeQueueLengths(EUGates, index);
+        writeQueueLengths(NonEUGates, index);
+        queueLengths.endUpdate();
+    }
+
+    /**
+     * Writes the queue lengths of the service points of one type into the snapshot.
+     *
+     * @param sp    List of service points.
+     * @param index The number of the first service point in the snapshot.
+     * @return The number of the service point after the last one.
+     */
+    private int writeQueueLengths(ArrayList<ServicePoint> sp, int index) {
+        for (ServicePoint servicePoint : sp) {
+            queueLengths.set(index++, servicePoint.getQueueLength());
+        }
+        return index;
+    }
 
-        controller.updateQueueLengths(queueLengths); // Call through the controller
+    /**
+     * Returns the controller that customers log their progress to.
+     * In headless mode this is null, so customers skip formatting log lines nobody reads.
+     *
+     * @return The controller, or null when running headless.
+     */
+    private IControllerMtoV customerLogController() {
+        return visualising ? controller : null;
     }
 
     /**
@@ -298,36 +734,63 @@ public class MyEngine extends Engine implements IEngine {
      */
     @Override
     protected void results() {
-        controller.showEndTime(Clock.getInstance().getTime());
+        controller.showEndTime(clock.getTime());
         updateQueueLengths(); // Final update
+        simulationResult = new SimulationResult();
 
         // Calculate time metrics
         String averageSystemTime = getAverageTimeInSystem();
+        Tally timeInSystem = getTimeInSystem();
+        Tally waitingTime = new Tally();
+        waitingTime.merge(euWaitingTime);
+        waitingTime.merge(nonEuWaitingTime);
+        simulationResult.put(SimulationResult.AVERAGE_TIME_IN_SYSTEM, timeInSystem.getMean());
+        simulationResult.put(SimulationResult.EU_AVERAGE_TIME_IN_SYSTEM, euTimeInSystem.getMean());
+        simulationResult.put(SimulationResult.NON_EU_AVERAGE_TIME_IN_SYSTEM, nonEuTimeInSystem.getMean());
+        simulationResult.put(SimulationResult.MAX_TIME_IN_SYSTEM, timeInSystem.getCount() > 0 ? timeInSystem.getMax() : 0);
+        simulationResult.put(SimulationResult.AVERAGE_WAITING_TIME, waitingTime.getMean());
 
         // Parse values for calculation
-        System.out.println("\nAverage customer total time in system: " + averageSystemTime);
+        Trace.out(Trace.Level.INFO, "\nAverage customer total time in system: " + averageSystemTime);
 
-        System.out.println("\nTotal serviced customers tracked: " + servicedCustomers.size());
-        System.out.println("Total serviced customers through EU gate: " + totalEUServicedCustomer);
-        System.out.println("Average customer time in system: " + averageSystemTime);
+        Trace.out(Trace.Level.INFO, "\nTotal serviced customers tracked: " + timeInSystem.getCount());
+        Trace.out(Trace.Level.INFO, "Total serviced customers through EU gate: " + totalEUServicedCustomer);
+        Trace.out(Trace.Level.INFO, "Average customer time in system: " + averageSystemTime);
 
         // Print the final results to the console and log them
-        System.out.println("\nSimulation ended.");
+        Trace.out(Trace.Level.INFO, "\nSimulation ended.");
 
         // Log the final results
         String results = "Simulation ended.\n\n";
         results += "Selected airport: " + selectedAirport + "\n\n";
+        if (statisticsStart > 0) {
+            results += "Statistics collected after the warm-up period ended at: " + roundToTwoDecimals(statisticsStart) + " (time units)\n\n";
+        }
+        simulationResult.put(SimulationResult.WARM_UP_TIME, statisticsStart);
+        if (stoppedEarly) {
+            results += "Simulation stopped at " + roundToTwoDecimals(clock.getTime()) + " (time units), when the "
+                    + Math.round(stoppingConfidenceLevel * 100) + "% confidence intervals were within "
+                    + targetRelativeHalfWidth * 100 + "% of the estimates\n\n";
+        }
+        simulationResult.put(SimulationResult.END_TIME, getEndTime());
+        stoppingKpis.forEach((kpi, batchMeans) -> {
+            ConfidenceInterval interval = batchMeans.getConfidenceInterval(stoppingConfidenceLevel);
+            simulationResult.put(SimulationResult.RELATIVE_HALF_WIDTH + kpi, interval.getRelativeHalfWidth());
+        });
         // Add average waiting time
         results += "Average customer time in the system: " + averageSystemTime + " (time units)\n\n";
         // Calculate the total number of serviced customers
-        System.out.println("Final count of passengers who exited through the EU gate: " + totalEUServicedCustomer);
-        System.out.println("Final count of passengers who exited through the Non-EU gate: " + totalNonEUServicedCustomer);
+        Trace.out(Trace.Level.INFO, "Final count of passengers who exited through the EU gate: " + totalEUServicedCustomer);
+        Trace.out(Trace.Level.INFO, "Final count of passengers who exited through the Non-EU gate: " + totalNonEUServicedCustomer);
         results += "Final count of passengers who exited through the EU gate: " + totalEUServicedCustomer + "\n\n";
         results += "Final count of passengers who exited through the Non-EU gate: " + totalNonEUServicedCustomer + "\n\n";
         // Calculate the total number of serviced customers
         totalServicedCustomer = totalEUServicedCustomer + totalNonEUServicedCustomer;
-        System.out.println("Final total count of passengers who exited through gates: " + totalServicedCustomer);
+        Trace.out(Trace.Level.INFO, "Final total count of passengers who exited through gates: " + totalServicedCustomer);
         results += "Final total count of passengers who exited through gates: " + totalServicedCustomer + "\n\n";
+        simulationResult.put(SimulationResult.SERVICED_CUSTOMERS, totalServicedCustomer);
+        simulationResult.put(SimulationResult.EU_SERVICED_CUSTOMERS, totalEUServicedCustomer);
+        simulationResult.put(SimulationResult.NON_EU_SERVICED_CUSTOMERS, totalNonEUServicedCustomer);
         // Calculate the average service times for different service points
         calculateAverageServiceTimes();
         results += "Checkin-point average service time: " + averageCheckinServiceTime + " (time units) \n\n";
@@ -342,9 +805,21 @@ public class MyEngine extends Engine implements IEngine {
         results += "Passport control usage ratio: " + passportControlPointUsageRatio + "%\n\n";
         results += "EU gate usage ratio: " + EUGateUsageRatio + "%\n\n";
         results += "Non-EU gate usage ratio: " + NonEUGateUsageRatio + "%\n\n";
+        // Time-weighted queue lengths of the service points
+        results += recordQueueStatistics();
+        // Calculate the 95th percentiles of the waiting times at the service points and of the times in system
+        calculateWaitingTimePercentiles();
+        results += "Checkin-point 95th percentile waiting time: " + waitingTimePercentiles.get("Check-in") + " (time units)\n\n";
+        results += "Security check 95th percentile waiting time: " + waitingTimePercentiles.get("Security") + " (time units)\n\n";
+        results += "Passport control 95th percentile waiting time: " + waitingTimePercentiles.get("Passport") + " (time units)\n\n";
+        results += "EU gate 95th percentile waiting time: " + waitingTimePercentiles.get("EU Gate") + " (time units)\n\n";
+        results += "Non-EU gate 95th percentile waiting time: " + waitingTimePercentiles.get("Non-EU Gate") + " (time units)\n\n";
+        results += "EU passengers' 95th percentile time in the system: " + recordTimeInSystemPercentile(euTimeInSystemQuantiles, "EU") + " (time units)\n\n";
+        results += "Non-EU passengers' 95th percentile time in the system: " + recordTimeInSystemPercentile(nonEuTimeInSystemQuantiles, "Non-EU") + " (time units)\n\n";
         // Calculate the service throughput
         calculateServiceThroughput();
-        System.out.println("The service throughput is " + serviceThroughput + " passengers per time unit.");
+        simulationResult.put(SimulationResult.THROUGHPUT, serviceThroughput);
+        Trace.out(Trace.Level.INFO, "The service throughput is " + serviceThroughput + " passengers per time unit.");
         results += "The service throughput is " + serviceThroughput + " passengers per time unit." + "\n\n";
 
         // Print the results to the console
@@ -357,6 +832,7 @@ public class MyEngine extends Engine implements IEngine {
         graphData = new HashMap<>();
         graphData.put("usageRatio", servicePointsUsageRatio);
         graphData.put("averageServiceTime", averageServiceTimes);
+        graphData.put("waitingTimeP95", waitingTimePercentiles);
 
         // Make the external view button clickable by setting disabling to false
         controller.setExternalViewButton();
@@ -395,7 +871,7 @@ public class MyEngine extends Engine implements IEngine {
     @Override
     public void setArrivalInterval(int arrivalInterval) {
         this.arrivalInterval = arrivalInterval;
-        arrivalProcess.setGenerator(new Negexp(arrivalInterval, 1));
+        arrivalProcess.setGenerator(newArrivalGenerator());
     }
 
     /**
@@ -409,7 +885,7 @@ public class MyEngine extends Engine implements IEngine {
      */
     @Override
     public void setEUFlightPercentage(double percentage) {
-        euFlightGenerator = new Bernoulli(percentage);
+        euFlightGenerator = streams != null ? new Bernoulli(percentage, streams.stream("euFlights")) : new Bernoulli(percentage);
     }
 
     /**
@@ -428,46 +904,151 @@ public class MyEngine extends Engine implements IEngine {
      */
     private void calculateServiceTimesUsageRatio() {
         servicePointsUsageRatio = new HashMap<>();
-        checkpointUsageRatio = roundToTwoDecimals(calculateUsageRatio(checkinPoints, "Checkin-point"));
-        servicePointsUsageRatio.put("Check-in", checkpointUsageRatio);
-        securityCheckpointUsageRatio = roundToTwoDecimals(calculateUsageRatio(securityCheckPoints, "Security check"));
-        servicePointsUsageRatio.put("Security", securityCheckpointUsageRatio);
-        passportControlPointUsageRatio = roundToTwoDecimals(calculateUsageRatio(passportControlPoints, "Passport control"));
-        servicePointsUsageRatio.put("Passport", passportControlPointUsageRatio);
-        EUGateUsageRatio = roundToTwoDecimals(calculateUsageRatio(EUGates, "EU gate"));
-        servicePointsUsageRatio.put("EU Gate", EUGateUsageRatio);
-        NonEUGateUsageRatio = roundToTwoDecimals(calculateUsageRatio(NonEUGates, "Non-EU gate"));
-        servicePointsUsageRatio.put("Non-EU Gate", NonEUGateUsageRatio);
+        checkpointUsageRatio = recordUsageRatio(checkinPoints, "Checkin-point", "Check-in");
+        securityCheckpointUsageRatio = recordUsageRatio(securityCheckPoints, "Security check", "Security");
+        passportControlPointUsageRatio = recordUsageRatio(passportControlPoints, "Passport control", "Passport");
+        EUGateUsageRatio = recordUsageRatio(EUGates, "EU gate", "EU Gate");
+        NonEUGateUsageRatio = recordUsageRatio(NonEUGates, "Non-EU gate", "Non-EU Gate");
+    }
+
+    /**
+     * Calculates the usage ratio of a service point type and stores it for the graph and the simulation result.
+     *
+     * @param sp               List of service points.
+     * @param servicePointName The name of the service point type.
+     * @param key              The name used in the graph data and the simulation result.
+     * @return The usage ratio rounded to two decimals.
+     */
+    private double recordUsageRatio(ArrayList<ServicePoint> sp, String servicePointName, String key) {
+        double usageRatio = calculateUsageRatio(sp, servicePointName);
+        simulationResult.put(SimulationResult.USAGE_RATIO + key, usageRatio);
+        double rounded = roundToTwoDecimals(usageRatio);
+        servicePointsUsageRatio.put(key, rounded);
+        return rounded;
     }
 
     /**
      * Calculates the usage ratio of a given service point type.
+     * It is the time the points were busy until the end of the run divided by the time they were observed,
+     * so services that are still in progress count only up to the end.
      *
      * @param sp               List of service points.
      * @param servicePointName The name of the service point type.
-     * @return The calculated usage ratio (percentage).
+     * @return The calculated usage ratio (percentage), or 0 if there are no service points of the type.
      */
     private double calculateUsageRatio(ArrayList<ServicePoint> sp, String servicePointName) {
-        double servicePointNum = sp.size();
-        double totalSimulationTime = simulationTime * servicePointNum;
-        double totalServiceTime = 0;
+        double end = clock.getTime();
+        double totalUtilisation = 0;
         for (ServicePoint servicePoint : sp) {
-            totalServiceTime += servicePoint.getTotalServiceTime();
+            totalUtilisation += servicePoint.getUtilisation(end);
         }
 
-        double usageRatio = totalServiceTime / totalSimulationTime * 100;
-        if(usageRatio > 100){
-            usageRatio = 100;
-        }
-        System.out.println(servicePointName + "'s usage ratio is " + usageRatio + "%.");
+        double usageRatio = sp.isEmpty() ? 0 : totalUtilisation / sp.size() * 100;
+        Trace.out(Trace.Level.INFO, servicePointName + "'s usage ratio is " + usageRatio + "%.");
         return usageRatio;
     }
 
+    /**
+     * Records the time-weighted queue statistics of the service point types in the simulation result
+     * and returns them as lines of the results text.
+     *
+     * @return The results text of the queue statistics.
+     */
+    private String recordQueueStatistics() {
+        return recordQueueStatistics(checkinPoints, "Checkin-point", "Check-in")
+                + recordQueueStatistics(securityCheckPoints, "Security check", "Security")
+                + recordQueueStatistics(passportControlPoints, "Passport control", "Passport")
+                + recordQueueStatistics(EUGates, "EU gate", "EU Gate")
+                + recordQueueStatistics(NonEUGates, "Non-EU gate", "Non-EU Gate");
+    }
+
+    /**
+     * Records the average number of customers (L), the average queue length (Lq) and the maximum queue length
+     * of a service point type in the simulation result. L and Lq are the sums over the points of the type.
+     *
+     * @param sp               List of service points.
+     * @param servicePointName The name of the service point type.
+     * @param key              The name used in the simulation result.
+     * @return The results text line of the service point type.
+     */
+    private String recordQueueStatistics(ArrayList<ServicePoint> sp, String servicePointName, String key) {
+        double end = clock.getTime();
+        double averageNumber = 0;
+        double averageQueueLength = 0;
+        int maxQueueLength = 0;
+        for (ServicePoint servicePoint : sp) {
+            averageNumber += servicePoint.getAverageNumber(end);
+            averageQueueLength += servicePoint.getAverageQueueLength(end);
+            maxQueueLength = Math.max(maxQueueLength, servicePoint.getMaxQueueLength());
+        }
+        simulationResult.put(SimulationResult.AVERAGE_NUMBER + key, averageNumber);
+        simulationResult.put(SimulationResult.AVERAGE_QUEUE_LENGTH + key, averageQueueLength);
+        simulationResult.put(SimulationResult.MAX_QUEUE_LENGTH + key, maxQueueLength);
+        return servicePointName + " average queue length: " + roundToTwoDecimals(averageQueueLength)
+                + ", average number of customers: " + roundToTwoDecimals(averageNumber)
+                + ", longest queue: " + maxQueueLength + "\n\n";
+    }
+
+    /**
+     * Calculates the 95th percentiles of the waiting times for different service points in the airport simulation.
+     */
+    private void calculateWaitingTimePercentiles() {
+        waitingTimePercentiles = new HashMap<>();
+        recordWaitingTimePercentile(checkinPoints, "Check-in");
+        recordWaitingTimePercentile(securityCheckPoints, "Security");
+        recordWaitingTimePercentile(passportControlPoints, "Passport");
+        recordWaitingTimePercentile(EUGates, "EU Gate");
+        recordWaitingTimePercentile(NonEUGates, "Non-EU Gate");
+    }
+
+    /**
+     * Merges the waiting time sketches of a service point type and stores the 95th percentile
+     * for the graph and the simulation result, and the merged sketch for the simulation result.
+     *
+     * @param sp  List of service points.
+     * @param key The name used in the graph data and the simulation result.
+     */
+    private void recordWaitingTimePercentile(ArrayList<ServicePoint> sp, String key) {
+        QuantileSketch waitingTimes = new QuantileSketch();
+        for (ServicePoint servicePoint : sp) {
+            waitingTimes.merge(servicePoint.getWaitingTimes());
+        }
+        double percentile = waitingTimes.getCount() > 0 ? waitingTimes.getQuantile(0.95) : 0;
+        simulationResult.put(SimulationResult.WAITING_TIME_P95 + key, percentile);
+        simulationResult.putSketch(SimulationResult.WAITING_TIME + key, waitingTimes);
+        waitingTimePercentiles.put(key, roundToTwoDecimals(percentile));
+    }
+
+    /**
+     * Stores the 95th percentile of the time in system of a passenger class in the simulation result.
+     *
+     * @param timeInSystem The distribution of the time in system of the class.
+     * @param key          The name of the class used in the simulation result.
+     * @return The 95th percentile rounded to two decimals.
+     */
+    private double recordTimeInSystemPercentile(QuantileSketch timeInSystem, String key) {
+        double percentile = timeInSystem.getCount() > 0 ? timeInSystem.getQuantile(0.95) : 0;
+        simulationResult.put(SimulationResult.TIME_IN_SYSTEM_P95 + key, percentile);
+        QuantileSketch copy = new QuantileSketch();
+        copy.merge(timeInSystem);
+        simulationResult.putSketch(SimulationResult.TIME_IN_SYSTEM + key, copy);
+        return roundToTwoDecimals(percentile);
+    }
+
     /**
      * Calculates the service throughput based on the number of serviced customers and simulation time.
      */
     private void calculateServiceThroughput() {
-        serviceThroughput = (totalEUServicedCustomer + totalNonEUServicedCustomer) / simulationTime;
+        serviceThroughput = (totalEUServicedCustomer + totalNonEUServicedCustomer) / (getEndTime() - statisticsStart);
+    }
+
+    /**
+     * Returns the time when the simulation ended: the simulation time, or earlier if the stopping rule was met.
+     *
+     * @return The end time of the simulation.
+     */
+    private double getEndTime() {
+        return stoppedEarly ? clock.getTime() : simulationTime;
     }
 
     /**
@@ -475,16 +1056,27 @@ public class MyEngine extends Engine implements IEngine {
      */
     private void calculateAverageServiceTimes() {
         averageServiceTimes = new HashMap<>();
-        averageCheckinServiceTime = roundToTwoDecimals(calculateAverageServiceTime(checkinPoints, "Checkin-point"));
-        averageServiceTimes.put("Check-in", averageCheckinServiceTime);
-        averageSecurityServiceTime = roundToTwoDecimals(calculateAverageServiceTime(securityCheckPoints, "Security check"));
-        averageServiceTimes.put("Security", averageSecurityServiceTime);
-        averagePassportControlServiceTime = roundToTwoDecimals(calculateAverageServiceTime(passportControlPoints, "Passport control"));
-        averageServiceTimes.put("Passport", averagePassportControlServiceTime);
-        averageEUGateServiceTime = roundToTwoDecimals(calculateAverageServiceTime(EUGates, "EU gate"));
-        averageServiceTimes.put("EU Gate", averageEUGateServiceTime);
-        averageNonEUGateServiceTime = roundToTwoDecimals(calculateAverageServiceTime(NonEUGates, "Non-EU gate"));
-        averageServiceTimes.put("Non-EU Gate", averageNonEUGateServiceTime);
+        averageCheckinServiceTime = recordAverageServiceTime(checkinPoints, "Checkin-point", "Check-in");
+        averageSecurityServiceTime = recordAverageServiceTime(securityCheckPoints, "Security check", "Security");
+        averagePassportControlServiceTime = recordAverageServiceTime(passportControlPoints, "Passport control", "Passport");
+        averageEUGateServiceTime = recordAverageServiceTime(EUGates, "EU gate", "EU Gate");
+        averageNonEUGateServiceTime = recordAverageServiceTime(NonEUGates, "Non-EU gate", "Non-EU Gate");
+    }
+
+    /**
+     * Calculates the average service time of a service point type and stores it for the graph and the simulation result.
+     *
+     * @param sp               List of service points.
+     * @param servicePointName The name of the service point type.
+     * @param key              The name used in the graph data and the simulation result.
+     * @return The average service time rounded to two decimals.
+     */
+    private double recordAverageServiceTime(ArrayList<ServicePoint> sp, String servicePointName, String key) {
+        double averageServiceTime = calculateAverageServiceTime(sp, servicePointName);
+        simulationResult.put(SimulationResult.AVERAGE_SERVICE_TIME + key, averageServiceTime);
+        double rounded = roundToTwoDecimals(averageServiceTime);
+        averageServiceTimes.put(key, rounded);
+        return rounded;
     }
 
     /**
@@ -504,17 +1096,17 @@ public class MyEngine extends Engine implements IEngine {
 
         if (Objects.equals(servicePointName, "Checkin-point") || Objects.equals(servicePointName, "Security check")) {
             if (totalServicedCustomer != 0) {
-                System.out.println(servicePointName + "'s average service time: " + totalServiceTime / totalServicedCustomer);
+                Trace.out(Trace.Level.INFO, servicePointName + "'s average service time: " + totalServiceTime / totalServicedCustomer);
                 return totalServiceTime / totalServicedCustomer;
             }
         } else if (Objects.equals(servicePointName, "Passport control") || Objects.equals(servicePointName, "Non-EU gate")) {
             if (totalNonEUServicedCustomer != 0) {
-                System.out.println(servicePointName + "'s average service time: " + totalServiceTime / totalNonEUServicedCustomer);
+                Trace.out(Trace.Level.INFO, servicePointName + "'s average service time: " + totalServiceTime / totalNonEUServicedCustomer);
                 return totalServiceTime / totalNonEUServicedCustomer;
             }
         } else {
             if (totalEUServicedCustomer != 0) {
-                System.out.println(servicePointName + "'s average service time: " + totalServiceTime / totalEUServicedCustomer);
+                Trace.out(Trace.Level.INFO, servicePointName + "'s average service time: " + totalServiceTime / totalEUServicedCustomer);
                 return totalServiceTime / totalEUServicedCustomer;
             }
         }
@@ -536,6 +1128,15 @@ public class MyEngine extends Engine implements IEngine {
         }
     }
 
+    /**
+     * Returns the KPIs of the finished simulation run.
+     *
+     * @return The simulation result, or null if the simulation has not ended yet.
+     */
+    public SimulationResult getSimulationResult() {
+        return simulationResult;
+    }
+
     /**
      * Resets the simulation by clearing all service points and resetting the engine.
      */
@@ -549,7 +1150,7 @@ public class MyEngine extends Engine implements IEngine {
             isRunning = false;
 
             // Reset clock
-            Clock.getInstance().setTime(0);
+            clock.setTime(0);
 
             // Clear event list
             eventList.clear();
@@ -569,20 +1170,31 @@ public class MyEngine extends Engine implements IEngine {
             averageEUGateServiceTime = 0;
             averageNonEUGateServiceTime = 0;
             serviceThroughput = 0;
+            simulationResult = null;
             checkpointUsageRatio = 0;
             securityCheckpointUsageRatio = 0;
             passportControlPointUsageRatio = 0;
             EUGateUsageRatio = 0;
             NonEUGateUsageRatio = 0;
 
-            // Reset the Customer ID counter
-            Customer.resetIdCounter(); // Add this line
+            // Number the customers of this engine from 1 again
+            customerCounter.reset();
 
-            // Clear serviced customers list
-            servicedCustomers.clear();
+            // Clear the statistics of the serviced customers
+            euTimeInSystem.reset();
+            nonEuTimeInSystem.reset();
+            euWaitingTime.reset();
+            nonEuWaitingTime.reset();
+            euTimeInSystemQuantiles.reset();
+            nonEuTimeInSystemQuantiles.reset();
+            timeInSystemSample.reset();
+            statisticsStart = 0;
+            warmUpDetector = null;
+            stoppingKpis.values().forEach(BatchMeans::reset);
+            stoppedEarly = false;
 
             // Reinitialize the arrival process with fresh random generators
-            arrivalProcess = new ArrivalProcess(new Negexp(arrivalInterval, 1), eventList, EventType.ARR1);
+            arrivalProcess = newArrivalProcess();
 
             // Update UI - first call all the individual methods
             controller.clearLogArea();
@@ -613,17 +1225,38 @@ public class MyEngine extends Engine implements IEngine {
      * @return A string representing the average time in the system.
      */
     private String getAverageTimeInSystem() {
-        double totalTimeInSystem = 0;
-        for (Customer customer : servicedCustomers) {
-            totalTimeInSystem += customer.getTotalTimeInSystem();
-        }
+        return String.format("%.2f", calculateAverageTimeInSystem());
+    }
 
-        if (!servicedCustomers.isEmpty()) {
-            double averageTimeInSystem = totalTimeInSystem / servicedCustomers.size();
-            return String.format("%.2f", averageTimeInSystem);
-        } else {
-            return "0.00";
-        }
+    /**
+     * Calculates the average time spent in the system by all serviced customers.
+     *
+     * @return The average time in the system, or 0 if no customer has been serviced.
+     */
+    private double calculateAverageTimeInSystem() {
+        return getTimeInSystem().getMean();
+    }
+
+    /**
+     * Returns the statistics of the time spent in the system by all serviced customers.
+     *
+     * @return A new tally combining both exit gate types.
+     */
+    public Tally getTimeInSystem() {
+        Tally timeInSystem = new Tally();
+        timeInSystem.merge(euTimeInSystem);
+        timeInSystem.merge(nonEuTimeInSystem);
+        return timeInSystem;
+    }
+
+    /**
+     * Returns a uniform random sample of the times spent in the system, e.g. to estimate percentiles.
+     * At most {@value #TIME_IN_SYSTEM_SAMPLE_SIZE} times are kept however many customers have been serviced.
+     *
+     * @return A copy of the sampled times.
+     */
+    public double[] getTimeInSystemSample() {
+        return timeInSystemSample.getSample();
     }
 
 }
@@ -1,12 +1,16 @@
 package simu.model;
 
+import java.util.BitSet;
 import java.util.LinkedList;
+import java.util.function.DoubleConsumer;
 
 import eduni.distributions.ContinuousGenerator;
 
 import simu.framework.Clock;
 import simu.framework.Event;
-import simu.framework.EventList;
+import simu.framework.EventPool;
+import simu.framework.IEventList;
+import simu.stats.QuantileSketch;
 
 /**
  * ServicePoint class represents a service point in the simulation.
@@ -25,10 +29,26 @@ import simu.framework.EventList;
 public class ServicePoint implements Comparable<ServicePoint>{
 	private LinkedList<Customer> jono = new LinkedList<Customer>(); // Data Structure used
 	private ContinuousGenerator generator;
-	private EventList eventList;
+	private IEventList eventList;
 	private EventType eventTypeScheduled;
 	private double totalServiceTime;
 	private boolean reserved = false;
+	private Clock clock;
+	private ServicePointGroup group; // The group used for shortest-queue routing, null if not in a group
+	private int heapIndex; // Position in the group's heap
+	private int groupOrder; // Position in which the point was added to its group, breaks ties
+	private BitSet readySet; // The engine's set of points that can begin a service, null if not tracked
+	private int index; // Position of this point in the engine's list of service points
+	private EventPool eventPool; // Source of reused events, null to allocate new ones
+	private final QuantileSketch waitingTimes = new QuantileSketch(); // Time from joining the queue to the start of the service
+	private DoubleConsumer waitingTimeListener; // Is told every waiting time, null if nobody listens
+	// Time-weighted statistics, integrated up to lastChangeTime whenever the queue or the service changes
+	private double statisticsStart;
+	private double lastChangeTime;
+	private double busyTime;
+	private double numberArea; // Integral of the number of customers at the point, waiting or in service
+	private double queueArea; // Integral of the number of customers waiting for the service
+	private int maxQueueLength;
 
     /**
      * Constructor for the ServicePoint class.
@@ -38,10 +58,23 @@ public class ServicePoint implements Comparable<ServicePoint>{
      * @param tapahtumalista The EventList where events will be scheduled.
      * @param tyyppi The type of event to be scheduled.
      */
-	public ServicePoint(ContinuousGenerator generator, EventList tapahtumalista, EventType tyyppi){
+	public ServicePoint(ContinuousGenerator generator, IEventList tapahtumalista, EventType tyyppi){
+		this(generator, tapahtumalista, tyyppi, Clock.getInstance());
+	}
+
+    /**
+     * Constructor for the ServicePoint class using the clock of a specific engine.
+     *
+     * @param generator The ContinuousGenerator used to sample service times.
+     * @param tapahtumalista The EventList where events will be scheduled.
+     * @param tyyppi The type of event to be scheduled.
+     * @param clock The clock the service completion times are relative to.
+     */
+	public ServicePoint(ContinuousGenerator generator, IEventList tapahtumalista, EventType tyyppi, Clock clock){
 		this.eventList = tapahtumalista;
 		this.generator = generator;
 		this.eventTypeScheduled = tyyppi;
+		this.clock = clock;
 	}
 
     /**
@@ -52,9 +85,13 @@ public class ServicePoint implements Comparable<ServicePoint>{
      * @param a The customer to be added to the queue.
      */
 	public void addQueue(Customer a) {   // The first customer at the queue is always on the service
+        accumulate();
         // Start measuring waiting time when the customer joins the queue
         a.startWaiting(); // New call without argument
         jono.add(a);
+        maxQueueLength = Math.max(maxQueueLength, jono.size());
+        notifyGroup();
+        markIfReady();
 	}
 
     /**
@@ -65,13 +102,16 @@ public class ServicePoint implements Comparable<ServicePoint>{
      * @return The customer that was removed from the queue.
      */
     public Customer removeQueue() { // Removes the first customer from the queue
+        accumulate();
         reserved = false;
         Customer customer = jono.poll();
 
         // Stop measuring waiting time when a customer is removed from the queue
         if (customer != null) {
             customer.stopWaiting(); // New call without argument
+            notifyGroup();
         }
+        markIfReady();
         return customer;
     }
 
@@ -81,13 +121,26 @@ public class ServicePoint implements Comparable<ServicePoint>{
 	 * Creates a new Event object to represent the scheduled event when the service will complete.
 	 * This ServicePoint instance is passed as a parameter to the Event object, allowing the Event
 	 * to reference the specific ServicePoint where the service is being executed.
+	 * A negative sampled service time, e.g. from a Normal distribution, is truncated to 0, so the service
+	 * never ends before it began and the clock never goes back.
 	 */
 	public void beginService() { // Begins a new service, customer is on the queue during the service
+		accumulate();
 		reserved = true;
-		double serviceTime = generator.sample();
+		Customer next = jono.peek();
+		if (next != null) {
+			double waitingTime = clock.getTime() - next.getStartWaitingTime();
+			waitingTimes.add(waitingTime);
+			if (waitingTimeListener != null) {
+				waitingTimeListener.accept(waitingTime);
+			}
+		}
+		double serviceTime = Math.max(0, generator.sample());
 		totalServiceTime += serviceTime;
 		// Schedules a new event and passes this ServicePoint instance.
-		eventList.add(new Event(eventTypeScheduled, Clock.getInstance().getTime()+serviceTime, this));
+		double time = clock.getTime() + serviceTime;
+		eventList.add(eventPool != null ? eventPool.obtain(eventTypeScheduled, time, this)
+				: new Event(eventTypeScheduled, time, this));
 	}
 
     /**
@@ -137,7 +190,7 @@ public class ServicePoint implements Comparable<ServicePoint>{
     }
 
     /**
-     * Returns the total service time for this ServicePoint.
+     * Returns the total service time for this ServicePoint since its statistics started.
      * This method is used to retrieve the total time spent servicing customers.
      *
      * @return The total service time.
@@ -154,5 +207,208 @@ public class ServicePoint implements Comparable<ServicePoint>{
     public void clear() {
         jono.clear();
         reserved = false;
+        resetStatistics();
+        notifyGroup();
+    }
+
+    /**
+     * Adds the time since the last change of the queue or the service to the time-weighted statistics.
+     * Called before every change, so the integrals are exact and cost O(1) per change.
+     */
+	private void accumulate() {
+		double now = clock.getTime();
+		double dt = now - lastChangeTime;
+		int number = jono.size();
+		numberArea += number * dt;
+		if (reserved) {
+			busyTime += dt;
+			queueArea += (number - 1) * dt;
+		} else {
+			queueArea += number * dt;
+		}
+		lastChangeTime = now;
+	}
+
+    /**
+     * Starts the statistics of this point anew at the current time, keeping the customers at the point.
+     */
+	public void resetStatistics() {
+		statisticsStart = clock.getTime();
+		lastChangeTime = statisticsStart;
+		totalServiceTime = 0;
+		busyTime = 0;
+		numberArea = 0;
+		queueArea = 0;
+		maxQueueLength = jono.size();
+		waitingTimes.reset();
+	}
+
+    /**
+     * Returns the time this point spent serving customers since its statistics started.
+     * Unlike the total service time, a service still in progress counts only up to the given time.
+     *
+     * @param until The end of the observed period, not before the last change of the point.
+     * @return The busy time.
+     */
+	public double getBusyTime(double until) {
+		return busyTime + (reserved && until > lastChangeTime ? until - lastChangeTime : 0);
+	}
+
+    /**
+     * Returns the utilisation of this point, the fraction of time it spent serving customers.
+     *
+     * @param until The end of the observed period, not before the last change of the point.
+     * @return The utilisation between 0 and 1, or 0 if no time has passed.
+     */
+	public double getUtilisation(double until) {
+		double period = until - statisticsStart;
+		return period > 0 ? getBusyTime(until) / period : 0;
+	}
+
+    /**
+     * Returns the time-average number of customers at this point, waiting or in service (L).
+     *
+     * @param until The end of the observed period, not before the last change of the point.
+     * @return The average number of customers, or 0 if no time has passed.
+     */
+	public double getAverageNumber(double until) {
+		double period = until - statisticsStart;
+		double area = numberArea + (until > lastChangeTime ? jono.size() * (until - lastChangeTime) : 0);
+		return period > 0 ? area / period : 0;
+	}
+
+    /**
+     * Returns the time-average number of customers waiting for the service at this point (Lq).
+     *
+     * @param until The end of the observed period, not before the last change of the point.
+     * @return The average queue length, or 0 if no time has passed.
+     */
+	public double getAverageQueueLength(double until) {
+		double period = until - statisticsStart;
+		int waiting = reserved ? jono.size() - 1 : jono.size();
+		double area = queueArea + (until > lastChangeTime ? waiting * (until - lastChangeTime) : 0);
+		return period > 0 ? area / period : 0;
+	}
+
+    /**
+     * Returns the largest number of customers that were at this point at the same time since its statistics started.
+     *
+     * @return The maximum queue length, including the customer in service.
+     */
+	public int getMaxQueueLength() {
+		return maxQueueLength;
+	}
+
+    /**
+     * Returns the distribution of the times the customers of this point waited before their service began.
+     *
+     * @return The quantile sketch of the waiting times.
+     */
+    public QuantileSketch getWaitingTimes() {
+        return waitingTimes;
+    }
+
+    /**
+     * Connects this service point to the engine's ready set.
+     * From then on the service point adds its index to the set whenever it becomes idle with
+     * customers waiting, so the engine's C-phase only has to visit the points in the set.
+     *
+     * @param readySet The set of indices of the service points that can begin a service.
+     * @param index    The index of this service point in the engine's list of service points.
+     */
+    public void setReadySet(BitSet readySet, int index) {
+        this.readySet = readySet;
+        this.index = index;
+        markIfReady();
+    }
+
+    /**
+     * Returns the index of this service point in the engine's list of service points.
+     *
+     * @return The index, set by {@link #setReadySet(BitSet, int)}.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Sets the pool the scheduled events are taken from.
+     *
+     * @param eventPool The event pool of the engine, or null to allocate a new event every time.
+     */
+    public void setEventPool(EventPool eventPool) {
+        this.eventPool = eventPool;
+    }
+
+    /**
+     * Sets the listener that is told the waiting time of every customer whose service begins,
+     * e.g. to decide while the simulation runs whether the waiting times are known precisely enough.
+     *
+     * @param waitingTimeListener The listener, or null for none.
+     */
+    public void setWaitingTimeListener(DoubleConsumer waitingTimeListener) {
+        this.waitingTimeListener = waitingTimeListener;
+    }
+
+    /**
+     * Adds this service point to the ready set if it is idle and has customers in the queue.
+     */
+    private void markIfReady() {
+        if (readySet != null && !reserved && !jono.isEmpty()) {
+            readySet.set(index);
+        }
+    }
+
+    /**
+     * Tells the group of this service point that the queue length has changed,
+     * so that it can keep its shortest-queue order up to date.
+     */
+    private void notifyGroup() {
+        if (group != null) {
+            group.queueLengthChanged(this);
+        }
+    }
+
+    /**
+     * Returns the group this service point belongs to.
+     *
+     * @return The group, or null if the service point is not in a group.
+     */
+    public ServicePointGroup getGroup() {
+        return group;
+    }
+
+    /**
+     * Makes this service point a member of a group. Called by the group.
+     *
+     * @param group      The group.
+     * @param heapIndex  The position in the group's heap.
+     * @param groupOrder The position in which the service point was added to the group.
+     */
+    void joinGroup(ServicePointGroup group, int heapIndex, int groupOrder) {
+        this.group = group;
+        this.heapIndex = heapIndex;
+        this.groupOrder = groupOrder;
+    }
+
+    /**
+     * Returns the position of this service point in its group's heap.
+     */
+    int getHeapIndex() {
+        return heapIndex;
+    }
+
+    /**
+     * Sets the position of this service point in its group's heap. Called by the group.
+     */
+    void setHeapIndex(int heapIndex) {
+        this.heapIndex = heapIndex;
+    }
+
+    /**
+     * Returns the position in which this service point was added to its group.
+     */
+    int getGroupOrder() {
+        return groupOrder;
     }
 }
@@ -0,0 +1,107 @@
+package simu.model;
+
+import java.util.ArrayList;
+
+/**
+ * ServicePointGroup keeps the service points of one type (e.g. all check-in desks) in an indexed min-heap
+ * ordered by queue length, so that the service point with the shortest queue is found in O(1).
+ *
+ * The service points report every change of their queue length to their group, which restores the
+ * heap order in O(log k). Ties are broken deterministically by the order in which the service points
+ * were added, which is the same choice as {@code Collections.min} over the list of service points.
+ */
+public class ServicePointGroup {
+    private final ArrayList<ServicePoint> heap = new ArrayList<>();
+
+    /**
+     * Adds a service point to the group.
+     * A service point can belong to one group only.
+     *
+     * @param servicePoint The service point to be added.
+     */
+    public void add(ServicePoint servicePoint) {
+        if (servicePoint.getGroup() != null) {
+            throw new IllegalStateException("The service point already belongs to a group.");
+        }
+        servicePoint.joinGroup(this, heap.size(), heap.size());
+        heap.add(servicePoint);
+        siftUp(heap.size() - 1);
+    }
+
+    /**
+     * Returns the service point with the shortest queue.
+     * If several service points have the shortest queue, the one added first is returned.
+     *
+     * @return The service point with the shortest queue, or null if the group is empty.
+     */
+    public ServicePoint shortest() {
+        return heap.isEmpty() ? null : heap.get(0);
+    }
+
+    /**
+     * Returns the number of service points in the group.
+     *
+     * @return The number of service points.
+     */
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * Restores the heap order after the queue length of a service point has changed.
+     * Called by the service point itself.
+     *
+     * @param servicePoint The service point whose queue length has changed.
+     */
+    void queueLengthChanged(ServicePoint servicePoint) {
+        int index = servicePoint.getHeapIndex();
+        if (index > 0 && less(index, (index - 1) / 2)) {
+            siftUp(index);
+        } else {
+            siftDown(index);
+        }
+    }
+
+    private boolean less(int i, int j) {
+        ServicePoint a = heap.get(i);
+        ServicePoint b = heap.get(j);
+        int byLength = Integer.compare(a.getQueueLength(), b.getQueueLength());
+        return byLength != 0 ? byLength < 0 : a.getGroupOrder() < b.getGroupOrder();
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!less(index, parent)) {
+                break;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        int size = heap.size();
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                break;
+            }
+            int smallest = left + 1 < size && less(left + 1, left) ? left + 1 : left;
+            if (!less(smallest, index)) {
+                break;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        ServicePoint a = heap.get(i);
+        ServicePoint b = heap.get(j);
+        heap.set(i, b);
+        heap.set(j, a);
+        a.setHeapIndex(j);
+        b.setHeapIndex(i);
+    }
+}
@@ -0,0 +1,115 @@
+package simu.model;
+
+import simu.stats.QuantileSketch;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SimulationResult holds the key performance indicators (KPIs) of one finished simulation run.
+ * The values are the unrounded numbers that MyEngine reports in its results text,
+ * stored by name so that they can be aggregated over replications or written to a table.
+ * Distributions are kept as quantile sketches, which can be merged over replications without the raw observations.
+ */
+public class SimulationResult {
+    public static final String AVERAGE_TIME_IN_SYSTEM = "averageTimeInSystem";
+    public static final String EU_AVERAGE_TIME_IN_SYSTEM = "euAverageTimeInSystem";
+    public static final String NON_EU_AVERAGE_TIME_IN_SYSTEM = "nonEuAverageTimeInSystem";
+    public static final String MAX_TIME_IN_SYSTEM = "maxTimeInSystem";
+    public static final String AVERAGE_WAITING_TIME = "averageWaitingTime";
+    public static final String SERVICED_CUSTOMERS = "servicedCustomers";
+    public static final String EU_SERVICED_CUSTOMERS = "euServicedCustomers";
+    public static final String NON_EU_SERVICED_CUSTOMERS = "nonEuServicedCustomers";
+    public static final String THROUGHPUT = "throughput";
+    public static final String WARM_UP_TIME = "warmUpTime";
+    public static final String END_TIME = "endTime";
+    public static final String USAGE_RATIO = "usageRatio.";
+    public static final String AVERAGE_SERVICE_TIME = "averageServiceTime.";
+    public static final String AVERAGE_NUMBER = "averageNumber.";
+    public static final String AVERAGE_QUEUE_LENGTH = "averageQueueLength.";
+    public static final String MAX_QUEUE_LENGTH = "maxQueueLength.";
+    public static final String WAITING_TIME_P95 = "waitingTimeP95.";
+    public static final String TIME_IN_SYSTEM_P95 = "timeInSystemP95.";
+    public static final String RELATIVE_HALF_WIDTH = "relativeHalfWidth.";
+    /** Sketch names, followed by the service point type or passenger class. */
+    public static final String WAITING_TIME = "waitingTime.";
+    public static final String TIME_IN_SYSTEM = "timeInSystem.";
+
+    private final LinkedHashMap<String, Double> values = new LinkedHashMap<>();
+    private final LinkedHashMap<String, QuantileSketch> sketches = new LinkedHashMap<>();
+
+    /**
+     * Sets the value of a KPI.
+     *
+     * @param name  The name of the KPI.
+     * @param value The value of the KPI.
+     */
+    public void put(String name, double value) {
+        values.put(name, value);
+    }
+
+    /**
+     * Returns the value of a KPI.
+     *
+     * @param name The name of the KPI.
+     * @return The value, or NaN if the KPI is not known.
+     */
+    public double get(String name) {
+        Double value = values.get(name);
+        return value != null ? value : Double.NaN;
+    }
+
+    /**
+     * Returns the names of all KPIs in the order they were added.
+     *
+     * @return The KPI names.
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(values.keySet());
+    }
+
+    /**
+     * Returns all KPIs by name in the order they were added.
+     *
+     * @return A read-only view of the KPI values.
+     */
+    public Map<String, Double> getValues() {
+        return Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * Sets the distribution of an observed quantity.
+     *
+     * @param name   The name of the quantity.
+     * @param sketch The quantile sketch of the observations.
+     */
+    public void putSketch(String name, QuantileSketch sketch) {
+        sketches.put(name, sketch);
+    }
+
+    /**
+     * Returns the distribution of an observed quantity.
+     *
+     * @param name The name of the quantity.
+     * @return The quantile sketch, or null if the quantity is not known.
+     */
+    public QuantileSketch getSketch(String name) {
+        return sketches.get(name);
+    }
+
+    /**
+     * Returns all quantile sketches by name in the order they were added.
+     *
+     * @return A read-only view of the sketches.
+     */
+    public Map<String, QuantileSketch> getSketches() {
+        return Collections.unmodifiableMap(sketches);
+    }
+
+    @Override
+    public String toString() {
+        return values.toString();
+    }
+}
@@ -0,0 +1,227 @@
+package simu.stats;
+
+/**
+ * BatchMeans computes a confidence interval from one long run: the observations are grouped into consecutive
+ * batches, and the batch statistics, which are nearly independent when the batches are long enough, are treated
+ * as independent observations. The batch statistic is the mean of the batch, or a quantile of it, e.g. the
+ * 95th percentile of the waiting time.
+ * <p>
+ * Between the given number of batches and twice as many are kept. When all of them are full, neighbouring
+ * batches are merged and the batch size doubles, so the batches grow with the run while the memory stays
+ * constant. This makes the statistic suitable for a sequential stopping rule that is checked while the
+ * simulation runs.
+ */
+public class BatchMeans {
+    /** The number of batches used when none is given. */
+    public static final int DEFAULT_BATCHES = 20;
+    /**
+     * The largest lag-1 autocorrelation of the batch statistics that is accepted as independent.
+     * Above it the batches are too short, e.g. during a transient or in an overloaded queue.
+     */
+    public static final double MAX_AUTOCORRELATION = 0.3;
+
+    private final int minBatches;
+    private final double quantile; // NaN for batch means
+    private final double[] values; // Batch means, or sums of the observations while a batch is filling
+    private final QuantileSketch[] sketches; // Observations of every batch, only for a quantile
+    private int batches;
+    private long batchSize;
+    private long count;
+
+    /**
+     * Constructor for BatchMeans of the mean with {@value #DEFAULT_BATCHES} batches.
+     */
+    public BatchMeans() {
+        this(DEFAULT_BATCHES);
+    }
+
+    /**
+     * Constructor for BatchMeans of the mean.
+     *
+     * @param minBatches The smallest number of batches the confidence interval is computed from, at least 2.
+     */
+    public BatchMeans(int minBatches) {
+        this(minBatches, Double.NaN);
+    }
+
+    /**
+     * Constructor for BatchMeans of a quantile. Every batch has at least enough observations for ten of them
+     * to lie above the quantile.
+     *
+     * @param minBatches The smallest number of batches the confidence interval is computed from, at least 2.
+     * @param quantile   The quantile of every batch, between 0 and 1, or NaN for the mean of the batches.
+     */
+    public BatchMeans(int minBatches, double quantile) {
+        if (minBatches < 2) {
+            throw new IllegalArgumentException("BatchMeans: At least 2 batches are needed.");
+        }
+        if (quantile < 0 || quantile >= 1) {
+            throw new IllegalArgumentException("BatchMeans: The quantile must be between 0 and 1.");
+        }
+        this.minBatches = minBatches;
+        this.quantile = quantile;
+        values = new double[2 * minBatches];
+        if (Double.isNaN(quantile)) {
+            sketches = null;
+            batchSize = 1;
+        } else {
+            sketches = new QuantileSketch[values.length];
+            for (int i = 0; i < sketches.length; i++) {
+                sketches[i] = new QuantileSketch();
+            }
+            batchSize = (long) Math.ceil(10 / (1 - quantile));
+        }
+    }
+
+    /**
+     * Adds a new observation.
+     *
+     * @param x The observed value, not negative for a quantile.
+     */
+    public void add(double x) {
+        if (sketches != null) {
+            sketches[batches].add(x);
+        } else {
+            values[batches] += x;
+        }
+        if (++count % batchSize != 0) {
+            return;
+        }
+        // The last batch is full
+        values[batches] = sketches != null ? sketches[batches].getQuantile(quantile) : values[batches] / batchSize;
+        if (++batches == 2 * minBatches) {
+            mergeBatches();
+        }
+    }
+
+    /**
+     * Merges every two neighbouring batches into one and doubles the batch size.
+     */
+    private void mergeBatches() {
+        QuantileSketch[] full = sketches != null ? sketches.clone() : null;
+        for (int i = 0; i < minBatches; i++) {
+            if (full != null) {
+                QuantileSketch merged = full[2 * i];
+                QuantileSketch emptied = full[2 * i + 1];
+                merged.merge(emptied);
+                emptied.reset();
+                sketches[i] = merged;
+                sketches[minBatches + i] = emptied; // Reused for the next batches
+                values[i] = merged.getQuantile(quantile);
+            } else {
+                values[i] = (values[2 * i] + values[2 * i + 1]) / 2;
+            }
+        }
+        for (int i = minBatches; i < values.length; i++) {
+            values[i] = 0;
+        }
+        batches = minBatches;
+        batchSize *= 2;
+    }
+
+    /**
+     * Computes a Student's t confidence interval from the complete batches.
+     *
+     * @param level The confidence level, e.g. 0.95.
+     * @return The confidence interval, whose count is the number of batches.
+     * The half-width is infinite with fewer batches than given in the constructor.
+     */
+    public ConfidenceInterval getConfidenceInterval(double level) {
+        Tally tally = new Tally();
+        for (int i = 0; i < batches; i++) {
+            tally.add(values[i]);
+        }
+        if (batches < minBatches) {
+            return new ConfidenceInterval(tally.getMean(), Double.POSITIVE_INFINITY, level, batches);
+        }
+        return ConfidenceInterval.of(tally, level);
+    }
+
+    /**
+     * Returns the lag-1 autocorrelation of the complete batches. Clearly positive values mean that the
+     * batches are not yet long enough to be treated as independent.
+     *
+     * @return The autocorrelation, or NaN with fewer than three batches or equal batches.
+     */
+    public double getLag1Autocorrelation() {
+        if (batches < 3) {
+            return Double.NaN;
+        }
+        double mean = 0;
+        for (int i = 0; i < batches; i++) {
+            mean += values[i];
+        }
+        mean /= batches;
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < batches; i++) {
+            double d = values[i] - mean;
+            variance += d * d;
+            if (i > 0) {
+                covariance += d * (values[i - 1] - mean);
+            }
+        }
+        return variance > 0 ? covariance / variance : Double.NaN;
+    }
+
+    /**
+     * Tells whether the confidence interval is narrow enough: there are enough batches, they look independent,
+     * and the half-width relative to the mean is at most the target.
+     *
+     * @param relativeHalfWidth The target of the half-width relative to the mean, e.g. 0.05 for 5%.
+     * @param level             The confidence level, e.g. 0.95.
+     * @return True if the target has been reached.
+     */
+    public boolean isPrecise(double relativeHalfWidth, double level) {
+        if (batches < minBatches) {
+            return false;
+        }
+        if (getLag1Autocorrelation() > MAX_AUTOCORRELATION) { // NaN for equal batches, e.g. when nobody waits
+            return false;
+        }
+        ConfidenceInterval interval = getConfidenceInterval(level);
+        return interval.getHalfWidth() <= relativeHalfWidth * Math.abs(interval.getMean());
+    }
+
+    /**
+     * Removes all observations, e.g. at the end of the warm-up period.
+     */
+    public void reset() {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 0;
+            if (sketches != null) {
+                sketches[i].reset();
+            }
+        }
+        batches = 0;
+        count = 0;
+        batchSize = sketches != null ? (long) Math.ceil(10 / (1 - quantile)) : 1;
+    }
+
+    /**
+     * Returns the number of observations added.
+     *
+     * @return The number of observations.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the number of complete batches.
+     *
+     * @return The number of batches.
+     */
+    public int getBatches() {
+        return batches;
+    }
+
+    /**
+     * Returns the current number of observations per batch.
+     *
+     * @return The batch size.
+     */
+    public long getBatchSize() {
+        return batchSize;
+    }
+}
@@ -0,0 +1,111 @@
+package simu.stats;
+
+/**
+ * A confidence interval for a mean, given as the mean and the half-width of the interval.
+ */
+public class ConfidenceInterval {
+    private final double mean;
+    private final double halfWidth;
+    private final double level;
+    private final long count;
+
+    /**
+     * Constructor for ConfidenceInterval.
+     *
+     * @param mean      The estimated mean.
+     * @param halfWidth The half-width of the interval.
+     * @param level     The confidence level, e.g. 0.95.
+     * @param count     The number of observations the interval is based on.
+     */
+    public ConfidenceInterval(double mean, double halfWidth, double level, long count) {
+        this.mean = mean;
+        this.halfWidth = halfWidth;
+        this.level = level;
+        this.count = count;
+    }
+
+    /**
+     * Computes a Student's t confidence interval for the mean of the observations in a tally.
+     * The observations are assumed to be independent, e.g. one per replication.
+     *
+     * @param tally The observations.
+     * @param level The confidence level, e.g. 0.95.
+     * @return The confidence interval. The half-width is infinite with less than two observations.
+     */
+    public static ConfidenceInterval of(Tally tally, double level) {
+        long n = tally.getCount();
+        if (n < 2) {
+            return new ConfidenceInterval(tally.getMean(), Double.POSITIVE_INFINITY, level, n);
+        }
+        double t = StudentT.quantile(0.5 + level / 2, n - 1);
+        return new ConfidenceInterval(tally.getMean(), t * tally.getStandardDeviation() / Math.sqrt(n), level, n);
+    }
+
+    /**
+     * Returns the estimated mean.
+     *
+     * @return The mean.
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Returns the half-width of the interval.
+     *
+     * @return The half-width.
+     */
+    public double getHalfWidth() {
+        return halfWidth;
+    }
+
+    /**
+     * Returns the half-width relative to the absolute value of the mean.
+     *
+     * @return The relative half-width, or infinity if the mean is 0.
+     */
+    public double getRelativeHalfWidth() {
+        return mean != 0 ? halfWidth / Math.abs(mean) : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the lower bound of the interval.
+     *
+     * @return The lower bound.
+     */
+    public double getLower() {
+        return mean - halfWidth;
+    }
+
+    /**
+     * Returns the upper bound of the interval.
+     *
+     * @return The upper bound.
+     */
+    public double getUpper() {
+        return mean + halfWidth;
+    }
+
+    /**
+     * Returns the confidence level.
+     *
+     * @return The confidence level.
+     */
+    public double getLevel() {
+        return level;
+    }
+
+    /**
+     * Returns the number of observations the interval is based on.
+     *
+     * @return The number of observations.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.4f ± %.4f (%.0f%%, n=%d)", mean, halfWidth, level * 100, count);
+    }
+}
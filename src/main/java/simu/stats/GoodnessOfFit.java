@@ -0,0 +1,227 @@
+package simu.stats;
+
+import java.util.Arrays;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Goodness-of-fit tests for checking random number generators against a distribution or
+ * against each other: the one- and two-sample Kolmogorov-Smirnov tests and the Anderson-Darling test.
+ * The p-values use the asymptotic distributions of the statistics, so the samples should contain
+ * at least a few hundred values.
+ */
+public final class GoodnessOfFit {
+
+    private GoodnessOfFit() {
+    }
+
+    /**
+     * Returns the one-sample Kolmogorov-Smirnov statistic, the largest distance between the
+     * empirical distribution function of the sample and the given distribution function.
+     *
+     * @param sample The sample; it is not modified.
+     * @param cdf    The distribution function of the hypothesised distribution.
+     * @return The statistic D.
+     */
+    public static double ksStatistic(double[] sample, DoubleUnaryOperator cdf) {
+        double[] x = sorted(sample);
+        int n = x.length;
+        double d = 0;
+        for (int i = 0; i < n; i++) {
+            double f = cdf.applyAsDouble(x[i]);
+            d = Math.max(d, Math.max((i + 1.0) / n - f, f - (double) i / n));
+        }
+        return d;
+    }
+
+    /**
+     * Returns the p-value of the one-sample Kolmogorov-Smirnov test.
+     *
+     * @param sample The sample; it is not modified.
+     * @param cdf    The distribution function of the hypothesised distribution.
+     * @return The probability of a statistic at least as large if the sample comes from the distribution.
+     */
+    public static double ksTest(double[] sample, DoubleUnaryOperator cdf) {
+        return kolmogorovPValue(ksStatistic(sample, cdf), sample.length);
+    }
+
+    /**
+     * Returns the two-sample Kolmogorov-Smirnov statistic, the largest distance between the
+     * empirical distribution functions of the samples.
+     *
+     * @param a The first sample; it is not modified.
+     * @param b The second sample; it is not modified.
+     * @return The statistic D.
+     */
+    public static double ksStatistic(double[] a, double[] b) {
+        double[] x = sorted(a);
+        double[] y = sorted(b);
+        int i = 0;
+        int j = 0;
+        double d = 0;
+        while (i < x.length && j < y.length) {
+            double v = Math.min(x[i], y[j]);
+            while (i < x.length && x[i] == v) {
+                i++;
+            }
+            while (j < y.length && y[j] == v) {
+                j++;
+            }
+            d = Math.max(d, Math.abs((double) i / x.length - (double) j / y.length));
+        }
+        return d;
+    }
+
+    /**
+     * Returns the p-value of the two-sample Kolmogorov-Smirnov test.
+     *
+     * @param a The first sample; it is not modified.
+     * @param b The second sample; it is not modified.
+     * @return The probability of a statistic at least as large if both samples come from the same distribution.
+     */
+    public static double ksTest(double[] a, double[] b) {
+        return kolmogorovPValue(ksStatistic(a, b), (double) a.length * b.length / (a.length + b.length));
+    }
+
+    /**
+     * Returns the Anderson-Darling statistic A&sup2; of the sample for the given distribution function.
+     * Compared to the Kolmogorov-Smirnov test it gives more weight to the tails.
+     *
+     * @param sample The sample; it is not modified.
+     * @param cdf    The distribution function of the hypothesised distribution.
+     * @return The statistic A&sup2;, infinite if a value lies where the distribution has no probability.
+     */
+    public static double andersonDarlingStatistic(double[] sample, DoubleUnaryOperator cdf) {
+        double[] x = sorted(sample);
+        int n = x.length;
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            double low = cdf.applyAsDouble(x[i]);
+            double high = cdf.applyAsDouble(x[n - 1 - i]);
+            sum += (2 * i + 1) * (Math.log(low) + Math.log1p(-high));
+        }
+        return -n - sum / n;
+    }
+
+    /**
+     * Returns the p-value of the Anderson-Darling test.
+     *
+     * @param sample The sample; it is not modified.
+     * @param cdf    The distribution function of the hypothesised distribution.
+     * @return The probability of a statistic at least as large if the sample comes from the distribution.
+     */
+    public static double andersonDarlingTest(double[] sample, DoubleUnaryOperator cdf) {
+        return 1 - andersonDarlingCdf(andersonDarlingStatistic(sample, cdf));
+    }
+
+    /**
+     * Returns the p-value of Pearson's chi-square test of observed counts against expected counts.
+     * Neighbouring cells should be merged beforehand so that every expected count is at least 5.
+     * The p-value uses the Wilson-Hilferty approximation of the chi-square distribution.
+     *
+     * @param observed The observed count of every cell.
+     * @param expected The expected count of every cell, with the same total as the observed counts.
+     * @return The probability of a statistic at least as large if the counts follow the expectation.
+     */
+    public static double chiSquareTest(long[] observed, double[] expected) {
+        if (observed.length != expected.length || observed.length < 2) {
+            throw new IllegalArgumentException("chiSquareTest: need at least two cells of observed and expected counts");
+        }
+        double statistic = 0;
+        for (int i = 0; i < observed.length; i++) {
+            double difference = observed[i] - expected[i];
+            statistic += difference * difference / expected[i];
+        }
+        double k = observed.length - 1;
+        double z = (Math.cbrt(statistic / k) - (1 - 2 / (9 * k))) / Math.sqrt(2 / (9 * k));
+        return 1 - normalCdf(z);
+    }
+
+    /**
+     * Returns the distribution function of the standard normal distribution.
+     * Uses Marsaglia's Taylor series (2004), accurate to about 15 digits, and a continued fraction
+     * in the lower tail.
+     *
+     * @param x The value.
+     * @return P(Z &le; x).
+     */
+    public static double normalCdf(double x) {
+        if (x < -37) {
+            return 0;
+        }
+        if (x > 37) {
+            return 1;
+        }
+        if (x < -3) {
+            return upperNormalTail(-x);
+        }
+        double s = x;
+        double t = 0;
+        double b = x;
+        double q = x * x;
+        for (double i = 1; s != t; ) {
+            t = s;
+            i += 2;
+            b *= q / i;
+            s = t + b;
+        }
+        return 0.5 + s * Math.exp(-0.5 * q - 0.91893853320467274178);
+    }
+
+    /**
+     * Returns P(Z &gt; x) for large x with a continued fraction, which keeps full relative accuracy in the tail.
+     */
+    private static double upperNormalTail(double x) {
+        double f = x;
+        for (int k = 60; k > 0; k--) {
+            f = x + k / f;
+        }
+        return Math.exp(-0.5 * x * x - 0.91893853320467274178) / f;
+    }
+
+    /**
+     * Returns the limiting distribution function of the Anderson-Darling statistic
+     * (Marsaglia and Marsaglia, 2004), accurate to about 2e-6.
+     */
+    private static double andersonDarlingCdf(double z) {
+        if (z <= 0) {
+            return 0;
+        }
+        if (z < 2) {
+            return Math.exp(-1.2337141 / z) / Math.sqrt(z)
+                    * (2.00012 + (.247105 - (.0649821 - (.0347962 - (.0116720 - .00168691 * z) * z) * z) * z) * z);
+        }
+        return Math.exp(-Math.exp(1.0776 - (2.30695 - (.43424 - (.082433 - (.008056 - .0003146 * z) * z) * z) * z) * z));
+    }
+
+    /**
+     * Returns the p-value of a Kolmogorov-Smirnov statistic with Stephens' correction for the sample size.
+     *
+     * @param d The statistic.
+     * @param n The (effective) sample size.
+     */
+    private static double kolmogorovPValue(double d, double n) {
+        double sqrtN = Math.sqrt(n);
+        double lambda = (sqrtN + 0.12 + 0.11 / sqrtN) * d;
+        if (lambda < 0.2) {
+            return 1;
+        }
+        double sum = 0;
+        for (int k = 1; k <= 100; k++) {
+            double term = Math.exp(-2 * k * k * lambda * lambda);
+            sum += (k % 2 == 1 ? term : -term);
+            if (term < 1e-16) {
+                break;
+            }
+        }
+        return Math.max(0, Math.min(1, 2 * sum));
+    }
+
+    /**
+     * Returns a sorted copy of the sample.
+     */
+    private static double[] sorted(double[] sample) {
+        double[] copy = sample.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,208 @@
+package simu.stats;
+
+import java.util.Arrays;
+
+/**
+ * QuantileSketch estimates quantiles, e.g. the 95th percentile of the waiting time, of a stream of
+ * non-negative observations without storing them. It is a DDSketch (Masson et al., 2019): the observations
+ * are counted in buckets whose bounds grow geometrically by gamma = (1 + a) / (1 - a), so every quantile is
+ * estimated within a relative error of a. Adding an observation takes constant time, and two sketches with
+ * the same accuracy can be merged exactly, e.g. to combine the sketches of parallel replications.
+ * The number of buckets grows only with the logarithm of the range of the observations.
+ */
+public class QuantileSketch {
+    /** The relative accuracy used when none is given. */
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    // Smaller observations are counted as 0; far below any time unit of the simulation
+    private static final double MIN_INDEXABLE = 1e-9;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private long[] counts = new long[0];
+    private int offset; // Bucket index of counts[0]
+    private long zeroCount;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Constructor for QuantileSketch with a relative accuracy of {@value #DEFAULT_RELATIVE_ACCURACY}.
+     */
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    /**
+     * Constructor for QuantileSketch.
+     *
+     * @param relativeAccuracy The largest relative error of the quantiles, between 0 and 1 exclusive.
+     */
+    public QuantileSketch(double relativeAccuracy) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("QuantileSketch: The relative accuracy must be between 0 and 1.");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        logGamma = Math.log(gamma);
+    }
+
+    /**
+     * Adds a new observation.
+     *
+     * @param x The observed value, not negative.
+     */
+    public void add(double x) {
+        if (!(x >= 0) || Double.isInfinite(x)) {
+            throw new IllegalArgumentException("QuantileSketch: The observations must be finite and not negative.");
+        }
+        count++;
+        if (x < min) min = x;
+        if (x > max) max = x;
+        if (x < MIN_INDEXABLE) {
+            zeroCount++;
+            return;
+        }
+        int index = (int) Math.ceil(Math.log(x) / logGamma);
+        ensureCovers(index, index);
+        counts[index - offset]++;
+    }
+
+    /**
+     * Grows the bucket array so that it covers the given bucket indices.
+     *
+     * @param low  The lowest bucket index.
+     * @param high The highest bucket index.
+     */
+    private void ensureCovers(int low, int high) {
+        if (counts.length == 0) {
+            counts = new long[Math.max(high - low + 1, 64)];
+            offset = low;
+            return;
+        }
+        if (low >= offset && high < offset + counts.length) {
+            return;
+        }
+        int newLow = Math.min(low, offset);
+        int newHigh = Math.max(high, offset + counts.length - 1);
+        // Grow by at least half so that a slowly widening range is copied only O(log n) times
+        int length = Math.max(newHigh - newLow + 1, counts.length + counts.length / 2);
+        if (newLow < offset) {
+            newLow = newHigh - length + 1;
+        }
+        long[] grown = new long[length];
+        System.arraycopy(counts, 0, grown, offset - newLow, counts.length);
+        counts = grown;
+        offset = newLow;
+    }
+
+    /**
+     * Adds all observations of another sketch to this one. The result is the same as if all
+     * observations had been added to this sketch.
+     *
+     * @param other The sketch to be merged into this one, with the same relative accuracy.
+     */
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("QuantileSketch: Only sketches with the same relative accuracy can be merged.");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        int low = Integer.MAX_VALUE;
+        int high = Integer.MIN_VALUE;
+        for (int i = 0; i < other.counts.length; i++) {
+            if (other.counts[i] != 0) {
+                low = Math.min(low, other.offset + i);
+                high = other.offset + i;
+            }
+        }
+        if (low <= high) {
+            ensureCovers(low, high);
+            for (int index = low; index <= high; index++) {
+                counts[index - offset] += other.counts[index - other.offset];
+            }
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Returns an estimate of a quantile of the observations.
+     *
+     * @param q The quantile, between 0 and 1, e.g. 0.95 for the 95th percentile.
+     * @return The estimate, within the relative accuracy of the exact quantile, or NaN if there are no observations.
+     */
+    public double getQuantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("QuantileSketch: The quantile must be between 0 and 1.");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        // The observation of this rank (from 0) in sorted order is estimated
+        long rank = (long) Math.floor(q * (count - 1));
+        if (rank < zeroCount) {
+            return min;
+        }
+        long seen = zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                // The bucket covers (gamma^(index-1), gamma^index]; its estimate has the smallest relative error
+                double estimate = 2 * Math.exp((offset + i) * logGamma) / (gamma + 1);
+                return Math.max(min, Math.min(max, estimate));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Removes all observations.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        zeroCount = 0;
+        count = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Returns the number of observations.
+     *
+     * @return The number of observations.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the smallest observation.
+     *
+     * @return The minimum, or NaN if there are no observations.
+     */
+    public double getMin() {
+        return count > 0 ? min : Double.NaN;
+    }
+
+    /**
+     * Returns the largest observation.
+     *
+     * @return The maximum, or NaN if there are no observations.
+     */
+    public double getMax() {
+        return count > 0 ? max : Double.NaN;
+    }
+
+    /**
+     * Returns the relative accuracy of the quantiles.
+     *
+     * @return The relative accuracy.
+     */
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+}
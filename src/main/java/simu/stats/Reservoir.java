@@ -0,0 +1,108 @@
+package simu.stats;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Reservoir keeps a uniform random sample of bounded size from a stream of observations of unknown length.
+ * Every observation seen so far is in the sample with the same probability, so percentiles and histograms
+ * can be estimated from it while the memory stays constant however long the simulation runs.
+ * It uses Li's Algorithm L, which draws random numbers only for the observations that enter the sample,
+ * O(k(1 + log(n/k))) of them for n observations and a capacity of k.
+ */
+public class Reservoir {
+    private final double[] values;
+    private final SplittableRandom random;
+    private long count;
+    private long nextIndex; // Index of the next observation that enters the full sample
+    private double w;
+
+    /**
+     * Constructor for Reservoir.
+     *
+     * @param capacity The largest number of observations kept.
+     * @param seed     The seed of the random choice of the observations, which does not affect the simulation.
+     */
+    public Reservoir(int capacity, long seed) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Reservoir: The capacity must be at least 1.");
+        }
+        values = new double[capacity];
+        random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Offers a new observation to the sample.
+     *
+     * @param x The observed value.
+     */
+    public void add(double x) {
+        long index = count++;
+        int capacity = values.length;
+        if (index < capacity) {
+            values[(int) index] = x;
+            if (index == capacity - 1) {
+                w = Math.exp(Math.log(uniform()) / capacity);
+                skip(index);
+            }
+        } else if (index == nextIndex) {
+            values[random.nextInt(capacity)] = x;
+            w *= Math.exp(Math.log(uniform()) / capacity);
+            skip(index);
+        }
+    }
+
+    /**
+     * Draws the number of observations after the given one that do not enter the sample.
+     *
+     * @param index The index of the last observation.
+     */
+    private void skip(long index) {
+        nextIndex = index + (long) Math.floor(Math.log(uniform()) / Math.log1p(-w)) + 1;
+    }
+
+    /**
+     * Returns a uniform random number in (0,1].
+     *
+     * @return The random number.
+     */
+    private double uniform() {
+        return 1 - random.nextDouble();
+    }
+
+    /**
+     * Removes all observations. The random choice continues from its current state.
+     */
+    public void reset() {
+        count = 0;
+        nextIndex = 0;
+        w = 0;
+    }
+
+    /**
+     * Returns the number of observations offered so far.
+     *
+     * @return The number of observations.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the largest number of observations kept.
+     *
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return values.length;
+    }
+
+    /**
+     * Returns the sample.
+     *
+     * @return A copy of the kept observations, all of them if there were no more than the capacity.
+     */
+    public double[] getSample() {
+        return Arrays.copyOf(values, (int) Math.min(count, values.length));
+    }
+}
@@ -0,0 +1,99 @@
+package simu.stats;
+
+/**
+ * Quantiles of Student's t distribution and of the standard normal distribution,
+ * as needed for confidence intervals.
+ */
+public final class StudentT {
+
+    private StudentT() {
+    }
+
+    /**
+     * Returns the p-quantile of Student's t distribution.
+     * Uses Hill's approximation (Algorithm 396, 1970), which is accurate to about 6 digits for the
+     * probabilities used in confidence intervals.
+     *
+     * @param p  The probability, between 0 and 1.
+     * @param df The degrees of freedom, at least 1.
+     * @return The value t so that P(T &le; t) = p.
+     */
+    public static double quantile(double p, double df) {
+        if (p <= 0 || p >= 1 || df < 1) {
+            throw new IllegalArgumentException("quantile: p must be in (0, 1) and df at least 1");
+        }
+        if (p == 0.5) {
+            return 0;
+        }
+        double t = upperTail(2 * Math.min(p, 1 - p), df);
+        return p > 0.5 ? t : -t;
+    }
+
+    /**
+     * Hill's algorithm for the t value whose two-tailed probability is tail.
+     */
+    private static double upperTail(double tail, double n) {
+        if (n == 1) {
+            double x = tail * Math.PI / 2;
+            return Math.cos(x) / Math.sin(x);
+        }
+        if (n == 2) {
+            return Math.sqrt(2 / (tail * (2 - tail)) - 2);
+        }
+        double a = 1 / (n - 0.5);
+        double b = 48 / (a * a);
+        double c = ((20700 * a / b - 98) * a - 16) * a + 96.36;
+        double d = ((94.5 / (b + c) - 3) / b + 1) * Math.sqrt(a * Math.PI / 2) * n;
+        double x = d * tail;
+        double y = Math.pow(x, 2 / n);
+        if (y > 0.05 + a) {
+            // Asymptotic inverse expansion about the normal
+            x = normalQuantile(0.5 * tail);
+            y = x * x;
+            if (n < 5) {
+                c += 0.3 * (n - 4.5) * (x + 0.6);
+            }
+            c = (((0.05 * d * x - 5) * x - 7) * x - 2) * x + b + c;
+            y = (((((0.4 * y + 6.3) * y + 36) * y + 94.5) / c - y - 3) / b + 1) * x;
+            y = Math.expm1(a * y * y);
+        } else {
+            y = ((1 / (((n + 6) / (n * y) - 0.089 * d - 0.822) * (n + 2) * 3) + 0.5 / (n + 4)) * y - 1)
+                    * (n + 1) / (n + 2) + 1 / y;
+        }
+        return Math.sqrt(n * y);
+    }
+
+    /**
+     * Returns the p-quantile of the standard normal distribution.
+     * Uses Acklam's rational approximation, relative error below 1.2e-9.
+     *
+     * @param p The probability, between 0 and 1.
+     * @return The value z so that P(Z &le; z) = p.
+     */
+    public static double normalQuantile(double p) {
+        if (p <= 0 || p >= 1) {
+            throw new IllegalArgumentException("normalQuantile: p must be in (0, 1)");
+        }
+        final double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        final double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                6.680131188771972e+01, -1.328068155288572e+01};
+        final double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        final double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                3.754408661907416e+00};
+        final double low = 0.02425;
+        if (p < low) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        if (p > 1 - low) {
+            return -normalQuantile(1 - p);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+}
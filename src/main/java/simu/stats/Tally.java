@@ -0,0 +1,131 @@
+package simu.stats;
+
+/**
+ * Tally collects observations one at a time and keeps running statistics of them.
+ * It uses Welford's online algorithm, so the mean and variance are numerically stable
+ * and no observations need to be stored.
+ * Two tallies can be merged, e.g. to combine the results of parallel runs.
+ */
+public class Tally {
+    private long count;
+    private double mean;
+    private double m2; // Sum of squared differences from the mean
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Adds a new observation.
+     *
+     * @param x The observed value.
+     */
+    public void add(double x) {
+        count++;
+        double delta = x - mean;
+        mean += delta / count;
+        m2 += delta * (x - mean);
+        if (x < min) min = x;
+        if (x > max) max = x;
+    }
+
+    /**
+     * Adds all observations of another tally to this one.
+     * Uses the parallel variant of Welford's algorithm (Chan et al.).
+     *
+     * @param other The tally to be merged into this one.
+     */
+    public void merge(Tally other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            min = other.min;
+            max = other.max;
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Removes all observations.
+     */
+    public void reset() {
+        count = 0;
+        mean = 0;
+        m2 = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Returns the number of observations.
+     *
+     * @return The number of observations.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the mean of the observations.
+     *
+     * @return The mean, or 0 if there are no observations.
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Returns the sample variance of the observations.
+     *
+     * @return The sample variance, or 0 if there are less than two observations.
+     */
+    public double getVariance() {
+        return count > 1 ? m2 / (count - 1) : 0;
+    }
+
+    /**
+     * Returns the sample standard deviation of the observations.
+     *
+     * @return The sample standard deviation.
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Returns the smallest observation.
+     *
+     * @return The minimum, or NaN if there are no observations.
+     */
+    public double getMin() {
+        return count > 0 ? min : Double.NaN;
+    }
+
+    /**
+     * Returns the largest observation.
+     *
+     * @return The maximum, or NaN if there are no observations.
+     */
+    public double getMax() {
+        return count > 0 ? max : Double.NaN;
+    }
+
+    /**
+     * Returns a confidence interval for the mean of the observations.
+     *
+     * @param level The confidence level, e.g. 0.95.
+     * @return The confidence interval based on Student's t distribution.
+     */
+    public ConfidenceInterval getConfidenceInterval(double level) {
+        return ConfidenceInterval.of(this, level);
+    }
+}
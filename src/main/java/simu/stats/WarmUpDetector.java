@@ -0,0 +1,124 @@
+package simu.stats;
+
+/**
+ * WarmUpDetector finds the end of the initial transient of a stream of observations with MSER-5
+ * (White's Marginal Standard Error Rule on batch means of five observations).
+ * For every candidate truncation point d in the first half of the batch means, the rule computes
+ * the squared standard error of the mean of the remaining batches, sum((Y_i - mean)^2) / (n - d)^2,
+ * and truncates where it is smallest. If the minimum lies in the second half, the stream is still warming up.
+ * <p>
+ * Observations can be added one at a time. At most {@value #MAX_BATCHES} batch means are kept; when they are full,
+ * neighbouring batches are merged and the batch size doubles, so the memory stays constant.
+ */
+public class WarmUpDetector {
+    /** The number of observations per batch before any merging. */
+    public static final int BATCH_SIZE = 5;
+    /** The largest number of batch means kept. */
+    public static final int MAX_BATCHES = 1024;
+
+    private final double[] batchMeans = new double[MAX_BATCHES];
+    private int batches;
+    private int batchSize = BATCH_SIZE;
+    private double partialSum;
+    private int partialCount;
+    private long count;
+
+    /**
+     * Adds a new observation.
+     *
+     * @param x The observed value.
+     */
+    public void add(double x) {
+        count++;
+        partialSum += x;
+        if (++partialCount == batchSize) {
+            if (batches == MAX_BATCHES) {
+                for (int i = 0; i < MAX_BATCHES / 2; i++) {
+                    batchMeans[i] = (batchMeans[2 * i] + batchMeans[2 * i + 1]) / 2;
+                }
+                batches = MAX_BATCHES / 2;
+                batchSize *= 2;
+                // The partial batch was collected with the old size and becomes half of a new one
+                return;
+            }
+            batchMeans[batches++] = partialSum / partialCount;
+            partialSum = 0;
+            partialCount = 0;
+        }
+    }
+
+    /**
+     * Returns the number of batches to truncate according to MSER, searching the first half of the batches.
+     *
+     * @return The truncation point in batches, between 0 and half the number of batches.
+     */
+    public int getTruncationBatches() {
+        // Suffix sums from the last batch backwards give the statistic of every d in O(n)
+        double sum = 0;
+        double sumOfSquares = 0;
+        double best = Double.POSITIVE_INFINITY;
+        int bestD = 0;
+        for (int d = batches - 1; d >= 0; d--) {
+            double y = batchMeans[d];
+            sum += y;
+            sumOfSquares += y * y;
+            if (d <= batches / 2) {
+                int k = batches - d;
+                double squares = Math.max(0, sumOfSquares - sum * sum / k);
+                double statistic = squares / ((double) k * k);
+                if (statistic <= best) { // Ties go to the earliest truncation
+                    best = statistic;
+                    bestD = d;
+                }
+            }
+        }
+        return bestD;
+    }
+
+    /**
+     * Returns the number of observations to truncate according to MSER.
+     *
+     * @return The truncation point in observations.
+     */
+    public long getTruncationPoint() {
+        return (long) getTruncationBatches() * batchSize;
+    }
+
+    /**
+     * Tells whether the warm-up has ended, i.e. the MSER truncation point lies strictly inside the first half
+     * of at least the given number of batches.
+     *
+     * @param minBatches The smallest number of batches to decide on.
+     * @return True if the observations after the truncation point look stationary.
+     */
+    public boolean isWarmedUp(int minBatches) {
+        return batches >= Math.max(minBatches, 2) && getTruncationBatches() < batches / 2;
+    }
+
+    /**
+     * Returns the number of observations added.
+     *
+     * @return The number of observations.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the number of complete batches.
+     *
+     * @return The number of batch means.
+     */
+    public int getBatches() {
+        return batches;
+    }
+
+    /**
+     * Returns the current number of observations per batch.
+     *
+     * @return The batch size.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+}
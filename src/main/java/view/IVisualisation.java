@@ -1,6 +1,6 @@
 package view;
 
-import java.util.List;
+import simu.framework.QueueLengthSnapshot;
 
 /**
  * Interface for the visualization component of the simulation.
@@ -15,15 +15,11 @@ public interface IVisualisation {
     void clearDisplay();
 
     /**
-     * Displays the customer in the simulation.
-     */
-    void newCustomer(); // Called by Controller, doesn't have a Customer object
-
-    /**
-     * Updates the number of customers in the queue.
-     * This method is called by the controller to update the queue length.
+     * Sets the queue lengths to be shown.
+     * This method is called by the controller when a simulation starts; the visualization reads
+     * the latest lengths from the snapshot whenever it draws a frame.
      *
-     * @param lengths the length of the queue
+     * @param queueLengths the snapshot of the queue lengths that the engine keeps up to date
      */
-    void updateQueueLengths(List<List<Integer>> lengths);
+    void setQueueLengthSnapshot(QueueLengthSnapshot queueLengths);
 }
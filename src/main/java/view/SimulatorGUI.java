@@ -2,6 +2,7 @@ package view;
 
 import java.text.DecimalFormat;
 
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.event.EventHandler;
@@ -18,12 +19,14 @@ import javafx.scene.text.*;
 
 import controller.*;
 
+import simu.framework.LogRing;
 import simu.framework.Trace;
 import simu.framework.Trace.Level;
 
 import database.Airport;
 import database.ServicePointConfig;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -68,6 +71,19 @@ public class SimulatorGUI extends Application implements ISimulatorGUI {
     private TextArea logArea;
     private TextArea resultArea;
 
+    // Log lines are passed through a ring and appended to the log area in one batch per frame
+    private static final int LOG_RING_CAPACITY = 8192;
+    private static final int MAX_LOG_LINES = 1000; // The log area keeps only the latest lines
+    private final LogRing logLines = new LogRing(LOG_RING_CAPACITY);
+    private final ArrayDeque<Integer> logLineLengths = new ArrayDeque<>(); // Lengths of the lines in the log area
+    private final ArrayDeque<String> logBatch = new ArrayDeque<>();
+    private final AnimationTimer logTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            appendLogLines();
+        }
+    };
+
     // Airport selection
     private ComboBox<Airport> airportComboBox;
     private List<ServicePointConfig> currentConfigs = new ArrayList<>();
@@ -179,6 +195,7 @@ public class SimulatorGUI extends Application implements ISimulatorGUI {
             logArea.setEditable(false); // Make it read-only
             logArea.setWrapText(true);
             logArea.setPrefWidth(450); // Set a preferred width for the log area
+            logTimer.start();
 
             resultArea = new TextArea();
             resultArea.setEditable(false); // Make it read-only
@@ -290,17 +307,7 @@ public class SimulatorGUI extends Application implements ISimulatorGUI {
             });
 
             // Set initial states of the controls
-            airportComboBox.setDisable(false);
-            arrivalSlider.setDisable(false);
-            euPercentSlider.setDisable(false);
-            timeSpinner.setDisable(false);
-            delay.setDisable(false);
-            slowButton.setDisable(true);
-            speedUpButton.setDisable(true);
-            startButton.setDisable(false);
-            playPauseButton.setDisable(true);
-            resetButton.setDisable(true);
-            externalViewButton.setDisable(true); // Initially disabled
+            setInitialControlStates();
 
             // Layouts
             HBox canvas1 = new HBox();
@@ -497,12 +504,67 @@ public class SimulatorGUI extends Application implements ISimulatorGUI {
 
     /**
      * LogEvent method logs the given message to the log area.
-     * This method is called by the controller to log events.
+     * This method is called by the controller to log events, from any thread.
+     * The message is only put into the log ring; it appears in the log area with the next frame.
      *
      * @param message The message to be logged.
      */
     public void logEvent(String message) {
-        Platform.runLater(() -> logArea.appendText(message + "\n"));
+        logLines.add(message);
+    }
+
+    /**
+     * Appends the messages logged since the last frame to the log area in one batch
+     * and removes the oldest lines, so that the log area keeps at most {@value #MAX_LOG_LINES} lines.
+     * A message of several lines is split into its lines, so that every line counts.
+     */
+    private void appendLogLines() {
+        logLines.drain(this::addToLogBatch, LOG_RING_CAPACITY);
+        if (logBatch.isEmpty()) {
+            return;
+        }
+        StringBuilder text = new StringBuilder();
+        for (String line : logBatch) {
+            text.append(line).append('\n');
+            logLineLengths.addLast(line.length() + 1);
+        }
+        logBatch.clear();
+        int removed = 0;
+        while (logLineLengths.size() > MAX_LOG_LINES) {
+            removed += logLineLengths.removeFirst();
+        }
+        if (removed > 0) {
+            logArea.deleteText(0, Math.min(removed, logArea.getLength()));
+        }
+        logArea.appendText(text.toString());
+    }
+
+    /**
+     * Adds the lines of a logged message to the batch appended with the next frame.
+     * Keeps only the latest {@value #MAX_LOG_LINES} lines, the older ones would be removed from the log area right away.
+     *
+     * @param message The message, one or more lines separated by newlines.
+     */
+    private void addToLogBatch(String message) {
+        int start = 0;
+        int end;
+        while ((end = message.indexOf('\n', start)) >= 0) {
+            addLogLine(message.substring(start, end));
+            start = end + 1;
+        }
+        addLogLine(message.substring(start));
+    }
+
+    /**
+     * Adds one line to the batch appended with the next frame, dropping the oldest line if the batch is full.
+     *
+     * @param line The line, without a newline.
+     */
+    private void addLogLine(String line) {
+        logBatch.addLast(line);
+        if (logBatch.size() > MAX_LOG_LINES) {
+            logBatch.removeFirst();
+        }
     }
 
     /**
@@ -532,7 +594,12 @@ public class SimulatorGUI extends Application implements ISimulatorGUI {
      * Use Platform.runLater to ensure that the UI is updated on the JavaFX Application Thread.
      */
     public void clearLogArea() {
-        Platform.runLater(() -> logArea.clear());
+        long cleared = logLines.getWritePosition(); // Messages logged after this call are kept
+        Platform.runLater(() -> {
+            logLines.skipTo(cleared);
+            logLineLengths.clear();
+            logArea.clear();
+        });
     }
 
     /**
@@ -717,6 +784,25 @@ public class SimulatorGUI extends Application implements ISimulatorGUI {
      */
     public Node getExternalViewButton(){ return externalViewButton; }
 
+    /**
+     * Sets the controls to their states before a simulation is started, so that the settings can be changed
+     * and the simulation started.
+     * Must be called on the JavaFX Application Thread.
+     */
+    public void setInitialControlStates() {
+        airportComboBox.setDisable(false);
+        arrivalSlider.setDisable(false);
+        euPercentSlider.setDisable(false);
+        timeSpinner.setDisable(false);
+        delay.setDisable(false);
+        slowButton.setDisable(true);
+        speedUpButton.setDisable(true);
+        startButton.setDisable(false);
+        playPauseButton.setDisable(true);
+        resetButton.setDisable(true);
+        externalViewButton.setDisable(true); // Initially disabled
+    }
+
     /**
      * SetResetButtonDisabled method sets the reset button to be disabled or enabled.
      * This method is called by the controller to enable or disable the reset button.
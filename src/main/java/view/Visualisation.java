@@ -1,15 +1,16 @@
 package view;
 
+import javafx.animation.AnimationTimer;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
-
-import java.util.ArrayList;
-import java.util.List;
+import simu.framework.QueueLengthSnapshot;
 
 /**
  * Visualization class that extends Canvas and implements IVisualisation.
  * This class is responsible for drawing the simulation visualization on the canvas.
+ * The queue lengths are pulled from the engine's snapshot by an animation timer, so the canvas
+ * is redrawn at most once per frame however fast the simulation runs.
  */
 public class Visualisation extends Canvas implements IVisualisation {
     private GraphicsContext gc;
@@ -26,7 +27,15 @@ public class Visualisation extends Canvas implements IVisualisation {
 
     private final int QUEUE_HEIGHT = 10;
     private final int QUEUE_WIDTH = 100;
-    private List<List<Integer>> queueLengths = new ArrayList<>();
+    private QueueLengthSnapshot snapshot; // Kept up to date by the engine, null before a simulation starts
+    private int[] queueLengths = new int[0]; // The lengths drawn last
+    private long drawnVersion = -1; // Version of the snapshot drawn last
+    private final AnimationTimer frameTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            redrawIfChanged();
+        }
+    };
 
     /**
      * Constructor for the Visualization class.
@@ -109,12 +118,16 @@ public class Visualisation extends Canvas implements IVisualisation {
         double secondaryColumnOffset = 220;
         int maxColumns = 4;
 
-        for (int i = 0; i < Math.min(queueLengths.size(), servicePointNames.length); i++) {
-            List<Integer> servicePointQueues = queueLengths.get(i);
+        if (snapshot == null) {
+            return;
+        }
+        for (int i = 0; i < Math.min(snapshot.getGroupCount(), servicePointNames.length); i++) {
+            int start = snapshot.getGroupStart(i);
             double x = 0;
             double y = 0;
-            for (int j = 0; j < servicePointQueues.size(); j++) {
-                String queueName = "Queue Length: " + servicePointQueues.get(j);
+            for (int j = 0; j < snapshot.getGroupSize(i); j++) {
+                int queueLength = queueLengths[start + j];
+                String queueName = "Queue Length: " + queueLength;
                 Position position = getLocationPosition(servicePointNames[i]);
 
                 if (j < maxColumns) {
@@ -129,8 +142,6 @@ public class Visualisation extends Canvas implements IVisualisation {
                 }
 
                 drawQueue(queueName, x, y);
-
-                int queueLength = servicePointQueues.get(j);
                 drawCustomer(queueLength, x + 108, y - 9);
             }
         }
@@ -180,24 +191,27 @@ public class Visualisation extends Canvas implements IVisualisation {
     }
 
     /**
-     * This method is called by the controller to create a new customer.
+     * This method is called by the controller when a simulation starts.
+     * From then on the queues are redrawn once per frame whenever the engine has changed them.
      *
-     * The actual visual creation happens in newCustomer(Customer customer).
+     * @param queueLengths the snapshot of the queue lengths that the engine keeps up to date
      */
     @Override
-    public void newCustomer() {
-        // This method is called by the controller, but we need the Customer object to get its ID.
-        // The actual visual creation happens in newCustomer(Customer customer).
+    public void setQueueLengthSnapshot(QueueLengthSnapshot queueLengths) {
+        this.snapshot = queueLengths;
+        this.queueLengths = new int[queueLengths.size()];
+        drawnVersion = -1;
+        frameTimer.start(); // Does nothing if it is running already
     }
 
     /**
-     * This method is called by the controller to update the queue lengths.
-     *
-     * @param lengths the length of the queue
+     * Copies the latest queue lengths and redraws the canvas, unless they have not changed since the last frame.
      */
-    @Override
-    public void updateQueueLengths(List<List<Integer>> lengths) {
-        this.queueLengths = lengths;
+    private void redrawIfChanged() {
+        if (snapshot == null || snapshot.getVersion() == drawnVersion) {
+            return;
+        }
+        drawnVersion = snapshot.read(queueLengths);
         redrawCanvas();
     }
 
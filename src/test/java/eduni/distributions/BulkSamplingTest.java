@@ -0,0 +1,78 @@
+package eduni.distributions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkSamplingTest {
+
+    @Test
+    void testNormalBulkMatchesSingleSamples() {
+        int[] lengths = {1, 2, 3, 10, 17};
+        for (int len : lengths) {
+            Normal single = new Normal(10, 3, 4851);
+            Normal bulk = new Normal(10, 3, 4851);
+            // Take one sample first, so the bulk call starts with a kept Box-Muller variate
+            assertEquals(single.sample(), bulk.sample());
+            double[] out = new double[len + 2];
+            bulk.sample(out, 1, len);
+            for (int i = 0; i < len; i++) {
+                assertEquals(single.sample(), out[i + 1], "Bulk sample " + i + " of " + len + " should match.");
+            }
+            assertEquals(single.sample(), bulk.sample(), "Single samples should continue after a bulk call.");
+            assertEquals(0.0, out[0], "Values outside the range should not be written.");
+            assertEquals(0.0, out[len + 1], "Values outside the range should not be written.");
+        }
+    }
+
+    @Test
+    void testOtherGeneratorsBulkMatchesSingleSamples() {
+        ContinuousGenerator[][] pairs = {
+                {new Negexp(5, 7), new Negexp(5, 7)},
+                {new Uniform(1, 2, 7), new Uniform(1, 2, 7)},
+                {new Negexp(5, new StreamGenerator(7)), new Negexp(5, new StreamGenerator(7))},
+        };
+        for (ContinuousGenerator[] pair : pairs) {
+            double[] out = new double[100];
+            pair[1].sample(out, 0, out.length);
+            for (double x : out) {
+                assertEquals(pair[0].sample(), x);
+            }
+        }
+        Bernoulli single = new Bernoulli(0.3, 9);
+        Bernoulli bulk = new Bernoulli(0.3, 9);
+        long[] out = new long[100];
+        bulk.sample(out, 0, out.length);
+        for (long x : out) {
+            assertEquals(single.sample(), x);
+        }
+    }
+
+    @Test
+    void testBufferedGeneratorKeepsSequence() {
+        Normal plain = new Normal(7, 10, 123);
+        BufferedGenerator buffered = new BufferedGenerator(new Normal(7, 10, 123), 16);
+        double[] out = new double[5];
+        for (int i = 0; i < 100; i++) {
+            assertEquals(plain.sample(), buffered.sample());
+        }
+        buffered.sample(out, 0, out.length);
+        for (double x : out) {
+            assertEquals(plain.sample(), x, "Bulk samples from the buffer should continue the sequence.");
+        }
+        assertEquals(plain.sample(), buffered.sample());
+    }
+
+    @Test
+    void testSetSeedDiscardsKeptVariate() {
+        Normal normal = new Normal(0, 1, 99);
+        double first = normal.sample();
+        normal.setSeed(99);
+        assertEquals(first, normal.sample(), "After setSeed the sequence should start over.");
+
+        BufferedGenerator buffered = new BufferedGenerator(new Normal(0, 1, 99));
+        buffered.sample();
+        buffered.setSeed(99);
+        assertEquals(first, buffered.sample(), "After setSeed the buffered numbers should be discarded.");
+    }
+}
@@ -0,0 +1,166 @@
+package eduni.distributions;
+
+import org.junit.jupiter.api.Test;
+import simu.stats.GoodnessOfFit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongToDoubleFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConstantTimeSamplersTest {
+
+    private static final int N = 100_000;
+    private static final double ALPHA = 0.001; // Fixed seeds, so the tests are deterministic
+
+    /**
+     * Chi-square test of a discrete sample against a probability mass function given as a log.
+     * Values are grouped into cells with an expected count of at least 5, from the lowest to the highest value in the sample.
+     */
+    private static double chiSquare(long[] sample, LongToDoubleFunction logPmf) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (long x : sample) {
+            min = Math.min(min, x);
+            max = Math.max(max, x);
+        }
+        long[] counts = new long[(int) (max - min + 1)];
+        for (long x : sample) {
+            counts[(int) (x - min)]++;
+        }
+        List<long[]> observed = new ArrayList<>();
+        List<Double> expected = new ArrayList<>();
+        long cellCount = 0;
+        double cellExpected = 0;
+        double total = 0;
+        for (long x = min; x <= max; x++) {
+            double e = sample.length * Math.exp(logPmf.applyAsDouble(x));
+            cellCount += counts[(int) (x - min)];
+            cellExpected += e;
+            total += e;
+            if (cellExpected >= 5) {
+                observed.add(new long[]{cellCount});
+                expected.add(cellExpected);
+                cellCount = 0;
+                cellExpected = 0;
+            }
+        }
+        // The last cell also takes the probability outside the sample's range
+        int last = expected.size() - 1;
+        observed.get(last)[0] += cellCount;
+        expected.set(last, expected.get(last) + cellExpected + (sample.length - total));
+        long[] o = new long[observed.size()];
+        double[] e = new double[expected.size()];
+        for (int i = 0; i < o.length; i++) {
+            o[i] = observed.get(i)[0];
+            e[i] = expected.get(i);
+        }
+        return GoodnessOfFit.chiSquareTest(o, e);
+    }
+
+    private static long[] draw(DiscreteGenerator generator) {
+        long[] sample = new long[N];
+        generator.sample(sample, 0, N);
+        return sample;
+    }
+
+    private static double logChoose(long n, long k) {
+        return Distributions.logFactorial(n) - Distributions.logFactorial(k) - Distributions.logFactorial(n - k);
+    }
+
+    @Test
+    void testPoisson() {
+        double[] means = {3, 10, 57.5, 1000};
+        for (double mean : means) {
+            long[] sample = draw(new Poisson(mean, 4851));
+            double p = chiSquare(sample, k -> -mean + k * Math.log(mean) - Distributions.logFactorial(k));
+            assertTrue(p > ALPHA, "Poisson(" + mean + ") p-value " + p);
+        }
+    }
+
+    @Test
+    void testBinomial() {
+        double[][] cases = {{0.3, 12}, {0.3, 1000}, {0.8, 1000}, {0.00005, 100000}, {0.5, 40}};
+        for (double[] c : cases) {
+            double prob = c[0];
+            int trials = (int) c[1];
+            long[] sample = draw(new Binomial(prob, trials, 4851));
+            double p = chiSquare(sample, k -> logChoose(trials, k) + k * Math.log(prob) + (trials - k) * Math.log1p(-prob));
+            assertTrue(p > ALPHA, "Binomial(" + prob + ", " + trials + ") p-value " + p);
+        }
+    }
+
+    @Test
+    void testPascal() {
+        int[] successes = {3, 50};
+        for (int r : successes) {
+            double prob = 0.2;
+            long[] sample = draw(new Pascal(prob, r, 4851));
+            double p = chiSquare(sample, k -> k < r ? Double.NEGATIVE_INFINITY
+                    : logChoose(k - 1, r - 1) + r * Math.log(prob) + (k - r) * Math.log1p(-prob));
+            assertTrue(p > ALPHA, "Pascal(" + prob + ", " + r + ") p-value " + p);
+        }
+    }
+
+    @Test
+    void testErlangAndGamma() {
+        double[][] cases = {{3, 2}, {20, 2}};
+        for (double[] c : cases) {
+            int shape = (int) c[0];
+            double scale = c[1];
+            double[] sample = new double[N];
+            new Erlang(shape, scale, 4851).sample(sample, 0, N);
+            double p = GoodnessOfFit.ksTest(sample, x -> {
+                // 1 - sum_{i<shape} e^(-x/scale) (x/scale)^i / i!
+                double t = x / scale;
+                double sum = 0;
+                for (int i = 0; i < shape; i++) {
+                    sum += Math.exp(-t + i * Math.log(t) - Distributions.logFactorial(i));
+                }
+                return 1 - sum;
+            });
+            assertTrue(p > ALPHA, "Erlang(" + shape + ", " + scale + ") p-value " + p);
+        }
+
+        Gamma gamma = new Gamma(2, 7.5, 4851);
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (int i = 0; i < N; i++) {
+            double x = gamma.sample();
+            sum += x;
+            sumOfSquares += x * x;
+        }
+        double mean = sum / N;
+        assertEquals(15, mean, 0.05, "The mean of a gamma is shape * scale.");
+        assertEquals(30, sumOfSquares / N - mean * mean, 0.5, "The variance of a gamma is shape * scale^2.");
+    }
+
+    @Test
+    void testLargeParametersTakeConstantTime() {
+        CountingSource source = new CountingSource();
+        Distributions distributions = new Distributions(source);
+        for (int i = 0; i < 1000; i++) {
+            distributions.poisson(1e7);
+            distributions.binomial(0.4, 10_000_000);
+            distributions.gamma(1.0, 1e6);
+            distributions.pascal(0.01, 100_000);
+        }
+        assertTrue(source.count < 1000 * 30, "Expected a few uniforms per sample, used " + source.count / 1000.0);
+    }
+
+    /** A uniform source that counts how many numbers were drawn. */
+    private static class CountingSource extends RandomGenerator {
+        long count;
+
+        CountingSource() {
+            super(4851);
+        }
+
+        @Override
+        public double sample() {
+            count++;
+            return super.sample();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package eduni.distributions;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import simu.stats.GoodnessOfFit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmpiricalTest {
+
+    private static final int N = 100_000;
+    private static final double ALPHA = 0.001; // Fixed seeds, so the tests are deterministic
+
+    @Test
+    void testDiscreteEmpiricalFollowsWeights() {
+        long[] values = {1, 2, 3, 5, 8};
+        double[] weights = {10, 1, 0.5, 30, 3};
+        DiscreteEmpirical generator = new DiscreteEmpirical(values, weights, new StreamGenerator(15));
+        long[] observed = new long[values.length];
+        for (int i = 0; i < N; i++) {
+            long x = generator.sample();
+            int index = -1;
+            for (int j = 0; j < values.length; j++) {
+                if (values[j] == x) index = j;
+            }
+            assertTrue(index >= 0, "Sampled a value that is not in the table: " + x);
+            observed[index]++;
+        }
+        double total = 0;
+        for (double w : weights) total += w;
+        double[] expected = new double[weights.length];
+        for (int i = 0; i < weights.length; i++) expected[i] = N * weights[i] / total;
+        assertTrue(GoodnessOfFit.chiSquareTest(observed, expected) > ALPHA);
+    }
+
+    @Test
+    void testZeroWeightIsNeverSampled() {
+        DiscreteEmpirical generator = new DiscreteEmpirical(new long[]{0, 1, 2}, new double[]{1, 0, 1}, new StreamGenerator(16));
+        for (int i = 0; i < N; i++) {
+            assertNotEquals(1, generator.sample());
+        }
+    }
+
+    @Test
+    void testEmpiricalInterpolatesWithinBins() {
+        double[] edges = {0, 1, 3, 4, 10};
+        double[] weights = {2, 1, 0, 5};
+        Empirical generator = new Empirical(new Histogram(edges, weights), new StreamGenerator(17));
+        double[] sample = new double[N];
+        for (int i = 0; i < N; i++) {
+            sample[i] = generator.sample();
+            assertTrue(sample[i] >= 0 && sample[i] <= 10);
+            assertFalse(sample[i] > 3 && sample[i] < 4, "Sampled the empty bin: " + sample[i]);
+        }
+        // The CDF is piecewise linear between the edges
+        double total = 8;
+        assertTrue(GoodnessOfFit.ksTest(sample, x -> {
+            double p = 0;
+            for (int i = 0; i < weights.length; i++) {
+                if (x >= edges[i + 1]) {
+                    p += weights[i];
+                } else if (x > edges[i]) {
+                    p += weights[i] * (x - edges[i]) / (edges[i + 1] - edges[i]);
+                }
+            }
+            return p / total;
+        }) > ALPHA);
+    }
+
+    @Test
+    void testEmpiricalReproducesSample() {
+        Normal normal = new Normal(10, 4, new StreamGenerator(18));
+        double[] observations = new double[N];
+        for (int i = 0; i < N; i++) {
+            observations[i] = normal.sample();
+        }
+        Empirical generator = new Empirical(Histogram.of(observations, 200), new StreamGenerator(19));
+        double[] sample = new double[N];
+        for (int i = 0; i < N; i++) {
+            sample[i] = generator.sample();
+        }
+        assertTrue(GoodnessOfFit.ksTest(sample, observations) > ALPHA);
+    }
+
+    @Test
+    void testSameSeedSameSequence() {
+        Histogram histogram = new Histogram(new double[]{0, 1, 2}, new double[]{1, 3});
+        Empirical a = new Empirical(histogram, 12345);
+        Empirical b = new Empirical(histogram, 12345);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(a.sample(), b.sample());
+        }
+    }
+
+    @Test
+    void testHistogramOfSample() {
+        Histogram histogram = Histogram.of(new double[]{0, 0.5, 1, 2, 2, 4}, 4);
+        assertArrayEquals(new double[]{0, 1, 2, 3, 4}, histogram.getEdges());
+        // The largest observation belongs to the last bin
+        assertArrayEquals(new double[]{2, 1, 2, 1}, histogram.getWeights());
+        assertEquals(6, histogram.getTotalWeight());
+    }
+
+    @Test
+    void testInvalidHistograms() {
+        assertThrows(ParameterException.class, () -> new Histogram(new double[]{0, 1}, new double[]{1, 1}));
+        assertThrows(ParameterException.class, () -> new Histogram(new double[]{0, 2, 1}, new double[]{1, 1}));
+        assertThrows(ParameterException.class, () -> new Histogram(new double[]{0, 1, 2}, new double[]{0, 0}));
+        assertThrows(ParameterException.class, () -> new Histogram(new double[]{0, 1, 2}, new double[]{1, -1}));
+        assertThrows(ParameterException.class, () -> Histogram.of(new double[0], 10));
+    }
+
+    @Test
+    void testLoadSampleFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("checkin.csv");
+        Files.writeString(file, "duration,desk\n"
+                + "# recorded on Monday\n"
+                + "12.5,1\r\n"
+                + "  3;2\n"
+                + "\n"
+                + "-0.25\t3\n"
+                + "1e2\n"
+                + "6.02E-1\n"
+                + "0.1000000000000000055511151231257827\n"
+                + "abc\n"
+                + "7"); // No newline at the end
+        double[] expected = {12.5, 3, -0.25, 100, 0.602, 0.1, 7};
+        Histogram loaded = Histogram.load(file, 10);
+        Histogram binned = Histogram.of(expected, 10);
+        assertArrayEquals(binned.getEdges(), loaded.getEdges());
+        assertArrayEquals(binned.getWeights(), loaded.getWeights());
+    }
+
+    @Test
+    void testLoadParsesExactly(@TempDir Path dir) throws IOException {
+        // Equal edges show the smallest and largest value, equal weights the bins of all the others
+        StringBuilder text = new StringBuilder();
+        Uniform uniform = new Uniform(0, 100, new StreamGenerator(20));
+        double[] values = new double[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = uniform.sample();
+            text.append(values[i]).append('\n');
+        }
+        Path file = dir.resolve("security.txt");
+        Files.writeString(file, text);
+        Histogram loaded = Histogram.load(file, 500);
+        Histogram binned = Histogram.of(values, 500);
+        assertArrayEquals(binned.getEdges(), loaded.getEdges());
+        assertArrayEquals(binned.getWeights(), loaded.getWeights());
+    }
+
+    @Test
+    void testLoadEmptyFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("empty.csv");
+        Files.writeString(file, "duration\n");
+        assertThrows(ParameterException.class, () -> Histogram.load(file, 10));
+    }
+}
@@ -0,0 +1,72 @@
+package eduni.distributions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeedGeneratorTest {
+
+    @Test
+    void testJumpMatchesSteppingTheGenerator() {
+        int[] spacings = {1, 2, 7, 1000, 100000};
+        for (int spacing : spacings) {
+            SeedGenerator seeds = new SeedGenerator(4851, spacing);
+            RandomGenerator stepper = new RandomGenerator(4851);
+            assertEquals(4851, seeds.sample(), "The first seed is the initial seed.");
+            for (int n = 0; n < 5; n++) {
+                for (int i = 0; i < spacing; i++) {
+                    stepper.nextLong();
+                }
+                assertEquals(stepper.getSeed(), seeds.sample(), "Spacing " + spacing + " should skip exactly that many numbers.");
+            }
+        }
+    }
+
+    @Test
+    void testModPow() {
+        assertEquals(1, SeedGenerator.modPow(RandomGenerator.a, 0, RandomGenerator.m));
+        assertEquals(RandomGenerator.a, SeedGenerator.modPow(RandomGenerator.a, 1, RandomGenerator.m));
+        assertEquals(1, SeedGenerator.modPow(RandomGenerator.a, RandomGenerator.m - 1, RandomGenerator.m),
+                "By Fermat's little theorem a^(m-1) mod m is 1 for the prime modulus.");
+    }
+
+    @Test
+    void testConcurrentSamplesAreDistinct() throws Exception {
+        SeedGenerator shared = new SeedGenerator(4851, 100000);
+        int threads = 8;
+        int perThread = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    List<Long> seeds = new ArrayList<>();
+                    for (int i = 0; i < perThread; i++) {
+                        seeds.add(shared.sample());
+                    }
+                    return seeds;
+                }));
+            }
+            Set<Long> concurrent = new HashSet<>();
+            for (Future<List<Long>> future : futures) {
+                concurrent.addAll(future.get());
+            }
+            SeedGenerator sequential = new SeedGenerator(4851, 100000);
+            Set<Long> expected = new HashSet<>();
+            for (int i = 0; i < threads * perThread; i++) {
+                expected.add(sequential.sample());
+            }
+            assertEquals(expected, concurrent, "Concurrent callers should get exactly the sequential seeds, each once.");
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package eduni.distributions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamGeneratorTest {
+
+    @Test
+    void testSameSeedGivesSameStream() {
+        StreamGenerator a = new StreamGenerator(17);
+        StreamGenerator b = new StreamGenerator(17);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(a.sample(), b.sample(), "Generators with the same seed should give the same numbers.");
+        }
+        a.setSeed(17);
+        assertEquals(new StreamGenerator(17).sample(), a.sample(), "setSeed should restart the stream.");
+    }
+
+    @Test
+    void testSamplesAreUniformInOpenInterval() {
+        StreamGenerator stream = new StreamGenerator(3);
+        int n = 200_000;
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            double u = stream.sample();
+            assertTrue(u > 0 && u < 1, "Samples should lie in (0,1), got " + u);
+            sum += u;
+        }
+        assertEquals(0.5, sum / n, 0.005, "The mean of uniform samples should be 1/2.");
+    }
+
+    @Test
+    void testSplitStreamsAreDifferentAndReproducible() {
+        StreamGenerator root = new StreamGenerator(5);
+        StreamGenerator first = root.split();
+        StreamGenerator second = root.split();
+        StreamGenerator again = new StreamGenerator(5).split();
+
+        int equal = 0;
+        for (int i = 0; i < 1000; i++) {
+            double u = first.sample();
+            if (u == second.sample()) {
+                equal++;
+            }
+            assertEquals(u, again.sample(), "Splitting the same root should give the same stream.");
+        }
+        assertEquals(0, equal, "Split streams should not repeat each other.");
+    }
+
+    @Test
+    void testJump() {
+        StreamGenerator stream = new StreamGenerator("Xoshiro256PlusPlus", 11);
+        StreamGenerator copy = stream.jump();
+        StreamGenerator reference = new StreamGenerator("Xoshiro256PlusPlus", 11);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(reference.sample(), copy.sample(), "The jumped copy should continue the original stream.");
+        }
+        assertNotEquals(new StreamGenerator("Xoshiro256PlusPlus", 11).sample(), stream.sample(),
+                "The generator itself should have moved ahead.");
+        assertThrows(UnsupportedOperationException.class, () -> new StreamGenerator(1).jump());
+        assertThrows(UnsupportedOperationException.class, () -> stream.split());
+    }
+
+    @Test
+    void testDistributionWithStreamSource() {
+        Normal normal = new Normal(10, 4, new StreamGenerator(8).split());
+        int n = 100_000;
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (int i = 0; i < n; i++) {
+            double x = normal.sample();
+            sum += x;
+            sumOfSquares += x * x;
+        }
+        double mean = sum / n;
+        assertEquals(10, mean, 0.05);
+        assertEquals(4, sumOfSquares / n - mean * mean, 0.1);
+    }
+
+    @Test
+    void testNamedStreamsDoNotDependOnOrder() {
+        StreamGenerator a = new StreamGenerator(23);
+        StreamGenerator b = new StreamGenerator(23);
+        b.split();
+        b.sample();
+        b.stream("other");
+        StreamGenerator fromA = a.stream("arrivals");
+        StreamGenerator fromB = b.stream("arrivals");
+        StreamGenerator service = a.stream("service.DEP1.0");
+        int equal = 0;
+        for (int i = 0; i < 1000; i++) {
+            double u = fromA.sample();
+            assertEquals(u, fromB.sample(), "A named stream should only depend on the seed and the name.");
+            if (u == service.sample()) {
+                equal++;
+            }
+        }
+        assertEquals(0, equal, "Streams with different names should be different.");
+        assertNotEquals(new StreamGenerator(24).stream("arrivals").sample(), new StreamGenerator(23).stream("arrivals").sample());
+    }
+
+    @Test
+    void testAntitheticStreamMirrorsSamples() {
+        StreamGenerator stream = new StreamGenerator(29);
+        StreamGenerator mirror = stream.antithetic();
+        assertTrue(mirror.isAntithetic());
+        assertFalse(mirror.antithetic().isAntithetic());
+        StreamGenerator named = stream.stream("arrivals");
+        StreamGenerator namedMirror = mirror.stream("arrivals");
+        double[] bulk = new double[100];
+        mirror.antithetic().sample(bulk, 0, bulk.length);
+        for (int i = 0; i < bulk.length; i++) {
+            double u = stream.sample();
+            assertEquals(1 - u, mirror.sample(), 1e-15, "The antithetic sample should be 1-u.");
+            assertEquals(1 - named.sample(), namedMirror.sample(), 1e-15, "Named streams of an antithetic generator should be antithetic.");
+            assertEquals(u, bulk[i], 0.0, "Mirroring twice should give the original stream.");
+        }
+    }
+
+    @Test
+    void testInversionNormalIsMirroredByAntitheticStream() {
+        StreamGenerator stream = new StreamGenerator(31);
+        InversionNormal normal = new InversionNormal(10, 4, stream.stream("service"));
+        InversionNormal mirror = new InversionNormal(10, 4, stream.antithetic().stream("service"));
+        int n = 100_000;
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (int i = 0; i < n; i++) {
+            double x = normal.sample();
+            assertEquals(20, x + mirror.sample(), 1e-9, "Antithetic normal numbers should be mirrored around the mean.");
+            sum += x;
+            sumOfSquares += x * x;
+        }
+        double mean = sum / n;
+        assertEquals(10, mean, 0.05);
+        assertEquals(4, sumOfSquares / n - mean * mean, 0.1);
+    }
+
+    @Test
+    void testNormalQuantileInvertsCdf() {
+        for (double p : new double[]{0x1.0p-54, 1e-12, 1e-8, 0.001, 0.02425, 0.075, 0.3, 0.5, 0.7, 0.925, 0.999, 1 - 1e-12}) {
+            double x = Distributions.normalQuantile(p);
+            assertEquals(p, simu.stats.GoodnessOfFit.normalCdf(x), p * 1e-9, "Quantile of " + p);
+            if (p >= 1e-8) { // Otherwise 1-p is rounded
+                assertEquals(-x, Distributions.normalQuantile(1 - p), Math.abs(x) * 1e-9 + 1e-15);
+            }
+        }
+        assertEquals(0, Distributions.normalQuantile(0.5));
+        assertEquals(1.959963984540054, Distributions.normalQuantile(0.975), 1e-14);
+    }
+}
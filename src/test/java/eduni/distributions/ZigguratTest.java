@@ -0,0 +1,73 @@
+package eduni.distributions;
+
+import org.junit.jupiter.api.Test;
+import simu.stats.GoodnessOfFit;
+
+import java.util.function.DoubleUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZigguratTest {
+
+    private static final int N = 100_000;
+    private static final double ALPHA = 0.001; // Fixed seeds, so the tests are deterministic
+
+    private static double[] draw(ContinuousGenerator generator, int n) {
+        double[] sample = new double[n];
+        generator.sample(sample, 0, n);
+        return sample;
+    }
+
+    @Test
+    void testZigguratNormalFitsNormalDistribution() {
+        double mean = 10;
+        double variance = 3;
+        DoubleUnaryOperator cdf = x -> GoodnessOfFit.normalCdf((x - mean) / Math.sqrt(variance));
+        double[] sample = draw(new ZigguratNormal(mean, variance, 4851), N);
+        assertTrue(GoodnessOfFit.ksTest(sample, cdf) > ALPHA, "Kolmogorov-Smirnov test against the normal distribution.");
+        assertTrue(GoodnessOfFit.andersonDarlingTest(sample, cdf) > ALPHA, "Anderson-Darling test against the normal distribution.");
+
+        double[] boxMuller = draw(new Normal(mean, variance, 1234), N);
+        assertTrue(GoodnessOfFit.ksTest(sample, boxMuller) > ALPHA, "Two-sample test against the Box-Muller generator.");
+    }
+
+    @Test
+    void testZigguratNegexpFitsExponentialDistribution() {
+        double mean = 5;
+        DoubleUnaryOperator cdf = x -> x <= 0 ? 0 : -Math.expm1(-x / mean);
+        double[] sample = draw(new ZigguratNegexp(mean, new StreamGenerator(4851)), N);
+        assertTrue(GoodnessOfFit.ksTest(sample, cdf) > ALPHA, "Kolmogorov-Smirnov test against the exponential distribution.");
+        assertTrue(GoodnessOfFit.andersonDarlingTest(sample, cdf) > ALPHA, "Anderson-Darling test against the exponential distribution.");
+
+        double[] inversion = draw(new Negexp(mean, 1234), N);
+        assertTrue(GoodnessOfFit.ksTest(sample, inversion) > ALPHA, "Two-sample test against the inversion generator.");
+    }
+
+    @Test
+    void testTailsAreSampled() {
+        // The tail beyond R has probability 5.4e-4 for the normal and 4.5e-4 for the exponential layer table
+        double[] normal = draw(new ZigguratNormal(0, 1, new StreamGenerator(7)), 200_000);
+        double[] exponential = draw(new ZigguratNegexp(1, new StreamGenerator(7)), 200_000);
+        int normalTail = 0;
+        int exponentialTail = 0;
+        for (int i = 0; i < normal.length; i++) {
+            if (Math.abs(normal[i]) > 3.442619855899) {
+                normalTail++;
+            }
+            if (exponential[i] > 7.69711747013104972) {
+                exponentialTail++;
+            }
+        }
+        assertEquals(200_000 * 2 * (1 - GoodnessOfFit.normalCdf(3.442619855899)), normalTail, 40);
+        assertEquals(200_000 * Math.exp(-7.69711747013104972), exponentialTail, 30);
+    }
+
+    @Test
+    void testGoodnessOfFitRejectsWrongDistribution() {
+        double[] uniform = draw(new Uniform(-2, 2, 3), 2000);
+        DoubleUnaryOperator standardNormal = GoodnessOfFit::normalCdf;
+        assertTrue(GoodnessOfFit.ksTest(uniform, standardNormal) < ALPHA);
+        assertTrue(GoodnessOfFit.andersonDarlingTest(uniform, standardNormal) < ALPHA);
+        assertTrue(GoodnessOfFit.ksTest(uniform, draw(new Normal(0, 1, 3), 2000)) < ALPHA);
+    }
+}
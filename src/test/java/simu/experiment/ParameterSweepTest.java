@@ -0,0 +1,60 @@
+package simu.experiment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import simu.model.SimulationResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParameterSweepTest {
+
+    @Test
+    void testRange() {
+        assertArrayEquals(new int[]{1, 3, 5}, ParameterSweep.range(1, 5, 2));
+        assertArrayEquals(new int[]{2}, ParameterSweep.range(2, 2, 1));
+    }
+
+    @Test
+    void testScenariosAreCartesianProduct() {
+        ParameterSweep sweep = new ParameterSweep()
+                .arrivalIntervals(3, 5)
+                .euPercentages(0.2, 0.5, 0.8)
+                .checkinNums(ParameterSweep.range(2, 4, 1));
+        List<Scenario> scenarios = sweep.getScenarios();
+        assertEquals(2 * 3 * 3, scenarios.size(), "Every combination should be evaluated once.");
+        assertEquals(3, scenarios.get(0).getArrivalInterval());
+        assertEquals(4, scenarios.get(scenarios.size() - 1).getCheckinNum());
+    }
+
+    @Test
+    void testRunMatchesReplicationRunner(@TempDir Path dir) throws IOException, InterruptedException {
+        ParameterSweep sweep = new ParameterSweep()
+                .securityNums(1, 2)
+                .simulationTime(300)
+                .replications(2)
+                .baseSeed(99)
+                .parallelism(3);
+        SweepResult result = sweep.run();
+        assertEquals(2, result.getRows().size());
+
+        Scenario scenario = result.getRows().get(1).getScenario();
+        ReplicationSummary expected = new ReplicationRunner(scenario, 1).run(2, 99);
+        assertEquals(expected.getConfidenceInterval(SimulationResult.AVERAGE_TIME_IN_SYSTEM).getMean(),
+                result.getRows().get(1).getSummary().getConfidenceInterval(SimulationResult.AVERAGE_TIME_IN_SYSTEM).getMean(),
+                "A sweep point should give the same result as replicating it directly.");
+
+        Path csv = dir.resolve("sweep.csv");
+        result.writeCsv(csv);
+        List<String> lines = Files.readAllLines(csv);
+        assertEquals(3, lines.size(), "The CSV should have a header and one line per scenario.");
+        assertTrue(lines.get(0).startsWith("arrivalInterval,euPercentage,checkin,security"));
+        assertTrue(lines.get(0).contains(SimulationResult.THROUGHPUT + ".halfWidth"));
+        assertEquals(lines.get(0).split(",").length, lines.get(1).split(",", -1).length,
+                "Every line should have a value for every column.");
+    }
+}
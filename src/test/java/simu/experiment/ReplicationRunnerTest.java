@@ -0,0 +1,159 @@
+package simu.experiment;
+
+import org.junit.jupiter.api.Test;
+import simu.model.SimulationResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicationRunnerTest {
+
+    private final Scenario scenario = new Scenario(5, 0.3, 5, 3, 5, 5, 3, 500);
+
+    @Test
+    void testSameSeedGivesSameResult() {
+        SimulationResult first = ReplicationRunner.runReplication(scenario, 12345);
+        SimulationResult second = ReplicationRunner.runReplication(scenario, 12345);
+        assertEquals(first.getValues(), second.getValues(), "Replications with the same seed should be identical.");
+    }
+
+    @Test
+    void testParallelRunMatchesSequentialRuns() throws InterruptedException {
+        ReplicationSummary summary = new ReplicationRunner(scenario, 4).run(6, 42);
+        assertEquals(6, summary.getReplications());
+
+        long[] seeds = ReplicationRunner.replicationSeeds(6, 42);
+        for (int i = 0; i < seeds.length; i++) {
+            SimulationResult sequential = ReplicationRunner.runReplication(scenario, seeds[i]);
+            assertEquals(sequential.getValues(), summary.getResults().get(i).getValues(),
+                    "Parallel replications should not influence each other.");
+        }
+    }
+
+    @Test
+    void testSummaryHasConfidenceIntervals() throws InterruptedException {
+        ReplicationSummary summary = new ReplicationRunner(scenario, 2).run(5, 7);
+        assertTrue(summary.getKpiNames().contains(SimulationResult.AVERAGE_TIME_IN_SYSTEM));
+        assertEquals(5, summary.getConfidenceInterval(SimulationResult.THROUGHPUT).getCount());
+        assertTrue(summary.getConfidenceInterval(SimulationResult.AVERAGE_TIME_IN_SYSTEM).getHalfWidth() > 0,
+                "Independent replications should differ, giving a positive half-width.");
+    }
+
+    @Test
+    void testSummaryMergesQuantileSketches() throws InterruptedException {
+        ReplicationSummary summary = new ReplicationRunner(scenario, 2).run(4, 11);
+        String name = SimulationResult.WAITING_TIME + "Security";
+        long total = 0;
+        for (SimulationResult result : summary.getResults()) {
+            total += result.getSketch(name).getCount();
+        }
+        assertTrue(total > 0);
+        assertEquals(total, summary.getSketch(name).getCount(), "The merged sketch should hold the waits of all replications.");
+        assertTrue(summary.getSketch(name).getQuantile(0.95) >= summary.getSketch(name).getQuantile(0.5));
+    }
+
+    @Test
+    void testAntitheticReplicationAveragesPair() throws InterruptedException {
+        ReplicationRunner runner = new ReplicationRunner(scenario, 2);
+        runner.setAntithetic(true);
+        ReplicationSummary summary = runner.run(3, 42);
+        assertEquals(3, summary.getReplications());
+
+        long[] seeds = ReplicationRunner.replicationSeeds(3, 42);
+        for (int i = 0; i < seeds.length; i++) {
+            SimulationResult run = ReplicationRunner.runReplication(scenario, seeds[i], false);
+            SimulationResult mirror = ReplicationRunner.runReplication(scenario, seeds[i], true);
+            assertNotEquals(run.get(SimulationResult.AVERAGE_TIME_IN_SYSTEM), mirror.get(SimulationResult.AVERAGE_TIME_IN_SYSTEM));
+            assertEquals((run.get(SimulationResult.AVERAGE_TIME_IN_SYSTEM) + mirror.get(SimulationResult.AVERAGE_TIME_IN_SYSTEM)) / 2,
+                    summary.getResults().get(i).get(SimulationResult.AVERAGE_TIME_IN_SYSTEM));
+        }
+    }
+
+    @Test
+    void testComparingScenarioWithItselfGivesNoDifference() throws InterruptedException {
+        ReplicationSummary differences = new ReplicationRunner(scenario, 2).compare(scenario, 3, 42);
+        for (String kpi : differences.getKpiNames()) {
+            assertEquals(0, differences.getTally(kpi).getMax(), kpi);
+            assertEquals(0, differences.getTally(kpi).getMin(), kpi);
+        }
+    }
+
+    @Test
+    void testWarmUpRestartsStatistics() {
+        SimulationResult fixed = ReplicationRunner.runReplication(scenario.withWarmUpTime(100), 7);
+        assertEquals(100, fixed.get(SimulationResult.WARM_UP_TIME));
+        SimulationResult none = ReplicationRunner.runReplication(scenario, 7);
+        assertEquals(0, none.get(SimulationResult.WARM_UP_TIME));
+        assertThrows(IllegalArgumentException.class, () -> scenario.withWarmUpTime(500));
+
+        SimulationResult detected = ReplicationRunner.runReplication(
+                new Scenario(5, 0.3, 5, 3, 5, 5, 3, 5000).withWarmUpDetection(), 7);
+        double warmUp = detected.get(SimulationResult.WARM_UP_TIME);
+        assertTrue(warmUp > 0 && warmUp < 5000, "The warm-up should end during the run, not at " + warmUp);
+    }
+
+    @Test
+    void testWarmUpKeepsAverageServiceTimes() {
+        Scenario longer = new Scenario(5, 0.3, 5, 3, 5, 5, 3, 5000);
+        SimulationResult none = ReplicationRunner.runReplication(longer, 42);
+        SimulationResult warmedUp = ReplicationRunner.runReplication(longer.withWarmUpTime(4000), 42);
+        for (String key : new String[] {"Check-in", "Security", "Passport", "EU Gate", "Non-EU Gate"}) {
+            double expected = none.get(SimulationResult.AVERAGE_SERVICE_TIME + key);
+            assertEquals(expected, warmedUp.get(SimulationResult.AVERAGE_SERVICE_TIME + key), 0.2 * expected,
+                    "The average service time at " + key + " should not depend on the warm-up.");
+        }
+    }
+
+    @Test
+    void testStoppingRuleEndsRunEarly() {
+        Scenario longRun = new Scenario(5, 0.3, 5, 3, 5, 5, 3, 1_000_000);
+        SimulationResult stopped = ReplicationRunner.runReplication(longRun.withStoppingRule(0.05,
+                SimulationResult.AVERAGE_TIME_IN_SYSTEM, SimulationResult.WAITING_TIME_P95 + "Security"), 7);
+        double endTime = stopped.get(SimulationResult.END_TIME);
+        assertTrue(endTime < 1_000_000, "A stable scenario should stop long before the simulation time.");
+        assertTrue(stopped.get(SimulationResult.RELATIVE_HALF_WIDTH + SimulationResult.AVERAGE_TIME_IN_SYSTEM) <= 0.05);
+        assertTrue(stopped.get(SimulationResult.RELATIVE_HALF_WIDTH + SimulationResult.WAITING_TIME_P95 + "Security") <= 0.05);
+        assertEquals(stopped.get(SimulationResult.SERVICED_CUSTOMERS) / endTime, stopped.get(SimulationResult.THROUGHPUT), 1e-12);
+
+        assertEquals(500, ReplicationRunner.runReplication(scenario, 7).get(SimulationResult.END_TIME));
+        assertThrows(IllegalArgumentException.class,
+                () -> ReplicationRunner.runReplication(scenario.withStoppingRule(0.05, SimulationResult.THROUGHPUT), 7));
+    }
+
+    @Test
+    void testRunUntilAddsReplicationsUntilTarget() throws InterruptedException {
+        ReplicationRunner runner = new ReplicationRunner(scenario, 2);
+        String kpi = SimulationResult.AVERAGE_TIME_IN_SYSTEM;
+        ReplicationSummary summary = runner.runUntil(0.02, 200, 42, kpi);
+        assertTrue(summary.getReplications() > 5 && summary.getReplications() < 200, "Ran " + summary.getReplications());
+        assertTrue(summary.getConfidenceInterval(kpi).getRelativeHalfWidth() <= 0.02);
+        // The replications are those of a fixed number with the same seeds
+        ReplicationSummary fixed = runner.run(summary.getReplications(), 42);
+        assertEquals(fixed.getConfidenceInterval(kpi).getMean(), summary.getConfidenceInterval(kpi).getMean());
+
+        assertEquals(6, runner.runUntil(1e-6, 6, 42, kpi).getReplications(), "The largest number of replications is kept.");
+    }
+
+    @Test
+    void testCommonRandomNumbersNarrowTheDifference() throws InterruptedException {
+        Scenario fewerSecurity = new Scenario(5, 0.3, 5, 2, 5, 5, 3, 500);
+        ReplicationRunner runner = new ReplicationRunner(scenario, 4);
+        ReplicationSummary common = runner.compare(fewerSecurity, 10, 42);
+
+        // The same comparison with independent seeds for the two scenarios
+        ReplicationSummary a = runner.run(10, 42);
+        ReplicationSummary b = new ReplicationRunner(fewerSecurity, 4).run(10, 4242);
+        List<SimulationResult> independent = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            independent.add(ReplicationRunner.combine(b.getResults().get(i), a.getResults().get(i), (x, y) -> x - y));
+        }
+        ReplicationSummary separate = new ReplicationSummary(independent, 0.95);
+
+        String kpi = SimulationResult.AVERAGE_TIME_IN_SYSTEM;
+        assertTrue(common.getConfidenceInterval(kpi).getMean() > 0, "Fewer security points should make the stay longer.");
+        assertTrue(common.getConfidenceInterval(kpi).getHalfWidth() < separate.getConfidenceInterval(kpi).getHalfWidth(),
+                "Common random numbers should give a narrower interval than independent runs.");
+    }
+}
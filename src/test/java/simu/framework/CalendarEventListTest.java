@@ -0,0 +1,116 @@
+package simu.framework;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import simu.model.EventType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalendarEventListTest {
+
+    private CalendarEventList eventList;
+
+    @BeforeEach
+    void setUp() {
+        eventList = new CalendarEventList();
+    }
+
+    @Test
+    void testRemoveInTimeOrder() {
+        Event e1 = new Event(EventType.ARR1, 10.0, null);
+        Event e2 = new Event(EventType.DEP1, 5.0, null);
+        Event e3 = new Event(EventType.DEP2, 15.0, null);
+        eventList.add(e1);
+        eventList.add(e2);
+        eventList.add(e3);
+
+        assertEquals(5.0, eventList.getNextTime(), "Next time should be the time of the earliest event.");
+        assertSame(e2, eventList.remove());
+        assertSame(e1, eventList.remove());
+        assertSame(e3, eventList.remove());
+        assertTrue(eventList.isEmpty());
+        assertThrows(NoSuchElementException.class, () -> eventList.remove(),
+                "Removing from an empty list should throw NoSuchElementException");
+    }
+
+    @Test
+    void testEqualTimesKeepInsertionOrder() {
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Event e = new Event(EventType.DEP1, i % 4, null);
+            events.add(e);
+            eventList.add(e);
+        }
+        for (int time = 0; time < 4; time++) {
+            for (int i = time; i < events.size(); i += 4) {
+                assertSame(events.get(i), eventList.remove(), "Events with equal times should be removed first in, first out.");
+            }
+        }
+    }
+
+    @Test
+    void testHoldModelMatchesHeap() {
+        EventList heap = new EventList();
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            double time = random.nextDouble() * 1000;
+            eventList.add(new Event(EventType.ARR1, time, null));
+            heap.add(new Event(EventType.ARR1, time, null));
+        }
+        for (int i = 0; i < 50000; i++) {
+            assertEquals(heap.getNextTime(), eventList.getNextTime());
+            double time = eventList.remove().getTime();
+            heap.remove();
+            // Alternate between growing, shrinking and holding the number of pending events
+            int phase = (i / 10000) % 3;
+            int adds = phase == 0 ? 2 : phase == 1 ? random.nextInt(2) : 1;
+            for (int j = 0; j < adds; j++) {
+                double next = time + (random.nextBoolean() ? -5 * Math.log(random.nextDouble()) : 10 + random.nextGaussian());
+                eventList.add(new Event(EventType.DEP1, next, null));
+                heap.add(new Event(EventType.DEP1, next, null));
+            }
+            assertEquals(heap.size(), eventList.size());
+        }
+        while (!heap.isEmpty()) {
+            assertEquals(heap.remove().getTime(), eventList.remove().getTime());
+        }
+        assertTrue(eventList.isEmpty());
+    }
+
+    @Test
+    void testBucketsFollowSize() {
+        for (int i = 0; i < 1000; i++) {
+            eventList.add(new Event(EventType.ARR1, i, null));
+        }
+        assertTrue(eventList.getBucketCount() >= 500, "The calendar should grow with the number of events.");
+        for (int i = 0; i < 990; i++) {
+            assertEquals(i, eventList.remove().getTime());
+        }
+        assertTrue(eventList.getBucketCount() <= 32, "The calendar should shrink when events are removed.");
+    }
+
+    @Test
+    void testFarFutureEvent() {
+        eventList.add(new Event(EventType.ARR1, 1e9, null));
+        eventList.add(new Event(EventType.ARR1, 1.0, null));
+        eventList.add(new Event(EventType.ARR1, 2.0, null));
+        assertEquals(1.0, eventList.remove().getTime());
+        assertEquals(2.0, eventList.remove().getTime());
+        assertEquals(1e9, eventList.remove().getTime(), "An event far beyond the current year should still be found.");
+    }
+
+    @Test
+    void testClear() {
+        eventList.add(new Event(EventType.ARR1, 10.0, null));
+        eventList.add(new Event(EventType.DEP1, 5.0, null));
+        eventList.clear();
+        assertTrue(eventList.isEmpty(), "The list should be empty after clear.");
+        eventList.add(new Event(EventType.DEP1, 3.0, null));
+        assertEquals(3.0, eventList.getNextTime());
+    }
+}
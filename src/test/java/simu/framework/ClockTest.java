@@ -32,4 +32,18 @@ class ClockTest {
         clock.setTime(50.0);
         assertEquals(50.0, clock.getTime(), "Time should be updated correctly.");
     }
+
+    @Test
+    void testNewClocksAreIndependent() {
+        Clock first = new Clock();
+        Clock second = new Clock();
+        assertEquals(0.0, first.getTime(), "A new clock should start at 0.0.");
+
+        first.setTime(10.0);
+        second.setTime(20.0);
+        assertEquals(10.0, first.getTime(), "Setting another clock should not change this clock.");
+        assertEquals(20.0, second.getTime(), "Each clock keeps its own time.");
+        assertEquals(0.0, clock.getTime(), "Engine clocks should not change the shared instance.");
+        assertNotSame(first, Clock.getInstance(), "A new clock should not be the shared instance.");
+    }
 }
@@ -0,0 +1,78 @@
+package simu.framework;
+
+import eduni.distributions.Negexp;
+import eduni.distributions.Normal;
+import simu.model.EventType;
+
+/**
+ * Compares the event list implementations with the classic "hold" benchmark.
+ *
+ * The list is filled with a number of pending events, after which every operation removes the
+ * earliest event and schedules it again a hold time later, so the size of the list stays constant.
+ * The hold times follow the airport model: half are passenger inter-arrival times (exponential,
+ * mean 5) and half are service times (normal, the check-in parameters mean 10 and variance 10).
+ *
+ * This is not a unit test. Run it with
+ * {@code java -cp target/classes:target/test-classes simu.framework.EventListBenchmark [operations]}.
+ */
+public class EventListBenchmark {
+    private static final int[] SIZES = {1_000, 10_000, 100_000, 1_000_000};
+    private static final int HOLD_TIMES = 1 << 20;
+
+    public static void main(String[] args) {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        double[] holdTimes = holdTimes();
+
+        System.out.printf("%10s %16s %16s%n", "pending", "heap ns/hold", "calendar ns/hold");
+        for (int size : SIZES) {
+            // Run each twice and report the second run, so the JIT has warmed up
+            hold(new EventList(), size, operations, holdTimes);
+            double heap = hold(new EventList(), size, operations, holdTimes);
+            hold(new CalendarEventList(), size, operations, holdTimes);
+            double calendar = hold(new CalendarEventList(), size, operations, holdTimes);
+            System.out.printf("%10d %16.1f %16.1f%n", size, heap, calendar);
+        }
+    }
+
+    /**
+     * Samples the hold times in advance so that the random number generation is not measured.
+     *
+     * @return The hold times.
+     */
+    private static double[] holdTimes() {
+        Negexp arrivals = new Negexp(5, 1);
+        Normal service = new Normal(10, 10, 2);
+        double[] holdTimes = new double[HOLD_TIMES];
+        for (int i = 0; i < HOLD_TIMES; i++) {
+            holdTimes[i] = i % 2 == 0 ? arrivals.sample() : Math.max(0, service.sample());
+        }
+        return holdTimes;
+    }
+
+    /**
+     * Runs the hold benchmark on one event list.
+     *
+     * @param list       The event list to measure.
+     * @param size       The number of pending events.
+     * @param operations The number of hold operations.
+     * @param holdTimes  The hold times to use.
+     * @return The average time of one hold operation in nanoseconds.
+     */
+    private static double hold(IEventList list, int size, int operations, double[] holdTimes) {
+        int next = 0;
+        for (int i = 0; i < size; i++) {
+            list.add(new Event(EventType.ARR1, holdTimes[next++ & (HOLD_TIMES - 1)] * size / 10, null));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            Event event = list.remove();
+            event.setTime(event.getTime() + holdTimes[next++ & (HOLD_TIMES - 1)]);
+            list.add(event);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (list.size() != size) {
+            throw new IllegalStateException("The event list lost events.");
+        }
+        return (double) elapsed / operations;
+    }
+}
@@ -92,4 +92,48 @@ class EventListTest {
         // or remove() might not throw exception after clear() in this context.
         // A more robust test would require inspecting the EventList source.
     }
+
+    @Test
+    void testEmptyAfterClear() {
+        eventList.add(new Event(EventType.ARR1, 10.0, null));
+        eventList.add(new Event(EventType.DEP1, 5.0, null));
+        eventList.clear();
+        assertTrue(eventList.isEmpty(), "The list should be empty after clear.");
+        assertEquals(0, eventList.size(), "Size should be 0 after clear.");
+        assertThrows(NoSuchElementException.class, () -> eventList.remove(),
+                "Removing after clear should throw NoSuchElementException");
+    }
+
+    @Test
+    void testEqualTimesRunInInsertionOrder() {
+        Event[] events = new Event[50];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new Event(EventType.DEP1, 7.0, null);
+            eventList.add(events[i]);
+        }
+        for (Event event : events) {
+            assertSame(event, eventList.remove(), "Events with equal times should be removed in the order they were added.");
+        }
+    }
+
+    @Test
+    void testPriorityBreaksTies() {
+        IEventType urgent = new IEventType() {
+            @Override
+            public int getPriority() {
+                return -1;
+            }
+        };
+        Event normal = new Event(EventType.DEP1, 3.0, null);
+        Event first = new Event(urgent, 3.0, null);
+        Event earlier = new Event(EventType.ARR1, 2.0, null);
+        eventList.add(normal);
+        eventList.add(first);
+        eventList.add(earlier);
+
+        assertSame(earlier, eventList.remove(), "Time is compared before priority.");
+        assertSame(first, eventList.remove(), "Among equal times the smaller priority should be removed first.");
+        assertSame(normal, eventList.remove());
+        assertTrue(eventList.isEmpty());
+    }
 }
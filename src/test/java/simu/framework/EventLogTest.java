@@ -0,0 +1,76 @@
+package simu.framework;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventLogTest {
+
+    @Test
+    void testRoundTrip(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("events.bin");
+        int n = 10_000; // More than the recorder buffers at once
+        try (EventRecorder recorder = new EventRecorder(file)) {
+            for (int i = 0; i < n; i++) {
+                recorder.record(i * 0.5, i % 7, i % 3 - 1, i % 5 == 0 ? -1 : 1_000_000_000_000L + i);
+            }
+            assertEquals(n, recorder.getRecords());
+        }
+        assertEquals(EventRecorder.HEADER_SIZE + (long) n * EventRecorder.RECORD_SIZE, Files.size(file));
+
+        try (EventLog log = new EventLog(file)) {
+            assertEquals(n, log.size());
+            for (int i = n - 1; i >= 0; i -= 7) { // Random access, not only in order
+                assertEquals(i * 0.5, log.getTime(i));
+                assertEquals(i % 7, log.getType(i));
+                assertEquals(i % 3 - 1, log.getServicePoint(i));
+                assertEquals(i % 5 == 0 ? -1 : 1_000_000_000_000L + i, log.getCustomer(i));
+            }
+            assertThrows(IndexOutOfBoundsException.class, () -> log.getTime(n));
+        }
+    }
+
+    @Test
+    void testIndexOf(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("events.bin");
+        double[] times = {1, 2, 2, 2, 5, 8};
+        try (EventRecorder recorder = new EventRecorder(file)) {
+            for (double time : times) {
+                recorder.record(time, 0, -1, -1);
+            }
+        }
+        try (EventLog log = new EventLog(file)) {
+            assertEquals(0, log.indexOf(0));
+            assertEquals(0, log.indexOf(1));
+            assertEquals(1, log.indexOf(2), "The first of several events at the same time");
+            assertEquals(4, log.indexOf(3));
+            assertEquals(5, log.indexOf(8));
+            assertEquals(times.length, log.indexOf(9));
+        }
+    }
+
+    @Test
+    void testIncompleteAndInvalidFiles(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("events.bin");
+        try (EventRecorder recorder = new EventRecorder(file)) {
+            recorder.record(1, 0, 0, 1);
+            recorder.record(2, 1, -1, 1);
+        }
+        Files.write(file, new byte[EventRecorder.RECORD_SIZE / 2], StandardOpenOption.APPEND); // A killed run
+        try (EventLog log = new EventLog(file)) {
+            assertEquals(2, log.size(), "An incomplete record at the end is ignored");
+        }
+
+        Path other = dir.resolve("other.bin");
+        Files.write(other, new byte[64]);
+        assertThrows(IOException.class, () -> new EventLog(other));
+        Files.write(other, new byte[0]);
+        assertThrows(IOException.class, () -> new EventLog(other));
+    }
+}
@@ -0,0 +1,144 @@
+package simu.framework;
+
+import org.junit.jupiter.api.Test;
+
+import controller.HeadlessController;
+import eduni.distributions.Negexp;
+import simu.model.EventType;
+import simu.model.MyEngine;
+import simu.model.ServicePoint;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class EventPoolTest {
+    /**
+     * The bytes a headless engine may allocate per processed event. With the pool no event is allocated; what is left
+     * is per customer: the Customer (about 64 bytes), one LinkedList node per queue it joins (24 bytes each, at most
+     * four) and the message supplier of its arrival trace (about 16 bytes), about 180 bytes for a customer who arrives
+     * about every 4.7 events, so about 38 bytes per event. An allocated Event would add another 32 bytes per event.
+     */
+    private static final double ENGINE_BYTES_PER_EVENT = 48;
+
+
+    @Test
+    void testReleasedEventIsReused() {
+        EventPool pool = new EventPool();
+        Event first = pool.obtain(EventType.ARR1, 1.0, null);
+        pool.release(first);
+        assertEquals(1, pool.size());
+
+        Event second = pool.obtain(EventType.DEP2, 2.0, null);
+        assertSame(first, second, "A released event should be handed out again.");
+        assertEquals(EventType.DEP2, second.getType());
+        assertEquals(2.0, second.getTime());
+        assertNull(second.getServicePoint());
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    void testEngineAllocatesOnlyCustomersPerEvent() {
+        com.sun.management.ThreadMXBean threads = threadMXBean();
+        // Two runs with the same seed are identical up to the end of the shorter one, so the difference between
+        // them is the steady state of the longer run after a warm-up that has filled the pool and compiled the loop.
+        // The allocations of building the engine and of the results are about the same in both and cancel out.
+        runEngine(threads, 20_000); // Warms up the JIT for the measured runs
+        long[] warmUp = runEngine(threads, 20_000);
+        long[] measured = runEngine(threads, 1_020_000);
+        double events = measured[1] - warmUp[1];
+        double bytesPerEvent = (measured[0] - warmUp[0]) / events;
+        assertTrue(events > 500_000, "The measured window should be long, it has " + events + " events.");
+        assertTrue(bytesPerEvent < ENGINE_BYTES_PER_EVENT, "The engine should only allocate the customers and their queue "
+                + "nodes, measured " + bytesPerEvent + " bytes per event.");
+    }
+
+    @Test
+    void testSteadyStateDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = threadMXBean();
+        double pooled = bytesPerEvent(threads, new EventPool());
+        double unpooled = bytesPerEvent(threads, null);
+        assertTrue(unpooled >= 16, "Without the pool every event should be allocated, measured " + unpooled + " bytes per event.");
+        assertTrue(pooled < 0.01, "With the pool no memory should be allocated per event, measured " + pooled + " bytes per event.");
+    }
+
+    /**
+     * Returns the thread bean that can measure allocations, or skips the test if the JVM does not support it.
+     */
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+
+    /**
+     * Micro-benchmark of the pool: runs a hand-written event cycle over a calendar event list with one arrival
+     * process and ten service points without customers, and measures the bytes allocated on this thread per
+     * processed event. It does not run an engine, so the customers and queue nodes of a real run are not counted.
+     *
+     * @param threads The bean used to read the allocated bytes of this thread.
+     * @param pool    The event pool, or null to allocate every event.
+     * @return The average number of bytes allocated per event after a warm-up.
+     */
+    private static double bytesPerEvent(com.sun.management.ThreadMXBean threads, EventPool pool) {
+        Clock clock = new Clock();
+        IEventList eventList = new CalendarEventList();
+        ArrivalProcess arrivals = new ArrivalProcess(new Negexp(5, 1), eventList, EventType.ARR1, clock);
+        arrivals.setEventPool(pool);
+        ServicePoint[] points = new ServicePoint[10];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new ServicePoint(new Negexp(10, i + 2), eventList, EventType.DEP1, clock);
+            points[i].setEventPool(pool);
+            points[i].beginService();
+        }
+        arrivals.generateNext();
+
+        runEvents(clock, eventList, arrivals, pool, 200_000); // Warm-up, fills the pool and compiles the loop
+        long threadId = Thread.currentThread().getId();
+        int events = 1_000_000;
+        long before = threads.getThreadAllocatedBytes(threadId);
+        runEvents(clock, eventList, arrivals, pool, events);
+        long after = threads.getThreadAllocatedBytes(threadId);
+        return (double) (after - before) / events;
+    }
+
+    /**
+     * Runs a seeded headless engine with the default event list and measures the bytes allocated on this thread.
+     *
+     * @param threads The bean used to read the allocated bytes of this thread.
+     * @param time    The simulation time.
+     * @return The allocated bytes and the number of processed events.
+     */
+    private static long[] runEngine(com.sun.management.ThreadMXBean threads, double time) {
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        MyEngine engine = new MyEngine(new HeadlessController(null), 5, 5, 3, 5, 5, 3, 42L);
+        engine.setSimulationTime(time);
+        engine.setEUFlightPercentage(0.3);
+        engine.run();
+        long after = threads.getThreadAllocatedBytes(threadId);
+        return new long[] {after - before, engine.getProcessedEvents()};
+    }
+
+    /**
+     * Processes events in a simplified version of the engine's cycle: an arrival schedules the next arrival,
+     * a departure starts the next service at the same point, and the processed event goes back to the pool.
+     */
+    private static void runEvents(Clock clock, IEventList eventList, ArrivalProcess arrivals, EventPool pool, int count) {
+        for (int i = 0; i < count; i++) {
+            Event event = eventList.remove();
+            clock.setTime(event.getTime());
+            if (event.getType() == EventType.ARR1) {
+                arrivals.generateNext();
+            } else {
+                event.getServicePoint().beginService();
+            }
+            if (pool != null) {
+                pool.release(event);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package simu.framework;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogRingTest {
+
+    @Test
+    void testDrainsInOrderInBatches() {
+        LogRing ring = new LogRing(8);
+        for (int i = 0; i < 5; i++) {
+            ring.add("line " + i);
+        }
+        List<String> lines = new ArrayList<>();
+        assertEquals(3, ring.drain(lines::add, 3));
+        assertEquals(2, ring.drain(lines::add, 100));
+        assertEquals(List.of("line 0", "line 1", "line 2", "line 3", "line 4"), lines);
+        assertEquals(0, ring.drain(lines::add, 100));
+        assertThrows(IllegalArgumentException.class, () -> new LogRing(100));
+    }
+
+    @Test
+    void testOverwritesOldestWhenReaderFallsBehind() {
+        LogRing ring = new LogRing(4);
+        for (int i = 0; i < 10; i++) {
+            ring.add("line " + i);
+        }
+        List<String> lines = new ArrayList<>();
+        ring.drain(lines::add, 100);
+        assertEquals(List.of("line 6", "line 7", "line 8", "line 9"), lines);
+        assertEquals(6, ring.getDropped());
+    }
+
+    @Test
+    void testSkipTo() {
+        LogRing ring = new LogRing(8);
+        ring.add("before clearing");
+        long cleared = ring.getWritePosition();
+        ring.add("after clearing");
+        ring.skipTo(cleared);
+        List<String> lines = new ArrayList<>();
+        ring.drain(lines::add, 100);
+        assertEquals(List.of("after clearing"), lines);
+    }
+
+    @Test
+    void testConcurrentWritersLoseNothingWhenDrainedInTime() throws InterruptedException {
+        LogRing ring = new LogRing(1 << 16);
+        int writers = 4;
+        int perWriter = 10_000;
+        Thread[] threads = new Thread[writers];
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            threads[w] = new Thread(() -> {
+                for (int i = 0; i < perWriter; i++) {
+                    ring.add(writer + ":" + i);
+                }
+            });
+            threads[w].start();
+        }
+        int[] next = new int[writers]; // Every writer's lines arrive in its own order
+        int received = 0;
+        while (received < writers * perWriter) {
+            received += ring.drain(line -> {
+                int colon = line.indexOf(':');
+                int writer = Integer.parseInt(line.substring(0, colon));
+                assertEquals(next[writer]++, Integer.parseInt(line.substring(colon + 1)));
+            }, 1000);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, ring.getDropped());
+    }
+}
@@ -0,0 +1,67 @@
+package simu.framework;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueueLengthSnapshotTest {
+
+    @Test
+    void testGroups() {
+        QueueLengthSnapshot snapshot = new QueueLengthSnapshot(5, 3, 0, 2);
+        assertEquals(10, snapshot.size());
+        assertEquals(4, snapshot.getGroupCount());
+        assertEquals(5, snapshot.getGroupStart(1));
+        assertEquals(8, snapshot.getGroupStart(2));
+        assertEquals(0, snapshot.getGroupSize(2));
+        assertEquals(2, snapshot.getGroupSize(3));
+    }
+
+    @Test
+    void testReadsLatestUpdate() {
+        QueueLengthSnapshot snapshot = new QueueLengthSnapshot(2, 1);
+        int[] lengths = new int[3];
+        assertEquals(0, snapshot.read(lengths));
+        for (int update = 1; update <= 3; update++) {
+            snapshot.beginUpdate();
+            snapshot.set(0, update);
+            snapshot.set(1, 10 * update);
+            snapshot.set(2, 100 * update);
+            snapshot.endUpdate();
+        }
+        long version = snapshot.read(lengths);
+        assertArrayEquals(new int[]{3, 30, 300}, lengths, "Only the latest state is kept.");
+        assertEquals(version, snapshot.getVersion());
+        assertEquals(version, snapshot.read(lengths), "The version only changes with an update.");
+    }
+
+    @Test
+    void testReaderNeverSeesPartialUpdate() throws InterruptedException {
+        QueueLengthSnapshot snapshot = new QueueLengthSnapshot(5, 3, 5, 5, 3);
+        Thread engine = new Thread(() -> {
+            for (int update = 1; update <= 200_000; update++) {
+                snapshot.beginUpdate();
+                for (int i = 0; i < snapshot.size(); i++) {
+                    snapshot.set(i, update);
+                }
+                snapshot.endUpdate();
+            }
+        });
+        engine.start();
+        int[] lengths = new int[snapshot.size()];
+        long lastVersion = 0;
+        while (engine.isAlive()) {
+            long version = snapshot.read(lengths);
+            assertEquals(0, version % 2, "A complete update has an even version.");
+            assertTrue(version >= lastVersion);
+            for (int length : lengths) {
+                assertEquals(lengths[0], length, "All lengths should come from the same update.");
+            }
+            assertEquals(version / 2, lengths[0]);
+            lastVersion = version;
+        }
+        engine.join();
+        snapshot.read(lengths);
+        assertEquals(200_000, lengths[lengths.length - 1]);
+    }
+}
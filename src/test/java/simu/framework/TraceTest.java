@@ -0,0 +1,96 @@
+package simu.framework;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraceTest {
+
+    @AfterEach
+    void tearDown() {
+        Trace.setSink(null);
+        Trace.setTraceLevel(Trace.Level.ERR);
+    }
+
+    @Test
+    void testFilteredMessagesAreNotBuilt() {
+        List<String> messages = new ArrayList<>();
+        Trace.setSink(messages::add);
+        Trace.setTraceLevel(Trace.Level.WAR);
+        assertFalse(Trace.isEnabled(Trace.Level.INFO));
+        assertTrue(Trace.isEnabled(Trace.Level.ERR));
+
+        Trace.out(Trace.Level.INFO, () -> fail("A filtered message should not be built."));
+        Trace.out(Trace.Level.INFO, "%s", new Object() {
+            @Override
+            public String toString() {
+                return fail("A filtered message should not be formatted.");
+            }
+        });
+        Trace.out(Trace.Level.WAR, () -> "built");
+        Trace.out(Trace.Level.ERR, "Customer #%d stayed: %.2f", 7, 12.345);
+        Trace.out(Trace.Level.ERR, "plain");
+        assertEquals(List.of("built", String.format("Customer #%d stayed: %.2f", 7, 12.345), "plain"), messages);
+    }
+
+    @Test
+    void testAsyncSinkWritesAllMessagesInOrder(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("trace.log");
+        AsyncTraceSink sink = new AsyncTraceSink(file);
+        Trace.setSink(sink);
+        Trace.setTraceLevel(Trace.Level.INFO);
+        int n = 3 * AsyncTraceSink.QUEUE_CAPACITY; // More than the queue holds
+        for (int i = 0; i < n; i++) {
+            Trace.out(Trace.Level.INFO, "line " + i);
+        }
+        sink.close();
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(n, lines.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals("line " + i, lines.get(i));
+        }
+        assertNull(sink.getError());
+        assertThrows(IllegalStateException.class, () -> sink.accept("after closing"));
+    }
+
+    @Test
+    void testAsyncSinkWritesEveryAcceptedMessageWhenClosedConcurrently(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("trace.log");
+        AsyncTraceSink sink = new AsyncTraceSink(file);
+        AtomicLong accepted = new AtomicLong();
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            Thread writer = new Thread(() -> {
+                try {
+                    while (true) {
+                        sink.accept("message");
+                        accepted.incrementAndGet();
+                    }
+                } catch (IllegalStateException closed) {
+                    // The sink has been closed, stop writing
+                }
+            });
+            writers.add(writer);
+            writer.start();
+        }
+        while (accepted.get() < 2 * AsyncTraceSink.QUEUE_CAPACITY) {
+            Thread.onSpinWait(); // Let the queue fill up
+        }
+        sink.close();
+        for (Thread writer : writers) {
+            writer.join(10_000);
+            assertFalse(writer.isAlive(), "A writer must not block after the sink is closed.");
+        }
+        assertEquals(0, sink.getDropped());
+        assertEquals(accepted.get(), Files.readAllLines(file).size(), "Every accepted message is written.");
+    }
+}
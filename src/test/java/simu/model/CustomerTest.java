@@ -11,20 +11,26 @@ class CustomerTest {
 
     @BeforeEach
     void setUp() {
-        // Reset clock and customer ID counter before each test
+        // Reset clock before each test
         Clock.getInstance().setTime(0.0);
-        Customer.resetIdCounter();
         // Initialize Trace level to prevent NullPointerException in Customer constructor
         Trace.setTraceLevel(Trace.Level.INFO); // Or Trace.Level.NONE if no output needed
     }
 
     @Test
     void testCustomerIdIncrement() {
-        Customer c1 = new Customer(1L, null); // Pass 1L for EU, null for Controller
+        CustomerCounter counter = new CustomerCounter();
+        Customer c1 = new Customer(1L, null, Clock.getInstance(), counter); // Pass 1L for EU, null for Controller
         assertEquals(1, c1.getId(), "First customer ID should be 1.");
 
-        Customer c2 = new Customer(0L, null); // Pass 0L for non-EU, null for Controller
+        Customer c2 = new Customer(0L, null, Clock.getInstance(), counter); // Pass 0L for non-EU, null for Controller
         assertEquals(2, c2.getId(), "Second customer ID should be 2.");
+
+        CustomerCounter other = new CustomerCounter();
+        assertEquals(1, new Customer(1L, null, Clock.getInstance(), other).getId(), "Every engine numbers its own customers.");
+        assertEquals(3, new Customer(1L, null, Clock.getInstance(), counter).getId());
+        counter.reset();
+        assertEquals(1, new Customer(1L, null, Clock.getInstance(), counter).getId());
     }
 
     @Test
@@ -65,4 +71,15 @@ class CustomerTest {
         Customer nonEuCustomer = new Customer(0L, null); // Pass 0L for non-EU, null for Controller
         assertFalse(nonEuCustomer.getIsEUFlight(), "Customer should be marked as non-EU flight.");
     }
+
+    @Test
+    void testTwoDecimals() {
+        assertEquals("0.00", Customer.twoDecimals(0));
+        assertEquals("3.50", Customer.twoDecimals(3.5));
+        assertEquals("12.06", Customer.twoDecimals(12.0649));
+        assertEquals("1.01", Customer.twoDecimals(1.005001));
+        assertEquals("-7.25", Customer.twoDecimals(-7.25));
+        assertEquals("0.00", Customer.twoDecimals(-0.001), "A value rounded to zero has no sign.");
+        assertEquals("12345678.90", Customer.twoDecimals(12345678.9));
+    }
 }
@@ -0,0 +1,114 @@
+package simu.model;
+
+import controller.HeadlessController;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import simu.framework.EventLog;
+import simu.framework.EventRecorder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventLogReplayTest {
+
+    /**
+     * Runs a seeded engine that records its events to a file.
+     */
+    private MyEngine runRecorded(Path file, double warmUpTime) throws IOException {
+        MyEngine engine = new MyEngine(new HeadlessController(new PrintStream(OutputStream.nullOutputStream())),
+                5, 5, 3, 5, 5, 3, 42L);
+        engine.setSimulationTime(5000);
+        engine.setEUFlightPercentage(0.3);
+        engine.setWarmUpTime(warmUpTime);
+        try (EventRecorder recorder = new EventRecorder(file)) {
+            engine.setEventRecorder(recorder);
+            engine.run();
+        }
+        return engine;
+    }
+
+    @Test
+    void testReplayGivesTheKpisOfTheRun(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("events.bin");
+        MyEngine engine = runRecorded(file, 0);
+        SimulationResult result = engine.getSimulationResult();
+
+        try (EventLog log = new EventLog(file)) {
+            EventLogReplay replay = EventLogReplay.replay(log);
+            assertEquals(log.size(), replay.getEvents());
+            long first = 0;
+            while (log.getCustomer(first) < 0) {
+                first++;
+            }
+            assertEquals(1, log.getCustomer(first), "The engine numbers its customers from 1, whatever ran before");
+            assertEquals(result.get(SimulationResult.SERVICED_CUSTOMERS), replay.getServicedCustomers());
+            assertEquals(result.get(SimulationResult.EU_SERVICED_CUSTOMERS), replay.getEuTimeInSystem().getCount());
+            assertEquals(engine.getTimeInSystem().getMean(), replay.getTimeInSystem().getMean(), 1e-9);
+            assertEquals(engine.getTimeInSystem().getMax(), replay.getTimeInSystem().getMax(), 1e-9);
+
+            int inAirport = 0;
+            for (int i = 0; i < replay.getServicePointCount(); i++) {
+                assertTrue(replay.getQueueLength(i) >= 0);
+                assertTrue(replay.getMaxQueueLength(i) >= replay.getQueueLength(i));
+                inAirport += replay.getQueueLength(i);
+            }
+            assertEquals(replay.getArrivals() - replay.getServicedCustomers(), inAirport,
+                    "Every customer who arrived and did not leave is at a service point");
+        }
+    }
+
+    @Test
+    void testTimesNeverDecrease(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("events.bin");
+        runRecorded(file, 0);
+
+        try (EventLog log = new EventLog(file)) {
+            for (long i = 1; i < log.size(); i++) {
+                assertTrue(log.getTime(i) >= log.getTime(i - 1), "Event " + i + " is earlier than the event before it");
+            }
+            for (double time = 0; time < 5000; time += 7.3) { // The binary search agrees with a linear scan
+                long expected = 0;
+                while (expected < log.size() && log.getTime(expected) < time) {
+                    expected++;
+                }
+                assertEquals(expected, log.indexOf(time), "First event at or after " + time);
+            }
+        }
+    }
+
+    @Test
+    void testQueueLengthTimeline(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("events.bin");
+        runRecorded(file, 0);
+
+        try (EventLog log = new EventLog(file)) {
+            EventLogReplay whole = EventLogReplay.replay(log);
+            for (double time : new double[] {10, 1234.5, 2500, 4999}) {
+                EventLogReplay partial = EventLogReplay.replay(log, time);
+                assertTrue(partial.getEndTime() < time);
+                for (int i = 0; i < whole.getServicePointCount(); i++) {
+                    assertEquals(partial.getQueueLength(i), whole.getQueueLength(i, Math.nextDown(time)),
+                            "Service point " + i + " at " + time);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testWarmUpRestartsTheStatistics(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("events.bin");
+        MyEngine engine = runRecorded(file, 1000);
+        SimulationResult result = engine.getSimulationResult();
+
+        try (EventLog log = new EventLog(file)) {
+            EventLogReplay replay = EventLogReplay.replay(log);
+            assertEquals(1000, replay.getStatisticsStart());
+            assertEquals(result.get(SimulationResult.SERVICED_CUSTOMERS), replay.getServicedCustomers());
+            assertEquals(engine.getTimeInSystem().getMean(), replay.getTimeInSystem().getMean(), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package simu.model;
+
+import controller.HeadlessController;
+import database.ServicePointConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MyEngineTest {
+
+    /**
+     * Creates a configuration of one service point type with EMPIRICAL service times.
+     */
+    private static ServicePointConfig empirical(String pointType, String dataFile) {
+        return new ServicePointConfig(null, null, pointType, 2, 5.0, "EMPIRICAL", null, null, dataFile);
+    }
+
+    @Test
+    void testEmpiricalConfigNeedsReadableDataFile(@TempDir Path dir) throws IOException {
+        HeadlessController controller = new HeadlessController(null);
+        assertThrows(IllegalArgumentException.class,
+                () -> new MyEngine(controller, List.of(empirical("CHECKIN", null))), "A missing data file is a bad config.");
+        assertThrows(IllegalArgumentException.class,
+                () -> new MyEngine(controller, List.of(empirical("CHECKIN", dir.resolve("missing.txt").toString()))),
+                "An unreadable data file is a bad config.");
+
+        Path data = dir.resolve("times.txt");
+        Files.write(data, List.of("4.5", "5.0", "5.5", "6.0", "4.0"));
+        assertDoesNotThrow(() -> new MyEngine(controller, List.of(empirical("CHECKIN", data.toString()))));
+    }
+}
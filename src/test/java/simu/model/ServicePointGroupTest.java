@@ -0,0 +1,89 @@
+package simu.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import eduni.distributions.ContinuousGenerator;
+import simu.framework.Clock;
+import simu.framework.EventList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServicePointGroupTest {
+
+    @Mock
+    private ContinuousGenerator generatorMock;
+
+    @Mock
+    private EventList eventListMock;
+
+    private final Clock clock = new Clock();
+    private List<ServicePoint> points;
+    private ServicePointGroup group;
+
+    @BeforeEach
+    void setUp() {
+        points = new ArrayList<>();
+        group = new ServicePointGroup();
+        for (int i = 0; i < 7; i++) {
+            ServicePoint sp = new ServicePoint(generatorMock, eventListMock, EventType.DEP1, clock);
+            points.add(sp);
+            group.add(sp);
+        }
+    }
+
+    @Test
+    void testEmptyGroup() {
+        assertNull(new ServicePointGroup().shortest(), "An empty group has no shortest queue.");
+    }
+
+    @Test
+    void testTiesGoToFirstAdded() {
+        assertSame(points.get(0), group.shortest(), "With equal queues the first added point should be chosen.");
+        points.get(0).addQueue(new Customer(1, null, clock));
+        assertSame(points.get(1), group.shortest(), "The next empty point in order should be chosen.");
+    }
+
+    @Test
+    void testShortestFollowsQueueChanges() {
+        for (ServicePoint sp : points) {
+            sp.addQueue(new Customer(1, null, clock));
+        }
+        points.get(4).removeQueue();
+        assertSame(points.get(4), group.shortest(), "The only point with an empty queue should be chosen.");
+        points.get(4).addQueue(new Customer(0, null, clock));
+        points.get(4).addQueue(new Customer(0, null, clock));
+        assertSame(points.get(0), group.shortest());
+        points.get(2).clear();
+        assertSame(points.get(2), group.shortest(), "A cleared point has the shortest queue.");
+    }
+
+    @Test
+    void testMatchesCollectionsMin() {
+        Random random = new Random(3);
+        for (int step = 0; step < 2000; step++) {
+            ServicePoint sp = points.get(random.nextInt(points.size()));
+            if (random.nextBoolean()) {
+                sp.addQueue(new Customer(1, null, clock));
+            } else {
+                sp.removeQueue();
+            }
+            assertSame(Collections.min(points), group.shortest(),
+                    "The group should choose the same point as Collections.min.");
+        }
+    }
+
+    @Test
+    void testPointCanOnlyJoinOneGroup() {
+        assertThrows(IllegalStateException.class, () -> new ServicePointGroup().add(points.get(0)));
+    }
+}
@@ -14,6 +14,8 @@ import simu.framework.Event;
 import simu.framework.EventList;
 import simu.framework.Trace;
 
+import java.util.BitSet;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -40,7 +42,6 @@ class ServicePointTest {
         // Reset clock and trace level for each test
         Clock.getInstance().setTime(0.0);
         Trace.setTraceLevel(Trace.Level.INFO); // Or NONE
-        Customer.resetIdCounter(); // Reset customer IDs if needed
 
         // Create the ServicePoint instance with mocks
         servicePoint = new ServicePoint(generatorMock, eventListMock, testEventType);
@@ -125,6 +126,20 @@ class ServicePointTest {
         verify(generatorMock).sample();
     }
 
+    @Test
+    void testNegativeServiceTimeIsTruncated() {
+        Clock.getInstance().setTime(20.0);
+        when(generatorMock.sample()).thenReturn(-3.0);
+
+        servicePoint.addQueue(customerMock1);
+        servicePoint.beginService();
+
+        ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        verify(eventListMock).add(eventCaptor.capture());
+        assertEquals(20.0, eventCaptor.getValue().getTime(), "The service must not end before it began.");
+        assertEquals(0.0, servicePoint.getTotalServiceTime());
+    }
+
     @Test
     void testIsOnQueue() {
         assertFalse(servicePoint.isOnQueue(), "isOnQueue should be false when empty.");
@@ -169,4 +184,57 @@ class ServicePointTest {
         assertFalse(servicePoint.isReserved(), "Service point should not be reserved after clear.");
         // Note: totalServiceTime is likely NOT reset by clear, which might be intended.
     }
-}
\ No newline at end of file
+
+    @Test
+    void testReadySetTracksIdlePointsWithQueue() {
+        BitSet ready = new BitSet();
+        servicePoint.setReadySet(ready, 3);
+        assertTrue(ready.isEmpty(), "An empty service point is not ready.");
+
+        servicePoint.addQueue(customerMock1);
+        assertTrue(ready.get(3), "An idle service point with a queue should mark itself ready.");
+
+        ready.clear(3);
+        servicePoint.beginService();
+        servicePoint.addQueue(customerMock2);
+        assertFalse(ready.get(3), "A reserved service point is not ready.");
+
+        servicePoint.removeQueue();
+        assertTrue(ready.get(3), "After a departure the next customer in the queue can be served.");
+
+        ready.clear(3);
+        servicePoint.removeQueue();
+        assertFalse(ready.get(3), "A service point with an empty queue is not ready.");
+    }
+
+    @Test
+    void testTimeWeightedStatistics() {
+        Clock clock = Clock.getInstance();
+        when(generatorMock.sample()).thenReturn(4.0);
+
+        servicePoint.addQueue(customerMock1); // t=0
+        servicePoint.beginService();
+        clock.setTime(1);
+        servicePoint.addQueue(customerMock2);
+        clock.setTime(4);
+        servicePoint.removeQueue();
+        servicePoint.beginService();
+        assertEquals(1.0, servicePoint.getUtilisation(5), 1e-12, "The point has been busy all the time.");
+        clock.setTime(6);
+        servicePoint.removeQueue();
+
+        // Busy 0-6 of 10; 1 customer 0-1, 2 customers 1-4, 1 customer 4-6; 1 waiting 1-4
+        assertEquals(6, servicePoint.getBusyTime(10), 1e-12);
+        assertEquals(0.6, servicePoint.getUtilisation(10), 1e-12);
+        assertEquals(0.9, servicePoint.getAverageNumber(10), 1e-12);
+        assertEquals(0.3, servicePoint.getAverageQueueLength(10), 1e-12);
+        assertEquals(2, servicePoint.getMaxQueueLength());
+        assertEquals(8, servicePoint.getTotalServiceTime(), "The total service time counts every started service in full.");
+
+        clock.setTime(10);
+        servicePoint.resetStatistics();
+        assertEquals(0, servicePoint.getUtilisation(20), "Statistics start anew after a reset.");
+        assertEquals(0, servicePoint.getMaxQueueLength());
+        assertEquals(0, servicePoint.getTotalServiceTime(), "The service time starts anew with the other statistics.");
+    }
+}
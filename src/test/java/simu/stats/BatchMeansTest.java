@@ -0,0 +1,85 @@
+package simu.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchMeansTest {
+
+    @Test
+    void testBatchesDoubleWithinBounds() {
+        BatchMeans batchMeans = new BatchMeans(10);
+        for (int i = 0; i < 1000; i++) {
+            batchMeans.add(i);
+            assertTrue(batchMeans.getBatches() < 20);
+        }
+        assertEquals(1000, batchMeans.getCount());
+        assertEquals(64, batchMeans.getBatchSize());
+        assertEquals(15, batchMeans.getBatches());
+        // The complete batches hold the first 15 * 64 observations, whose mean is (960 - 1) / 2
+        assertEquals(479.5, batchMeans.getConfidenceInterval(0.95).getMean(), 1e-9);
+    }
+
+    @Test
+    void testIntervalCoversMeanOfAutocorrelatedSeries() {
+        // An AR(1) series, like successive waiting times: the batches make the interval honest
+        int covered = 0;
+        for (int run = 0; run < 200; run++) {
+            SplittableRandom random = new SplittableRandom(run);
+            BatchMeans batchMeans = new BatchMeans();
+            double x = 0;
+            for (int i = 0; i < 20_000; i++) {
+                x = 0.9 * x + random.nextGaussian();
+                batchMeans.add(5 + x);
+            }
+            ConfidenceInterval interval = batchMeans.getConfidenceInterval(0.95);
+            if (interval.getLower() <= 5 && 5 <= interval.getUpper()) {
+                covered++;
+            }
+        }
+        assertTrue(covered >= 170, "Covered " + covered + " of 200");
+    }
+
+    @Test
+    void testPreciseOnlyWithEnoughIndependentBatches() {
+        BatchMeans batchMeans = new BatchMeans();
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 19; i++) {
+            batchMeans.add(10 + random.nextGaussian());
+        }
+        assertFalse(batchMeans.isPrecise(1, 0.95), "Too few batches.");
+        assertTrue(Double.isInfinite(batchMeans.getConfidenceInterval(0.95).getHalfWidth()));
+        for (int i = 0; i < 100_000; i++) {
+            batchMeans.add(10 + random.nextGaussian());
+        }
+        assertTrue(batchMeans.isPrecise(0.01, 0.95));
+        assertFalse(batchMeans.isPrecise(0.0001, 0.95));
+
+        BatchMeans trend = new BatchMeans();
+        for (int i = 0; i < 100_000; i++) {
+            trend.add(i); // An overloaded queue
+        }
+        assertTrue(trend.getLag1Autocorrelation() > BatchMeans.MAX_AUTOCORRELATION);
+        assertFalse(trend.isPrecise(1, 0.95));
+    }
+
+    @Test
+    void testBatchQuantiles() {
+        SplittableRandom random = new SplittableRandom(2);
+        BatchMeans p95 = new BatchMeans(20, 0.95);
+        assertEquals(200, p95.getBatchSize());
+        for (int i = 0; i < 200_000; i++) {
+            p95.add(-Math.log(1 - random.nextDouble())); // Exponential with mean 1
+        }
+        ConfidenceInterval interval = p95.getConfidenceInterval(0.95);
+        double exact = -Math.log(0.05);
+        assertEquals(exact, interval.getMean(), 0.05);
+        assertTrue(interval.getHalfWidth() < 0.1);
+        p95.reset();
+        assertEquals(0, p95.getCount());
+        assertEquals(200, p95.getBatchSize());
+        assertThrows(IllegalArgumentException.class, () -> new BatchMeans(20, 1));
+    }
+}
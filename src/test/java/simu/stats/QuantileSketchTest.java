@@ -0,0 +1,88 @@
+package simu.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuantileSketchTest {
+
+    private static final double[] QUANTILES = {0, 0.01, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99, 0.999, 1};
+
+    /**
+     * Returns the exact quantile with the same rank convention as the sketch.
+     */
+    private static double exactQuantile(double[] sorted, double q) {
+        return sorted[(int) Math.floor(q * (sorted.length - 1))];
+    }
+
+    @Test
+    void testQuantilesWithinRelativeAccuracy() {
+        SplittableRandom random = new SplittableRandom(1);
+        double[] values = new double[100_000];
+        QuantileSketch sketch = new QuantileSketch(0.01);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(3 * random.nextGaussian()); // Spans many orders of magnitude
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+        assertEquals(values.length, sketch.getCount());
+        for (double q : QUANTILES) {
+            double exact = exactQuantile(values, q);
+            assertEquals(exact, sketch.getQuantile(q), exact * 0.01 * (1 + 1e-9), "Quantile " + q);
+        }
+        assertEquals(values[0], sketch.getMin());
+        assertEquals(values[values.length - 1], sketch.getMax());
+    }
+
+    @Test
+    void testZeroObservations() {
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < 90; i++) {
+            sketch.add(0);
+        }
+        for (int i = 1; i <= 10; i++) {
+            sketch.add(i);
+        }
+        assertEquals(0, sketch.getQuantile(0.5), "Most customers did not wait.");
+        assertEquals(10, sketch.getQuantile(1), 0.1);
+        assertEquals(5, sketch.getQuantile(0.95), 0.05);
+    }
+
+    @Test
+    void testMergeEqualsSingleSketch() {
+        SplittableRandom random = new SplittableRandom(2);
+        QuantileSketch all = new QuantileSketch();
+        QuantileSketch low = new QuantileSketch();
+        QuantileSketch high = new QuantileSketch();
+        for (int i = 0; i < 10_000; i++) {
+            double small = random.nextDouble() * 10;
+            double large = 1000 + random.nextDouble() * 1e6; // Disjoint bucket ranges
+            all.add(small);
+            all.add(large);
+            low.add(small);
+            high.add(large);
+        }
+        low.merge(high);
+        assertEquals(all.getCount(), low.getCount());
+        for (double q : QUANTILES) {
+            assertEquals(all.getQuantile(q), low.getQuantile(q), "Quantile " + q);
+        }
+        assertThrows(IllegalArgumentException.class, () -> low.merge(new QuantileSketch(0.05)));
+    }
+
+    @Test
+    void testEmptyAndReset() {
+        QuantileSketch sketch = new QuantileSketch();
+        assertTrue(Double.isNaN(sketch.getQuantile(0.5)));
+        sketch.add(3);
+        sketch.reset();
+        assertEquals(0, sketch.getCount());
+        sketch.add(7);
+        assertEquals(7, sketch.getQuantile(0.5));
+        assertThrows(IllegalArgumentException.class, () -> sketch.add(-1));
+        assertThrows(IllegalArgumentException.class, () -> sketch.getQuantile(1.5));
+    }
+}
@@ -0,0 +1,67 @@
+package simu.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservoirTest {
+
+    @Test
+    void testKeepsAllWhileNotFull() {
+        Reservoir reservoir = new Reservoir(5, 1);
+        reservoir.add(3);
+        reservoir.add(1);
+        reservoir.add(2);
+        assertArrayEquals(new double[]{3, 1, 2}, reservoir.getSample());
+        assertEquals(3, reservoir.getCount());
+    }
+
+    @Test
+    void testSizeIsBounded() {
+        Reservoir reservoir = new Reservoir(100, 2);
+        for (int i = 0; i < 1_000_000; i++) {
+            reservoir.add(i);
+        }
+        assertEquals(1_000_000, reservoir.getCount());
+        double[] sample = reservoir.getSample();
+        assertEquals(100, sample.length);
+        for (double x : sample) {
+            assertTrue(x >= 0 && x < 1_000_000);
+        }
+    }
+
+    @Test
+    void testEveryObservationIsEquallyLikely() {
+        // Over many reservoirs, every position of the stream should be kept equally often
+        int n = 1000;
+        int capacity = 10;
+        int trials = 20_000;
+        long[] kept = new long[10]; // By tenth of the stream
+        for (int t = 0; t < trials; t++) {
+            Reservoir reservoir = new Reservoir(capacity, t);
+            for (int i = 0; i < n; i++) {
+                reservoir.add(i);
+            }
+            for (double x : reservoir.getSample()) {
+                kept[(int) x * kept.length / n]++;
+            }
+        }
+        double[] expected = new double[kept.length];
+        Arrays.fill(expected, (double) trials * capacity / kept.length);
+        assertTrue(GoodnessOfFit.chiSquareTest(kept, expected) > 0.001);
+    }
+
+    @Test
+    void testReset() {
+        Reservoir reservoir = new Reservoir(3, 4);
+        for (int i = 0; i < 10; i++) {
+            reservoir.add(i);
+        }
+        reservoir.reset();
+        assertEquals(0, reservoir.getSample().length);
+        reservoir.add(42);
+        assertArrayEquals(new double[]{42}, reservoir.getSample());
+    }
+}
@@ -0,0 +1,72 @@
+package simu.stats;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TallyTest {
+
+    @Test
+    void testEmptyTally() {
+        Tally tally = new Tally();
+        assertEquals(0, tally.getCount(), "A new tally should have no observations.");
+        assertEquals(0.0, tally.getMean(), "Mean of an empty tally should be 0.");
+        assertEquals(0.0, tally.getVariance(), "Variance of an empty tally should be 0.");
+        assertTrue(Double.isNaN(tally.getMin()), "Minimum of an empty tally should be NaN.");
+    }
+
+    @Test
+    void testMeanVarianceMinMax() {
+        Tally tally = new Tally();
+        for (double x : new double[]{2, 4, 4, 4, 5, 5, 7, 9}) {
+            tally.add(x);
+        }
+        assertEquals(8, tally.getCount());
+        assertEquals(5.0, tally.getMean(), 1e-12, "Mean should be 5.");
+        assertEquals(32.0 / 7, tally.getVariance(), 1e-12, "Sample variance should be 32/7.");
+        assertEquals(2.0, tally.getMin());
+        assertEquals(9.0, tally.getMax());
+    }
+
+    @Test
+    void testMergeEqualsAddingAll() {
+        Tally all = new Tally();
+        Tally first = new Tally();
+        Tally second = new Tally();
+        for (int i = 0; i < 100; i++) {
+            double x = Math.sin(i) * 10 + i * 0.1;
+            all.add(x);
+            (i < 30 ? first : second).add(x);
+        }
+        first.merge(second);
+        assertEquals(all.getCount(), first.getCount());
+        assertEquals(all.getMean(), first.getMean(), 1e-12, "Merged mean should equal the mean of all observations.");
+        assertEquals(all.getVariance(), first.getVariance(), 1e-9, "Merged variance should equal the variance of all observations.");
+        assertEquals(all.getMin(), first.getMin());
+        assertEquals(all.getMax(), first.getMax());
+    }
+
+    @Test
+    void testStudentTQuantiles() {
+        assertEquals(12.706, StudentT.quantile(0.975, 1), 1e-3);
+        assertEquals(4.303, StudentT.quantile(0.975, 2), 1e-3);
+        assertEquals(2.262, StudentT.quantile(0.975, 9), 1e-3);
+        assertEquals(2.042, StudentT.quantile(0.975, 30), 1e-3);
+        assertEquals(-2.042, StudentT.quantile(0.025, 30), 1e-3);
+        assertEquals(1.960, StudentT.quantile(0.975, 100000), 1e-3);
+        assertEquals(1.644854, StudentT.normalQuantile(0.95), 1e-6);
+    }
+
+    @Test
+    void testConfidenceInterval() {
+        Tally tally = new Tally();
+        for (double x : new double[]{9, 10, 11, 10, 10, 9, 11, 10, 10, 10}) {
+            tally.add(x);
+        }
+        ConfidenceInterval ci = tally.getConfidenceInterval(0.95);
+        double expected = 2.262 * tally.getStandardDeviation() / Math.sqrt(10);
+        assertEquals(10.0, ci.getMean(), 1e-12);
+        assertEquals(expected, ci.getHalfWidth(), 1e-3, "Half-width should be t(0.975, 9) * s / sqrt(n).");
+        assertTrue(ci.getLower() < 10 && ci.getUpper() > 10);
+    }
+}
@@ -0,0 +1,62 @@
+package simu.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarmUpDetectorTest {
+
+    @Test
+    void testTruncatesInitialTransient() {
+        SplittableRandom random = new SplittableRandom(1);
+        WarmUpDetector detector = new WarmUpDetector();
+        // The mean rises from 0 to 10 over the first 500 observations, like the waits of an empty airport filling up
+        for (int i = 0; i < 5000; i++) {
+            double mean = i < 500 ? 10.0 * i / 500 : 10;
+            detector.add(mean + random.nextGaussian());
+        }
+        assertEquals(5000, detector.getCount());
+        assertEquals(1000, detector.getBatches());
+        long truncation = detector.getTruncationPoint();
+        assertTrue(truncation >= 300 && truncation <= 700, "Truncation point " + truncation);
+        assertTrue(detector.isWarmedUp(40));
+    }
+
+    @Test
+    void testStationarySeriesIsNotTruncated() {
+        SplittableRandom random = new SplittableRandom(2);
+        WarmUpDetector detector = new WarmUpDetector();
+        for (int i = 0; i < 5000; i++) {
+            detector.add(10 + random.nextGaussian());
+        }
+        assertTrue(detector.getTruncationPoint() < 1000, "Truncation point " + detector.getTruncationPoint());
+        assertTrue(detector.isWarmedUp(40));
+    }
+
+    @Test
+    void testTrendIsNotWarmedUp() {
+        WarmUpDetector detector = new WarmUpDetector();
+        for (int i = 0; i < 1000; i++) {
+            detector.add(i); // An overloaded queue never becomes stationary
+        }
+        assertEquals(detector.getBatches() / 2, detector.getTruncationBatches());
+        assertFalse(detector.isWarmedUp(40));
+        assertFalse(new WarmUpDetector().isWarmedUp(0), "No batches are not enough to decide.");
+    }
+
+    @Test
+    void testMemoryIsBounded() {
+        WarmUpDetector detector = new WarmUpDetector();
+        int n = WarmUpDetector.MAX_BATCHES * WarmUpDetector.BATCH_SIZE * 8;
+        for (int i = 0; i < n; i++) {
+            detector.add(i < n / 10 ? 0 : 1);
+        }
+        assertEquals(WarmUpDetector.BATCH_SIZE * 8, detector.getBatchSize());
+        assertTrue(detector.getBatches() <= WarmUpDetector.MAX_BATCHES);
+        assertEquals((long) detector.getBatches() * detector.getBatchSize(), n);
+        assertEquals(n / 10, detector.getTruncationPoint(), detector.getBatchSize(),
+                "The step should be found within a batch after merging the batches.");
+    }
+}